@@ -0,0 +1,40 @@
+package com.interview.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Answers the asynchronous ingestion pipeline could not write. payload holds the
+ * RecordWrongAnswerRequest list as JSON so the batch can be replayed.
+ */
+public class IngestDeadLetter {
+    private Long id;
+    private Long userId;
+    private String source;
+    private Integer answerCount;
+    private String payload;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+
+    public IngestDeadLetter() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+
+    public Integer getAnswerCount() { return answerCount; }
+    public void setAnswerCount(Integer answerCount) { this.answerCount = answerCount; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,36 @@
+package com.interview.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a bulk rescheduling run. lastId is the highest wrong_answer_records.id
+ * already written, so an interrupted run resumes right after it.
+ */
+public class RescheduleCheckpoint {
+    private String jobName;
+    private Long lastId;
+    private Long processed;
+    private String status; // 'running' | 'done'
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+
+    public RescheduleCheckpoint() {}
+
+    public String getJobName() { return jobName; }
+    public void setJobName(String jobName) { this.jobName = jobName; }
+
+    public Long getLastId() { return lastId; }
+    public void setLastId(Long lastId) { this.lastId = lastId; }
+
+    public Long getProcessed() { return processed; }
+    public void setProcessed(Long processed) { this.processed = processed; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
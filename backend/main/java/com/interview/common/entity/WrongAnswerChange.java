@@ -0,0 +1,53 @@
+package com.interview.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the wrong-answer outbox: a change written in the same transaction as the
+ * mutation it describes and published to the user's WebSocket sessions by the relay.
+ */
+public class WrongAnswerChange {
+    public static final String OP_UPSERT = "upsert";   // fields holds the changed columns
+    public static final String OP_DELETE = "delete";   // record is gone
+    public static final String OP_REFRESH = "refresh"; // record changed in SQL; client refetches it
+    public static final String OP_RESYNC = "resync";   // many records changed; client reloads its list
+
+    private Long id;
+    private Long userId;
+    private Long recordId;   // NULL for user-level changes (resync)
+    private String op;
+    private Long seq;        // per-user change sequence, assigned by WrongAnswerSyncLog
+    private String payload;  // JSON object of changed fields, NULL unless op = upsert
+    private LocalDateTime createdAt;
+
+    public WrongAnswerChange() {}
+
+    public WrongAnswerChange(Long userId, Long recordId, String op, String payload, LocalDateTime createdAt) {
+        this.userId = userId;
+        this.recordId = recordId;
+        this.op = op;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getRecordId() { return recordId; }
+    public void setRecordId(Long recordId) { this.recordId = recordId; }
+
+    public String getOp() { return op; }
+    public void setOp(String op) { this.op = op; }
+
+    public Long getSeq() { return seq; }
+    public void setSeq(Long seq) { this.seq = seq; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
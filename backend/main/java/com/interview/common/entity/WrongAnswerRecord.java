@@ -34,6 +34,7 @@ public class WrongAnswerRecord {
     private LocalDateTime nextReviewTime; // Next suggested review time
 
     private String reviewPriority; // 'high', 'medium', 'low'
+    private Integer priorityScore; // numeric review priority, higher reviews first
 
     // SM-2 scheduling fields
     private Integer repetitions; // number of successful reviews in a row
@@ -41,6 +42,10 @@ public class WrongAnswerRecord {
     private Integer intervalDays; // scheduled interval in days
     private Integer lastQuality;  // last review quality (0-5)
 
+    // FSRS memory state
+    private Double fsrsStability;  // days until recall probability drops to 90%
+    private Double fsrsDifficulty; // 1 (easy) .. 10 (hard)
+
     // User insights
     private String userNotes; // User's error analysis notes
     private List<String> userTags; // Custom tags (e.g., "易混淆", "常考点")
@@ -170,6 +175,14 @@ public class WrongAnswerRecord {
         this.reviewPriority = reviewPriority;
     }
 
+    public Integer getPriorityScore() {
+        return priorityScore;
+    }
+
+    public void setPriorityScore(Integer priorityScore) {
+        this.priorityScore = priorityScore;
+    }
+
     public Integer getRepetitions() {
         return repetitions;
     }
@@ -202,6 +215,22 @@ public class WrongAnswerRecord {
         this.lastQuality = lastQuality;
     }
 
+    public Double getFsrsStability() {
+        return fsrsStability;
+    }
+
+    public void setFsrsStability(Double fsrsStability) {
+        this.fsrsStability = fsrsStability;
+    }
+
+    public Double getFsrsDifficulty() {
+        return fsrsDifficulty;
+    }
+
+    public void setFsrsDifficulty(Double fsrsDifficulty) {
+        this.fsrsDifficulty = fsrsDifficulty;
+    }
+
     public String getUserNotes() {
         return userNotes;
     }
@@ -0,0 +1,33 @@
+package com.interview.entity;
+
+/**
+ * Materialized statistics counter for a user's wrong answers.
+ * One row per (dimension, bucketKey), e.g. ("status", "mastered") or ("source", "mock_exam").
+ */
+public class WrongAnswerStatCounter {
+    private Long userId;
+    private String dimension;
+    private String bucketKey;
+    private Integer countValue;
+
+    public WrongAnswerStatCounter() {}
+
+    public WrongAnswerStatCounter(Long userId, String dimension, String bucketKey, Integer countValue) {
+        this.userId = userId;
+        this.dimension = dimension;
+        this.bucketKey = bucketKey;
+        this.countValue = countValue;
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getDimension() { return dimension; }
+    public void setDimension(String dimension) { this.dimension = dimension; }
+
+    public String getBucketKey() { return bucketKey; }
+    public void setBucketKey(String bucketKey) { this.bucketKey = bucketKey; }
+
+    public Integer getCountValue() { return countValue; }
+    public void setCountValue(Integer countValue) { this.countValue = countValue; }
+}
@@ -0,0 +1,22 @@
+package com.interview.entity;
+
+/**
+ * One row of wrong_answer_sync_seq: the last sequence number handed out to a user and the
+ * floor below which incremental sync is no longer possible.
+ */
+public class WrongAnswerSyncCursor {
+    private Long userId;
+    private Long seq;
+    private Long floorSeq;
+
+    public WrongAnswerSyncCursor() {}
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getSeq() { return seq; }
+    public void setSeq(Long seq) { this.seq = seq; }
+
+    public Long getFloorSeq() { return floorSeq; }
+    public void setFloorSeq(Long floorSeq) { this.floorSeq = floorSeq; }
+}
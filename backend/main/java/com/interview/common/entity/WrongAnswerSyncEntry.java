@@ -0,0 +1,40 @@
+package com.interview.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of wrong_answer_sync_log: the latest change sequence of a record, or its tombstone
+ * when the record was deleted.
+ */
+public class WrongAnswerSyncEntry {
+    private Long userId;
+    private Long recordId;
+    private Long seq;
+    private Boolean deleted;
+    private LocalDateTime changedAt;
+
+    public WrongAnswerSyncEntry() {}
+
+    public WrongAnswerSyncEntry(Long userId, Long recordId, Long seq, Boolean deleted, LocalDateTime changedAt) {
+        this.userId = userId;
+        this.recordId = recordId;
+        this.seq = seq;
+        this.deleted = deleted;
+        this.changedAt = changedAt;
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getRecordId() { return recordId; }
+    public void setRecordId(Long recordId) { this.recordId = recordId; }
+
+    public Long getSeq() { return seq; }
+    public void setSeq(Long seq) { this.seq = seq; }
+
+    public Boolean getDeleted() { return deleted; }
+    public void setDeleted(Boolean deleted) { this.deleted = deleted; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+}
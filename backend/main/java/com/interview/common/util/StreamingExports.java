@@ -0,0 +1,27 @@
+package com.interview.util;
+
+import java.io.IOException;
+
+/**
+ * Helpers for CSV exports that write rows from inside a MyBatis ResultHandler.
+ */
+public final class StreamingExports {
+
+    private StreamingExports() {
+    }
+
+    /**
+     * The IOException a row writer raised, found along the cause chain: MyBatis wraps whatever a
+     * ResultHandler throws (PersistenceException, then MyBatisSystemException from
+     * SqlSessionTemplate), so a client disconnect arrives as a data-access error. Any other
+     * failure is rethrown unchanged.
+     */
+    public static IOException ioCause(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException io) {
+                return io;
+            }
+        }
+        throw e;
+    }
+}
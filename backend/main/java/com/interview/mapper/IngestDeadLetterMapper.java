@@ -0,0 +1,18 @@
+package com.interview.mapper;
+
+import com.interview.entity.IngestDeadLetter;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * Mapper for wrong_answer_ingest_dead_letters
+ */
+@Mapper
+public interface IngestDeadLetterMapper {
+
+    int insert(IngestDeadLetter deadLetter);
+
+    List<IngestDeadLetter> selectByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,33 @@
+package com.interview.mapper;
+
+import com.interview.entity.RescheduleCheckpoint;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mapper for wrong_answer_reschedule_checkpoints
+ */
+@Mapper
+public interface RescheduleCheckpointMapper {
+
+    RescheduleCheckpoint selectByJobName(@Param("jobName") String jobName);
+
+    /**
+     * Start a fresh run (or reset a finished one) at id 0
+     */
+    int upsertStarted(@Param("jobName") String jobName, @Param("startedAt") LocalDateTime startedAt);
+
+    /**
+     * Record progress after a batch has been written
+     */
+    int updateProgress(
+        @Param("jobName") String jobName,
+        @Param("lastId") Long lastId,
+        @Param("processed") Long processed,
+        @Param("updatedAt") LocalDateTime updatedAt
+    );
+
+    int markDone(@Param("jobName") String jobName, @Param("updatedAt") LocalDateTime updatedAt);
+}
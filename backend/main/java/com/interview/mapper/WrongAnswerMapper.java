@@ -1,8 +1,10 @@
 package com.interview.mapper;
 
+import com.interview.dto.WrongAnswerSummaryDto;
 import com.interview.entity.WrongAnswerRecord;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,11 +25,77 @@ public interface WrongAnswerMapper {
      */
     int updateById(WrongAnswerRecord record);
 
+    /**
+     * Record one answer in a single statement: insert the record, or add its counts and
+     * answer times to the existing (user_id, question_id) row and leave the rest of it as is.
+     * Returns 1 when the row was inserted and 2 when it was updated.
+     */
+    int upsertAnswer(WrongAnswerRecord record);
+
+    /**
+     * Multi-row form of upsertAnswer that inserts new rows without a review status, for the
+     * caller to derive and write; records must have distinct (user_id, question_id)
+     */
+    int upsertAnswers(@Param("records") List<WrongAnswerRecord> records);
+
+    /**
+     * Records of one user for the given questions
+     */
+    List<WrongAnswerRecord> selectByUserAndQuestionIds(
+        @Param("userId") Long userId,
+        @Param("questionIds") List<Long> questionIds
+    );
+
+    /*
+     * Narrow single-record updates. Each one is guarded by user_id and returns 0 when the
+     * record does not exist or belongs to another user, which doubles as the ownership check.
+     */
+
+    /**
+     * Set the review status of one record
+     */
+    int updateStatus(
+        @Param("id") Long id,
+        @Param("userId") Long userId,
+        @Param("reviewStatus") String reviewStatus,
+        @Param("updatedAt") LocalDateTime updatedAt
+    );
+
+    /**
+     * Replace the user's notes of one record
+     */
+    int updateNotes(
+        @Param("id") Long id,
+        @Param("userId") Long userId,
+        @Param("userNotes") String userNotes,
+        @Param("updatedAt") LocalDateTime updatedAt
+    );
+
+    /**
+     * Replace the user's tags of one record
+     */
+    int updateTags(
+        @Param("id") Long id,
+        @Param("userId") Long userId,
+        @Param("userTags") List<String> userTags,
+        @Param("updatedAt") LocalDateTime updatedAt
+    );
+
+    /**
+     * Write the outcome of a review: counters, answer times, status, scheduling state and priority
+     */
+    int updateScheduling(WrongAnswerRecord record);
+
     /**
      * Select wrong answer record by id
      */
     WrongAnswerRecord selectById(@Param("id") Long id);
 
+    /**
+     * selectById that locks the row until the transaction ends, for read-modify-write updates
+     */
+    WrongAnswerRecord selectByIdForUpdate(@Param("id") Long id);
+
     /**
      * Find or create wrong answer record (upsert logic helper)
      */
@@ -57,6 +125,73 @@ public interface WrongAnswerMapper {
         @Param("source") String source
     );
 
+    /**
+     * Keyset page of a user's records ordered by (last_wrong_time DESC, id DESC), NULL times last.
+     * status and source are optional filters. Without a cursor the first page is returned;
+     * otherwise rows strictly after (cursorTime, cursorId) are returned, where a null
+     * cursorTime means the cursor is already inside the NULL tail.
+     */
+    List<WrongAnswerRecord> selectPageAfter(
+        @Param("userId") Long userId,
+        @Param("status") String status,
+        @Param("source") String source,
+        @Param("hasCursor") boolean hasCursor,
+        @Param("cursorTime") LocalDateTime cursorTime,
+        @Param("cursorId") Long cursorId,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Summary-projection variant of selectPageAfter
+     */
+    List<WrongAnswerSummaryDto> selectSummaryPageAfter(
+        @Param("userId") Long userId,
+        @Param("status") String status,
+        @Param("source") String source,
+        @Param("hasCursor") boolean hasCursor,
+        @Param("cursorTime") LocalDateTime cursorTime,
+        @Param("cursorId") Long cursorId,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Unpaged summary list with optional status/source filters
+     */
+    List<WrongAnswerSummaryDto> selectSummaryList(
+        @Param("userId") Long userId,
+        @Param("status") String status,
+        @Param("source") String source
+    );
+
+    /**
+     * Summary projection of selectDueForReview
+     */
+    List<WrongAnswerSummaryDto> selectSummaryDueForReview(
+        @Param("userId") Long userId,
+        @Param("now") LocalDateTime now
+    );
+
+    /**
+     * (id, next_review_time, priority_score) of a user's non-mastered records, for the review queue
+     */
+    List<WrongAnswerRecord> selectQueueEntries(@Param("userId") Long userId);
+
+    /**
+     * Full records of a user by id (unordered)
+     */
+    List<WrongAnswerRecord> selectByUserAndIds(
+        @Param("userId") Long userId,
+        @Param("ids") List<Long> ids
+    );
+
+    /**
+     * Summary projection of a user's records by id (unordered)
+     */
+    List<WrongAnswerSummaryDto> selectSummaryByUserAndIds(
+        @Param("userId") Long userId,
+        @Param("ids") List<Long> ids
+    );
+
     /**
      * Get questions due for review (nextReviewTime <= now)
      */
@@ -111,11 +246,90 @@ public interface WrongAnswerMapper {
         @Param("endDate") LocalDateTime endDate
     );
 
+    /**
+     * Aggregate all statistics buckets for a user in a single pass.
+     * Returns one row per (review_status, source, difficulty) combination.
+     */
+    List<com.interview.dto.WrongAnswerStatsBucket> selectStatisticsBuckets(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
+
     /**
      * Delete a wrong answer record
      */
     int deleteById(@Param("id") Long id);
 
+    /**
+     * Load and lock the fields needed for bookkeeping (status, source, difficulty, counts) of
+     * the given ids that belong to the user; ids owned by someone else are simply absent
+     */
+    List<WrongAnswerRecord> selectBatchStateByIdsForUpdate(
+        @Param("userId") Long userId,
+        @Param("ids") List<Long> ids
+    );
+
+    /**
+     * Set the review status of many records in one statement
+     */
+    int updateStatusByIds(
+        @Param("userId") Long userId,
+        @Param("ids") List<Long> ids,
+        @Param("reviewStatus") String reviewStatus,
+        @Param("updatedAt") LocalDateTime updatedAt
+    );
+
+    /**
+     * Append a tag to every record that does not carry it yet
+     */
+    int appendTagByIds(
+        @Param("userId") Long userId,
+        @Param("ids") List<Long> ids,
+        @Param("tag") String tag,
+        @Param("updatedAt") LocalDateTime updatedAt
+    );
+
+    /**
+     * Remove one occurrence of a tag from every record that carries it.
+     * tagPattern is the tag with LIKE wildcards escaped, as required by JSON_SEARCH.
+     */
+    int removeTagByIds(
+        @Param("userId") Long userId,
+        @Param("ids") List<Long> ids,
+        @Param("tag") String tag,
+        @Param("tagPattern") String tagPattern,
+        @Param("updatedAt") LocalDateTime updatedAt
+    );
+
+    /**
+     * Delete many records of a user in one statement
+     */
+    int deleteByIds(
+        @Param("userId") Long userId,
+        @Param("ids") List<Long> ids
+    );
+
+    /**
+     * Stream a user's records (optionally restricted to ids) row by row for export.
+     * Rows are handed to the handler as they are fetched and never collected into a list.
+     */
+    void streamForExport(
+        @Param("userId") Long userId,
+        @Param("ids") List<Long> ids,
+        ResultHandler<WrongAnswerRecord> handler
+    );
+
+    /**
+     * Stream non-mastered records with id greater than afterId, in id order, carrying only the
+     * columns the bulk rescheduler needs. userId restricts the scan to one user when not null.
+     */
+    void streamRescheduleCandidates(
+        @Param("userId") Long userId,
+        @Param("afterId") Long afterId,
+        ResultHandler<WrongAnswerRecord> handler
+    );
+
     /**
      * Delete old archived records (for maintenance)
      */
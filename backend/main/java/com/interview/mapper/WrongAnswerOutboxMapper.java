@@ -0,0 +1,24 @@
+package com.interview.mapper;
+
+import com.interview.entity.WrongAnswerChange;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * Mapper for wrong_answer_outbox
+ */
+@Mapper
+public interface WrongAnswerOutboxMapper {
+
+    int insertBatch(@Param("changes") List<WrongAnswerChange> changes);
+
+    /**
+     * Oldest pending changes, locked until the relaying transaction ends so that
+     * concurrent relays (one per instance) never publish the same row twice
+     */
+    List<WrongAnswerChange> selectPendingForUpdate(@Param("limit") int limit);
+
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
@@ -32,4 +32,14 @@ public interface WrongAnswerReviewLogMapper {
         @Param("from") java.time.LocalDateTime from,
         @Param("to") java.time.LocalDateTime to
     );
+
+    /**
+     * Review activity of a user since windowStart, with the last-7-days count computed in the same pass
+     */
+    com.interview.dto.ReviewActivitySummary selectActivitySummary(
+        @Param("userId") Long userId,
+        @Param("from") java.time.LocalDateTime from,
+        @Param("weekStart") java.time.LocalDateTime weekStart,
+        @Param("windowStart") java.time.LocalDateTime windowStart
+    );
 }
@@ -0,0 +1,60 @@
+package com.interview.mapper;
+
+import com.interview.entity.WrongAnswerStatCounter;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * MyBatis Mapper for materialized wrong answer statistics counters
+ */
+@Mapper
+public interface WrongAnswerStatCounterMapper {
+
+    /**
+     * Load every counter row of a user
+     */
+    List<WrongAnswerStatCounter> selectByUserId(@Param("userId") Long userId);
+
+    /**
+     * Lock the "total" row of a user; null when the counters were never initialized
+     */
+    Integer lockInitialized(@Param("userId") Long userId);
+
+    /**
+     * Create or lock the "total" row, serializing a rebuild with concurrent deltas
+     */
+    int lockForRebuild(@Param("userId") Long userId);
+
+    /**
+     * Add signed deltas to a user's counters, creating missing buckets
+     */
+    int upsertDeltas(
+        @Param("userId") Long userId,
+        @Param("deltas") List<WrongAnswerStatCounter> deltas
+    );
+
+    /**
+     * Insert a full set of counters (used when rebuilding)
+     */
+    int insertBatch(@Param("counters") List<WrongAnswerStatCounter> counters);
+
+    /**
+     * Remove all counters of a user
+     */
+    int deleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Remove per-day creation counters of earlier days; only today's is ever read
+     */
+    int deleteCreatedDaysBefore(@Param("day") String day);
+
+    /**
+     * Page through users that have counters (for reconciliation)
+     */
+    List<Long> selectUserIdsAfter(
+        @Param("afterUserId") Long afterUserId,
+        @Param("limit") int limit
+    );
+}
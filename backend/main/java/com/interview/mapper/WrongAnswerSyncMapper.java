@@ -0,0 +1,42 @@
+package com.interview.mapper;
+
+import com.interview.entity.WrongAnswerSyncCursor;
+import com.interview.entity.WrongAnswerSyncEntry;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Mapper for wrong_answer_sync_seq and wrong_answer_sync_log
+ */
+@Mapper
+public interface WrongAnswerSyncMapper {
+
+    /**
+     * Advance the user's sequence by count; the row stays locked until the transaction ends,
+     * so sequence order matches commit order for the user
+     */
+    int allocateSeq(@Param("userId") Long userId, @Param("count") int count);
+
+    WrongAnswerSyncCursor selectCursor(@Param("userId") Long userId);
+
+    int raiseFloor(@Param("userId") Long userId, @Param("floorSeq") long floorSeq);
+
+    int upsertEntries(@Param("entries") List<WrongAnswerSyncEntry> entries);
+
+    /**
+     * Records changed after sinceSeq, oldest first
+     */
+    List<WrongAnswerSyncEntry> selectChangedSince(@Param("userId") Long userId,
+                                                  @Param("sinceSeq") long sinceSeq,
+                                                  @Param("limit") int limit);
+
+    /**
+     * Raise each user's floor past the tombstones about to be pruned
+     */
+    int raiseFloorsForTombstonesBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    int deleteTombstonesBefore(@Param("cutoff") LocalDateTime cutoff);
+}
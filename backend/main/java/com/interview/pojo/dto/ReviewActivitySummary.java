@@ -0,0 +1,17 @@
+package com.interview.dto;
+
+/**
+ * Aggregated review activity of a user, computed from wrong_answer_review_logs
+ */
+public class ReviewActivitySummary {
+    private Long weeklyReviewCount; // Reviews in the last 7 days
+    private Double avgTimeSpentSec; // Average time per review inside the window
+
+    public ReviewActivitySummary() {}
+
+    public Long getWeeklyReviewCount() { return weeklyReviewCount; }
+    public void setWeeklyReviewCount(Long weeklyReviewCount) { this.weeklyReviewCount = weeklyReviewCount; }
+
+    public Double getAvgTimeSpentSec() { return avgTimeSpentSec; }
+    public void setAvgTimeSpentSec(Double avgTimeSpentSec) { this.avgTimeSpentSec = avgTimeSpentSec; }
+}
@@ -0,0 +1,91 @@
+package com.interview.dto;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Client-to-server wrong-answer commands sent over STOMP.
+ *
+ * Each command is posted to its own destination as a plain JSON object, or inside a Batch to
+ * /app/wrong-answers/commands where the "type" property selects the command. The records are
+ * bound by the message converter and validated before the handler runs.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+    @JsonSubTypes.Type(value = WrongAnswerCommand.RecordAnswer.class, name = "RECORD_WRONG_ANSWER"),
+    @JsonSubTypes.Type(value = WrongAnswerCommand.UpdateStatus.class, name = "UPDATE_STATUS"),
+    @JsonSubTypes.Type(value = WrongAnswerCommand.UpdateNotes.class, name = "UPDATE_NOTES"),
+    @JsonSubTypes.Type(value = WrongAnswerCommand.UpdateTags.class, name = "UPDATE_TAGS"),
+    @JsonSubTypes.Type(value = WrongAnswerCommand.DeleteRecord.class, name = "DELETE_RECORD")
+})
+public sealed interface WrongAnswerCommand {
+
+    int MAX_BATCH_SIZE = 500;
+
+    // Id.NONE on the records: posted to their own destination they carry no "type" property
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NONE)
+    record RecordAnswer(
+        @NotNull Long questionId,
+        @NotBlank @Size(max = 50) String source,
+        Boolean isCorrect,
+        Long sourceInstanceId,
+        @Size(max = 500) String questionTitle,
+        String questionContent,
+        @Size(max = 20) String difficulty
+    ) implements WrongAnswerCommand {
+
+        public RecordWrongAnswerRequest toRequest() {
+            RecordWrongAnswerRequest request = new RecordWrongAnswerRequest(questionId, source, isCorrect);
+            request.setSourceInstanceId(sourceInstanceId);
+            request.setQuestionTitle(questionTitle);
+            request.setQuestionContent(questionContent);
+            request.setDifficulty(difficulty);
+            return request;
+        }
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NONE)
+    record UpdateStatus(
+        @NotNull Long recordId,
+        @NotNull @Pattern(regexp = "mastered|reviewing") String status
+    ) implements WrongAnswerCommand {}
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NONE)
+    record UpdateNotes(
+        @NotNull Long recordId,
+        @Size(max = 5000) String notes
+    ) implements WrongAnswerCommand {}
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NONE)
+    record UpdateTags(
+        @NotNull Long recordId,
+        @NotNull @Size(max = 50) List<@NotBlank @Size(max = 50) String> tags
+    ) implements WrongAnswerCommand {}
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NONE)
+    record DeleteRecord(
+        @NotNull Long recordId
+    ) implements WrongAnswerCommand {}
+
+    /**
+     * Several commands applied in order in one transaction; batchId is echoed in the reply
+     */
+    record Batch(
+        @Size(max = 64) String batchId,
+        @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@NotNull @Valid WrongAnswerCommand> commands
+    ) {}
+
+    /**
+     * Optional body of a sync request
+     */
+    record SyncRequest(Long sinceSeq) {}
+}
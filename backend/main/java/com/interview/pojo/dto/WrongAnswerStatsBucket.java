@@ -0,0 +1,34 @@
+package com.interview.dto;
+
+/**
+ * One row of the grouped statistics query: the number of records sharing a
+ * (review_status, source, difficulty) combination for a single user.
+ */
+public class WrongAnswerStatsBucket {
+    private String reviewStatus;
+    private String source;
+    private String difficulty;
+    private Long recordCount;   // Number of records in this bucket
+    private Long wrongAttempts; // SUM(wrong_count) across the bucket
+    private Long todayCount;    // Records created today in this bucket
+
+    public WrongAnswerStatsBucket() {}
+
+    public String getReviewStatus() { return reviewStatus; }
+    public void setReviewStatus(String reviewStatus) { this.reviewStatus = reviewStatus; }
+
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+
+    public String getDifficulty() { return difficulty; }
+    public void setDifficulty(String difficulty) { this.difficulty = difficulty; }
+
+    public Long getRecordCount() { return recordCount; }
+    public void setRecordCount(Long recordCount) { this.recordCount = recordCount; }
+
+    public Long getWrongAttempts() { return wrongAttempts; }
+    public void setWrongAttempts(Long wrongAttempts) { this.wrongAttempts = wrongAttempts; }
+
+    public Long getTodayCount() { return todayCount; }
+    public void setTodayCount(Long todayCount) { this.todayCount = todayCount; }
+}
@@ -0,0 +1,58 @@
+package com.interview.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight list-card view of a wrong answer record (view=summary).
+ * Leaves out question_content, user_notes and the JSON tag/knowledge-point columns;
+ * the full record is loaded through GET /wrong-answers/{id}.
+ */
+public class WrongAnswerSummaryDto {
+    private Long id;
+    private Long questionId;
+    private String questionTitle;
+    private String source;
+    private String difficulty;
+    private String reviewStatus;
+    private String reviewPriority;
+    private Integer wrongCount;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime lastWrongTime;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime nextReviewTime;
+
+    public WrongAnswerSummaryDto() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getQuestionId() { return questionId; }
+    public void setQuestionId(Long questionId) { this.questionId = questionId; }
+
+    public String getQuestionTitle() { return questionTitle; }
+    public void setQuestionTitle(String questionTitle) { this.questionTitle = questionTitle; }
+
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+
+    public String getDifficulty() { return difficulty; }
+    public void setDifficulty(String difficulty) { this.difficulty = difficulty; }
+
+    public String getReviewStatus() { return reviewStatus; }
+    public void setReviewStatus(String reviewStatus) { this.reviewStatus = reviewStatus; }
+
+    public String getReviewPriority() { return reviewPriority; }
+    public void setReviewPriority(String reviewPriority) { this.reviewPriority = reviewPriority; }
+
+    public Integer getWrongCount() { return wrongCount; }
+    public void setWrongCount(Integer wrongCount) { this.wrongCount = wrongCount; }
+
+    public LocalDateTime getLastWrongTime() { return lastWrongTime; }
+    public void setLastWrongTime(LocalDateTime lastWrongTime) { this.lastWrongTime = lastWrongTime; }
+
+    public LocalDateTime getNextReviewTime() { return nextReviewTime; }
+    public void setNextReviewTime(LocalDateTime nextReviewTime) { this.nextReviewTime = nextReviewTime; }
+}
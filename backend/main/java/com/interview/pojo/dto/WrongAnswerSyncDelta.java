@@ -0,0 +1,36 @@
+package com.interview.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answer to "what changed since sequence N" for one user. When fullResync is set the client
+ * must reload its list; otherwise it refetches changedIds and drops deletedIds.
+ */
+public class WrongAnswerSyncDelta {
+    private Long seq;             // Current sequence; the client resumes from here next time
+    private boolean fullResync;   // Gap too large or history pruned
+    private List<Long> changedIds = new ArrayList<>();
+    private List<Long> deletedIds = new ArrayList<>();
+
+    public WrongAnswerSyncDelta() {}
+
+    public static WrongAnswerSyncDelta fullResync(long seq) {
+        WrongAnswerSyncDelta delta = new WrongAnswerSyncDelta();
+        delta.setSeq(seq);
+        delta.setFullResync(true);
+        return delta;
+    }
+
+    public Long getSeq() { return seq; }
+    public void setSeq(Long seq) { this.seq = seq; }
+
+    public boolean isFullResync() { return fullResync; }
+    public void setFullResync(boolean fullResync) { this.fullResync = fullResync; }
+
+    public List<Long> getChangedIds() { return changedIds; }
+    public void setChangedIds(List<Long> changedIds) { this.changedIds = changedIds; }
+
+    public List<Long> getDeletedIds() { return deletedIds; }
+    public void setDeletedIds(List<Long> deletedIds) { this.deletedIds = deletedIds; }
+}
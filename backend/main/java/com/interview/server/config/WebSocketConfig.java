@@ -1,23 +1,141 @@
 package com.interview.config;
 
+import com.interview.websocket.RedisUserMessageSender;
+import com.interview.websocket.UserPartitionedTaskExecutor;
+import com.interview.websocket.UserSessionDelivery;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
 
 /**
  * WebSocket Configuration for real-time wrong answers synchronization
+ *
+ * wrong-answers.websocket.broker selects the broker:
+ * - simple (default): in-memory broker; user destinations only reach sessions on this instance
+ * - relay: STOMP broker relay to RabbitMQ/ActiveMQ; unresolved user destinations and the user
+ *   registry are broadcast through the broker, so any instance can reach any session
+ * - redis: in-memory broker per instance; RedisUserMessageSender fans user messages out
+ *   over Redis pub/sub and each instance delivers to its own sessions
  */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    public static final String BROKER_PROPERTY = "wrong-answers.websocket.broker";
+
+    @Value("${" + BROKER_PROPERTY + ":simple}")
+    private String brokerMode;
+
+    @Value("${wrong-answers.websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${wrong-answers.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${wrong-answers.websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${wrong-answers.websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${wrong-answers.websocket.relay.virtual-host:/}")
+    private String relayVirtualHost;
+
+    @Value("${wrong-answers.websocket.inbound.lanes:16}")
+    private int inboundLanes;
+
+    @Value("${wrong-answers.websocket.inbound.lane-capacity:1000}")
+    private int inboundLaneCapacity;
+
+    @Value("${wrong-answers.websocket.inbound.virtual-threads:false}")
+    private boolean inboundVirtualThreads;
+
+    @Value("${wrong-answers.websocket.heartbeat.server-ms:10000}")
+    private long serverHeartbeatMs;
+
+    @Value("${wrong-answers.websocket.heartbeat.client-ms:10000}")
+    private long clientHeartbeatMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TaskScheduler heartbeatScheduler;
+
+    /**
+     * The broker's own scheduler; lazy because it is created by the configuration this class feeds
+     */
+    @Autowired
+    public void setHeartbeatScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler heartbeatScheduler) {
+        this.heartbeatScheduler = heartbeatScheduler;
+    }
+
+    /**
+     * Run @MessageMapping handlers on per-user lanes so a slow query for one user does not stall
+     * other sessions and each user's mutations apply in the order they were sent
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(new UserPartitionedTaskExecutor(
+                inboundLanes, inboundLaneCapacity, inboundVirtualThreads, meterRegistry));
+    }
+
+    /**
+     * Subscription of RedisUserMessageSender to its channel; the container's lifecycle is
+     * managed by the context, so it starts after and stops before the sender
+     */
+    @Bean
+    @ConditionalOnProperty(name = BROKER_PROPERTY, havingValue = "redis")
+    public RedisMessageListenerContainer userMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                      RedisUserMessageSender sender) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(sender, new ChannelTopic(sender.getChannel()));
+        return container;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable a simple in-memory message broker
-        // For production, consider using RabbitMQ or other message brokers
-        config.enableSimpleBroker("/topic", "/queue");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setVirtualHost(relayVirtualHost)
+                    .setSystemHeartbeatSendInterval(serverHeartbeatMs)
+                    .setSystemHeartbeatReceiveInterval(clientHeartbeatMs)
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            // Enable a simple in-memory message broker with native STOMP heart-beats:
+            // the broker pings idle sessions and closes those whose client stopped pinging,
+            // without a message going through the application
+            config.enableSimpleBroker("/topic", "/queue")
+                    .setHeartbeatValue(new long[] {serverHeartbeatMs, clientHeartbeatMs})
+                    .setTaskScheduler(heartbeatScheduler);
+        }
 
         // Set the prefix for messages sent to the server
         config.setApplicationDestinationPrefixes("/app");
@@ -31,10 +149,29 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Register WebSocket endpoint for wrong answers real-time sync
         registry.addEndpoint("/api/v1/ws/wrong-answers")
                 .setAllowedOrigins("*")
+                .addInterceptors(new SockJsSessionMarker())
                 .withSockJS();
 
         // Alternative endpoint without SockJS for native WebSocket
         registry.addEndpoint("/api/v1/ws/wrong-answers")
                 .setAllowedOrigins("*");
     }
+
+    /**
+     * Marks SockJS sessions so UserSessionDelivery keeps them on JSON; SockJS frames are text only
+     */
+    private static class SockJsSessionMarker implements HandshakeInterceptor {
+
+        @Override
+        public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                       WebSocketHandler wsHandler, Map<String, Object> attributes) {
+            attributes.put(UserSessionDelivery.SOCKJS_ATTRIBUTE, Boolean.TRUE);
+            return true;
+        }
+
+        @Override
+        public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Exception exception) {
+        }
+    }
 }
@@ -2,11 +2,26 @@ package com.interview.controller;
 
 import com.interview.dto.ApiResponse;
 import com.interview.service.AiService;
+import com.interview.service.AiStreamSink;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
+/**
+ * AI endpoints. Handlers return CompletableFuture so the servlet thread is released while the
+ * upstream model runs; spring.mvc.async.request-timeout bounds the wait.
+ */
 @RestController
 @RequestMapping("/ai")
 public class AiController {
@@ -14,9 +29,97 @@ public class AiController {
     @Autowired
     private AiService aiService;
 
+    @Value("${spring.mvc.async.request-timeout:300s}")
+    private Duration streamTimeout;
+
     @PostMapping("/dify-workflow")
-    public ApiResponse<Map<String, Object>> callDifyWorkflow(@RequestBody Map<String, Object> params) {
-        Map<String, Object> result = aiService.callDifyWorkflow(params);
-        return ApiResponse.success(result);
+    public CompletableFuture<ApiResponse<Map<String, Object>>> callDifyWorkflow(@RequestBody Map<String, Object> params) {
+        return aiService.callDifyWorkflowAsync(params).thenApply(ApiResponse::success);
+    }
+
+    /**
+     * Stream a chat reply as server-sent events: {"type":"chunk","content"} per token, then one
+     * {"type":"end"} or {"type":"error"}. GET serves the browser's EventSource, POST takes a body.
+     */
+    @GetMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChat(@RequestParam String message,
+                                 @RequestParam(required = false) String context,
+                                 @RequestParam(required = false) String articleContent,
+                                 @RequestParam(required = false) String conversationId) {
+        String chatContext = context != null ? context : articleContent;
+        return stream(conversationId, sink -> aiService.streamChat(message, chatContext, sink));
+    }
+
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChat(@RequestBody Map<String, String> params) {
+        String context = params.get("context") != null ? params.get("context") : params.get("articleContent");
+        return stream(params.get("conversationId"), sink -> aiService.streamChat(params.get("message"), context, sink));
+    }
+
+    @PostMapping(value = "/dify-workflow/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDifyWorkflow(@RequestBody Map<String, Object> params) {
+        return stream(null, sink -> aiService.streamDifyWorkflow(params, sink));
+    }
+
+    private SseEmitter stream(String conversationId,
+                              Function<AiStreamSink, CompletableFuture<Void>> start) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        CompletableFuture<Void> upstream = start.apply(new EmitterSink(emitter, conversationId));
+        emitter.onCompletion(() -> upstream.cancel(true));
+        emitter.onTimeout(() -> upstream.cancel(true));
+        emitter.onError(e -> upstream.cancel(true));
+        return emitter;
+    }
+
+    /**
+     * Writes stream events to the emitter. A failed send means the client is gone; the exception
+     * propagates to the service, which then aborts the upstream call.
+     */
+    private static final class EmitterSink implements AiStreamSink {
+        private final SseEmitter emitter;
+        private final String conversationId;
+
+        EmitterSink(SseEmitter emitter, String conversationId) {
+            this.emitter = emitter;
+            this.conversationId = conversationId;
+        }
+
+        @Override
+        public void token(String text) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("type", "chunk");
+            event.put("content", text);
+            send(event);
+        }
+
+        @Override
+        public void complete(Map<String, Object> metadata) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("type", "end");
+            if (conversationId != null) {
+                event.put("conversationId", conversationId);
+            }
+            event.putAll(metadata);
+            send(event);
+            emitter.complete();
+        }
+
+        @Override
+        public void error(String message) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("type", "error");
+            event.put("message", message);
+            send(event);
+            emitter.complete();
+        }
+
+        private void send(Map<String, Object> event) {
+            try {
+                emitter.send(SseEmitter.event().data(event, MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 }
@@ -7,14 +7,21 @@ import com.interview.entity.Category;
 import com.interview.entity.Question;
 import com.interview.service.QuestionService;
 import com.interview.mapper.TagMapper;
+import com.interview.util.StreamingExports;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 //import javax.validation.Valid;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
 import java.util.StringJoiner;
 import java.nio.charset.StandardCharsets;
@@ -100,10 +107,13 @@ public class QuestionController {
         return ApiResponse.success();
     }
 
+    /**
+     * Stream the matching questions as CSV. Rows are written while the database cursor is read,
+     * so the export is not limited to one page and memory use stays flat.
+     */
     @GetMapping("/questions/export")
-    public ResponseEntity<byte[]> exportQuestions(
-            @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "1000") int size,
+    public ResponseEntity<StreamingResponseBody> exportQuestions(
+            @RequestParam(name = "major_group_id", required = false) Long majorGroupId,
             @RequestParam(name = "category_id", required = false) Long categoryId,
             @RequestParam(required = false) String difficulty,
             @RequestParam(required = false) String type,
@@ -112,24 +122,34 @@ public class QuestionController {
             @RequestParam(required = false) String tags
     ) {
         String kw = (keyword != null && !keyword.isEmpty()) ? keyword : q;
-        PageResponse<Question> result = questionService.getQuestions(page, size, categoryId, difficulty, type, kw, tags, "recent");
-        StringBuilder sb = new StringBuilder();
-        sb.append("id,title,difficulty,category_id,created_at\n");
-        for (Question qn : result.getItems()) {
-            StringJoiner row = new StringJoiner(",");
-            row.add(String.valueOf(qn.getId()));
-            String safeTitle = qn.getTitle() == null ? "" : qn.getTitle().replace('"','\'').replace('\n',' ').replace('\r',' ');
-            row.add('"' + safeTitle + '"');
-            row.add(qn.getDifficulty() == null ? "" : qn.getDifficulty());
-            row.add(qn.getCategoryId() == null ? "" : String.valueOf(qn.getCategoryId()));
-            row.add(qn.getCreatedAt() == null ? "" : qn.getCreatedAt().toString());
-            sb.append(row.toString()).append('\n');
-        }
-        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write("id,title,difficulty,category_id,created_at\n");
+            try {
+                questionService.exportQuestions(majorGroupId, categoryId, difficulty, type, kw, tags, qn -> {
+                    StringJoiner row = new StringJoiner(",");
+                    row.add(String.valueOf(qn.getId()));
+                    String safeTitle = qn.getTitle() == null ? "" : qn.getTitle().replace('"','\'').replace('\n',' ').replace('\r',' ');
+                    row.add('"' + safeTitle + '"');
+                    row.add(qn.getDifficulty() == null ? "" : qn.getDifficulty());
+                    row.add(qn.getCategoryId() == null ? "" : String.valueOf(qn.getCategoryId()));
+                    row.add(qn.getCreatedAt() == null ? "" : qn.getCreatedAt().toString());
+                    try {
+                        writer.write(row.toString());
+                        writer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                throw StreamingExports.ioCause(e);
+            }
+            writer.flush();
+        };
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.parseMediaType("text/csv; charset=UTF-8"));
         headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=questions.csv");
-        return ResponseEntity.ok().headers(headers).body(bytes);
+        return ResponseEntity.ok().headers(headers).body(body);
     }
 
     @PostMapping("/questions/import")
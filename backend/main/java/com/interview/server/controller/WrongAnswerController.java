@@ -6,10 +6,18 @@ import com.interview.dto.WrongAnswerDto;
 import com.interview.dto.WrongAnswerStatisticsDto;
 import com.interview.service.WrongAnswerService;
 import com.interview.util.JwtUtils;
+import com.interview.util.StreamingExports;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +28,8 @@ import java.util.Map;
 @RequestMapping("/wrong-answers")
 public class WrongAnswerController {
 
+    private static final int DEFAULT_PAGE_LIMIT = 20;
+
     private final WrongAnswerService wrongAnswerService;
     private final JwtUtils jwtUtils;
 
@@ -46,15 +56,22 @@ public class WrongAnswerController {
     }
 
     /**
-     * Get all wrong answers for current user
+     * Get wrong answers for current user.
+     * Passing cursor or limit switches to keyset pagination (CursorPageResponse);
+     * without them the full list is returned as before.
+     * view=summary returns WrongAnswerSummaryDto items without content, notes or tags.
      */
     @GetMapping
-    public ApiResponse<List<WrongAnswerDto>> getWrongAnswers(
-        @RequestHeader("Authorization") String token
+    public ApiResponse<?> getWrongAnswers(
+        @RequestHeader("Authorization") String token,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String view
     ) {
         try {
             Long userId = jwtUtils.getUserIdFromToken(extractToken(token));
-            List<WrongAnswerDto> result = wrongAnswerService.getWrongAnswers(userId);
+            Object result = listWrongAnswers(userId, null, null, cursor, limit, view,
+                () -> wrongAnswerService.getWrongAnswers(userId));
             return ApiResponse.success(result, "Wrong answers retrieved successfully");
         } catch (Exception e) {
             return ApiResponse.error(400, "Failed to retrieve wrong answers: " + e.getMessage());
@@ -65,13 +82,17 @@ public class WrongAnswerController {
      * Get wrong answers by status
      */
     @GetMapping("/status/{status}")
-    public ApiResponse<List<WrongAnswerDto>> getWrongAnswersByStatus(
+    public ApiResponse<?> getWrongAnswersByStatus(
         @RequestHeader("Authorization") String token,
-        @PathVariable String status
+        @PathVariable String status,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String view
     ) {
         try {
             Long userId = jwtUtils.getUserIdFromToken(extractToken(token));
-            List<WrongAnswerDto> result = wrongAnswerService.getWrongAnswersByStatus(userId, status);
+            Object result = listWrongAnswers(userId, status, null, cursor, limit, view,
+                () -> wrongAnswerService.getWrongAnswersByStatus(userId, status));
             return ApiResponse.success(result, "Wrong answers retrieved successfully");
         } catch (Exception e) {
             return ApiResponse.error(400, "Failed to retrieve wrong answers: " + e.getMessage());
@@ -82,13 +103,17 @@ public class WrongAnswerController {
      * Get wrong answers by source
      */
     @GetMapping("/source/{source}")
-    public ApiResponse<List<WrongAnswerDto>> getWrongAnswersBySource(
+    public ApiResponse<?> getWrongAnswersBySource(
         @RequestHeader("Authorization") String token,
-        @PathVariable String source
+        @PathVariable String source,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String view
     ) {
         try {
             Long userId = jwtUtils.getUserIdFromToken(extractToken(token));
-            List<WrongAnswerDto> result = wrongAnswerService.getWrongAnswersBySource(userId, source);
+            Object result = listWrongAnswers(userId, null, source, cursor, limit, view,
+                () -> wrongAnswerService.getWrongAnswersBySource(userId, source));
             return ApiResponse.success(result, "Wrong answers retrieved successfully");
         } catch (Exception e) {
             return ApiResponse.error(400, "Failed to retrieve wrong answers: " + e.getMessage());
@@ -99,12 +124,24 @@ public class WrongAnswerController {
      * Get questions due for review
      */
     @GetMapping("/due-for-review")
-    public ApiResponse<List<WrongAnswerDto>> getDueForReview(
-        @RequestHeader("Authorization") String token
+    public ApiResponse<?> getDueForReview(
+        @RequestHeader("Authorization") String token,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String view
     ) {
         try {
             Long userId = jwtUtils.getUserIdFromToken(extractToken(token));
-            List<WrongAnswerDto> result = wrongAnswerService.getDueForReview(userId);
+            Object result;
+            if (limit != null) {
+                // Served from the per-user review queue instead of sorting every open record
+                result = isSummaryView(view)
+                    ? wrongAnswerService.getDueForReviewSummaries(userId, limit)
+                    : wrongAnswerService.getDueForReview(userId, limit);
+            } else {
+                result = isSummaryView(view)
+                    ? wrongAnswerService.getDueForReviewSummaries(userId)
+                    : wrongAnswerService.getDueForReview(userId);
+            }
             return ApiResponse.success(result, "Questions due for review retrieved successfully");
         } catch (Exception e) {
             return ApiResponse.error(400, "Failed to retrieve due questions: " + e.getMessage());
@@ -335,8 +372,9 @@ public class WrongAnswerController {
 
             // Validate status value
             String status = request.getStatus().toLowerCase();
-            if (!status.matches("^(mastered|reviewing|unreveiwed)$")) {
-                return ApiResponse.error(400, "Invalid status. Must be: mastered, reviewing, or unreveiwed");
+            // "unreveiwed" is the legacy spelling still sent by older clients
+            if (!status.matches("^(mastered|reviewing|unreviewed|unreveiwed)$")) {
+                return ApiResponse.error(400, "Invalid status. Must be: mastered, reviewing, or unreviewed");
             }
 
             Long userId = jwtUtils.getUserIdFromToken(extractToken(token));
@@ -344,9 +382,9 @@ public class WrongAnswerController {
                 return ApiResponse.error(401, "Invalid authentication token");
             }
 
-            int updated = wrongAnswerService.batchUpdateStatus(userId, request.getRecordIds(), status);
+            BatchOperationResult result = wrongAnswerService.batchUpdateStatus(userId, request.getRecordIds(), status);
             return ApiResponse.success(
-                new BatchOperationResult("status_update", updated, request.getRecordIds().size()),
+                result,
                 "Batch status update completed"
             );
         } catch (Exception e) {
@@ -363,10 +401,13 @@ public class WrongAnswerController {
         @RequestBody BatchTagsRequest request
     ) {
         try {
+            if (request == null || request.getRecordIds() == null || request.getRecordIds().isEmpty()) {
+                return ApiResponse.error(400, "Record IDs cannot be empty");
+            }
             Long userId = jwtUtils.getUserIdFromToken(extractToken(token));
-            int updated = wrongAnswerService.batchAddTags(userId, request.getRecordIds(), request.getTags());
+            BatchOperationResult result = wrongAnswerService.batchAddTags(userId, request.getRecordIds(), request.getTags());
             return ApiResponse.success(
-                new BatchOperationResult("add_tags", updated, request.getRecordIds().size()),
+                result,
                 "Batch add tags completed"
             );
         } catch (Exception e) {
@@ -383,10 +424,13 @@ public class WrongAnswerController {
         @RequestBody BatchTagsRequest request
     ) {
         try {
+            if (request == null || request.getRecordIds() == null || request.getRecordIds().isEmpty()) {
+                return ApiResponse.error(400, "Record IDs cannot be empty");
+            }
             Long userId = jwtUtils.getUserIdFromToken(extractToken(token));
-            int updated = wrongAnswerService.batchRemoveTags(userId, request.getRecordIds(), request.getTags());
+            BatchOperationResult result = wrongAnswerService.batchRemoveTags(userId, request.getRecordIds(), request.getTags());
             return ApiResponse.success(
-                new BatchOperationResult("remove_tags", updated, request.getRecordIds().size()),
+                result,
                 "Batch remove tags completed"
             );
         } catch (Exception e) {
@@ -416,9 +460,9 @@ public class WrongAnswerController {
                 return ApiResponse.error(401, "Invalid authentication token");
             }
 
-            int deleted = wrongAnswerService.batchDelete(userId, request.getRecordIds());
+            BatchOperationResult result = wrongAnswerService.batchDelete(userId, request.getRecordIds());
             return ApiResponse.success(
-                new BatchOperationResult("delete", deleted, request.getRecordIds().size()),
+                result,
                 "Batch delete completed"
             );
         } catch (Exception e) {
@@ -537,6 +581,8 @@ public class WrongAnswerController {
         private String operation;
         private int successCount;
         private int totalCount;
+        private List<Long> succeededIds;
+        private Map<Long, String> failures; // id -> reason
 
         public BatchOperationResult() {}
 
@@ -546,6 +592,12 @@ public class WrongAnswerController {
             this.totalCount = totalCount;
         }
 
+        public BatchOperationResult(String operation, List<Long> succeededIds, Map<Long, String> failures, int totalCount) {
+            this(operation, succeededIds.size(), totalCount);
+            this.succeededIds = succeededIds;
+            this.failures = failures;
+        }
+
         public String getOperation() {
             return operation;
         }
@@ -569,31 +621,62 @@ public class WrongAnswerController {
         public void setTotalCount(int totalCount) {
             this.totalCount = totalCount;
         }
+
+        public List<Long> getSucceededIds() {
+            return succeededIds;
+        }
+
+        public void setSucceededIds(List<Long> succeededIds) {
+            this.succeededIds = succeededIds;
+        }
+
+        public Map<Long, String> getFailures() {
+            return failures;
+        }
+
+        public void setFailures(Map<Long, String> failures) {
+            this.failures = failures;
+        }
     }
 
     // ===== Batch Export =====
+    /**
+     * Stream a CSV export. Rows are written to the response as they are read from the
+     * database, so memory use does not grow with the number of exported records.
+     */
     @PostMapping("/batch/export-csv")
-    public ResponseEntity<byte[]> batchExportCsv(
+    public ResponseEntity<StreamingResponseBody> batchExportCsv(
         @RequestHeader("Authorization") String token,
         @RequestBody BatchExportRequest request
     ) {
         Long userId = jwtUtils.getUserIdFromToken(extractToken(token));
-        List<WrongAnswerDto> records = wrongAnswerService.getWrongAnswers(userId);
         List<Long> ids = request != null ? request.getRecordIds() : null;
-        if (ids != null && !ids.isEmpty()) {
-            records = records.stream().filter(r -> ids.contains(r.getId())).toList();
-        }
-        String csv = toCsv(records, true);
-        byte[] bytes = addUtf8Bom(csv).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(UTF8_BOM);
+            writer.write(String.join(",", CSV_HEADERS));
+            writer.write("\n");
+            try {
+                wrongAnswerService.exportWrongAnswers(userId, ids, r -> {
+                    try {
+                        writer.write(toCsvRow(r));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                throw StreamingExports.ioCause(e);
+            }
+            writer.flush();
+        };
         HttpHeaders headers = new HttpHeaders();
         headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=wrong-answers.csv");
         headers.setContentType(MediaType.parseMediaType("text/csv; charset=utf-8"));
-        headers.setContentLength(bytes.length);
-        return ResponseEntity.ok().headers(headers).body(bytes);
+        return ResponseEntity.ok().headers(headers).body(body);
     }
 
     @PostMapping("/batch/export-excel")
-    public ResponseEntity<byte[]> batchExportExcel(
+    public ResponseEntity<StreamingResponseBody> batchExportExcel(
         @RequestHeader("Authorization") String token,
         @RequestBody BatchExportRequest request
     ) {
@@ -608,23 +691,20 @@ public class WrongAnswerController {
         public void setRecordIds(List<Long> recordIds) { this.recordIds = recordIds; }
     }
 
-    private String toCsv(List<WrongAnswerDto> list, boolean withHeader) {
-        String[] headers = new String[]{
-            "id","source","difficulty","reviewStatus","wrongCount","correctCount",
-            "nextReviewTime","questionTitle","userNotes","userTags"
+    private static final String[] CSV_HEADERS = new String[]{
+        "id","source","difficulty","reviewStatus","wrongCount","correctCount",
+        "nextReviewTime","questionTitle","userNotes","userTags"
+    };
+
+    // Excel-friendly UTF-8 BOM
+    private static final String UTF8_BOM = "\uFEFF";
+
+    private String toCsvRow(WrongAnswerDto r) {
+        String[] row = new String[]{
+            s(r.getId()), s(r.getSource()), s(r.getDifficulty()), s(r.getReviewStatus()), s(r.getWrongCount()), s(r.getCorrectCount()),
+            s(r.getNextReviewTime()), csvSafe(r.getQuestionTitle()), csvSafe(r.getUserNotes()), csvSafe(listToString(r.getUserTags()))
         };
-        StringBuilder sb = new StringBuilder();
-        if (withHeader) {
-            sb.append(String.join(",", headers)).append("\n");
-        }
-        for (WrongAnswerDto r : list) {
-            String[] row = new String[]{
-                s(r.getId()), s(r.getSource()), s(r.getDifficulty()), s(r.getReviewStatus()), s(r.getWrongCount()), s(r.getCorrectCount()),
-                s(r.getNextReviewTime()), csvSafe(r.getQuestionTitle()), csvSafe(r.getUserNotes()), csvSafe(listToString(r.getUserTags()))
-            };
-            sb.append(String.join(",", row)).append("\n");
-        }
-        return sb.toString();
+        return String.join(",", row) + "\n";
     }
 
     private String listToString(java.util.List<String> list) {
@@ -641,10 +721,6 @@ public class WrongAnswerController {
         return needQuote ? "\"" + v + "\"" : v;
     }
 
-    private String addUtf8Bom(String s) {
-        // Excel-friendly UTF-8 BOM
-        return "\uFEFF" + (s == null ? "" : s);
-    }
     public static class ReviewRequest {
         private String result; // pass/fail/doubt
         private Integer timeSpentSec;
@@ -749,6 +825,28 @@ public class WrongAnswerController {
         }
     }
 
+    /**
+     * Shared list dispatch: keyset page when cursor/limit is given, summary projection when view=summary
+     */
+    private Object listWrongAnswers(Long userId, String status, String source, String cursor, Integer limit,
+                                    String view, java.util.function.Supplier<List<WrongAnswerDto>> fullList) {
+        boolean summary = isSummaryView(view);
+        if (cursor != null || limit != null) {
+            return summary
+                ? wrongAnswerService.getWrongAnswerSummaryPage(userId, status, source, cursor, pageLimit(limit))
+                : wrongAnswerService.getWrongAnswersPage(userId, status, source, cursor, pageLimit(limit));
+        }
+        return summary ? wrongAnswerService.getWrongAnswerSummaries(userId, status, source) : fullList.get();
+    }
+
+    private boolean isSummaryView(String view) {
+        return "summary".equalsIgnoreCase(view);
+    }
+
+    private int pageLimit(Integer limit) {
+        return limit != null ? limit : DEFAULT_PAGE_LIMIT;
+    }
+
     private String extractToken(String authorization) {
         if (authorization == null || authorization.isBlank()) {
             throw new IllegalArgumentException("Missing authorization header");
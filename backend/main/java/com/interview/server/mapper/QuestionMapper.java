@@ -3,6 +3,7 @@ package com.interview.mapper;
 import com.interview.entity.Question;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.util.List;
 
@@ -28,6 +29,18 @@ public interface QuestionMapper {
                           @Param("tags") String tags,
                           @Param("tagList") java.util.List<String> tagList);
 
+    /**
+     * Stream every matching question to the handler without paging, for CSV export
+     */
+    void streamForExport(@Param("majorGroupId") Long majorGroupId,
+                         @Param("categoryId") Long categoryId,
+                         @Param("difficulty") String difficulty,
+                         @Param("type") String type,
+                         @Param("keyword") String keyword,
+                         @Param("tags") String tags,
+                         @Param("tagList") java.util.List<String> tagList,
+                         ResultHandler<Question> handler);
+
     Question selectById(@Param("id") Long id);
 
     int insert(Question question);
@@ -0,0 +1,226 @@
+package com.interview.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache of AI responses for calls whose output depends only on their input, keyed by a SHA-256
+ * of the request type and the full upstream request (model, prompt and parameters).
+ *
+ * Lookups go to a bounded Caffeine tier (W-TinyLFU eviction), then to Redis when
+ * ai.cache.redis-enabled is set, then upstream. Concurrent identical misses share one upstream
+ * call. Only non-blank successful responses are stored, so errors and fallbacks are retried.
+ * Redis is called on its own small pool (ai.cache.redis-threads), so neither request threads nor
+ * the HTTP client's completion threads wait on it; a failing Redis is logged and treated as a miss.
+ */
+@Component
+public class AiResponseCache {
+
+    public static final String QUESTION = "question";
+    public static final String ANALYSIS = "analysis";
+    public static final String STANDARD_ANSWER = "standard-answer";
+
+    private static final Logger logger = LoggerFactory.getLogger(AiResponseCache.class);
+
+    private record Cached(String value, long ttlNanos) {}
+
+    private final Cache<String, Cached> local;
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Duration> ttls;
+    private final StringRedisTemplate redisTemplate;
+    private final ExecutorService redisExecutor;
+    private final String redisPrefix;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+
+    public AiResponseCache(
+        ObjectProvider<StringRedisTemplate> redisTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${ai.cache.enabled:true}") boolean enabled,
+        @Value("${ai.cache.maximum-size:10000}") long maximumSize,
+        @Value("${ai.cache.redis-enabled:false}") boolean redisEnabled,
+        @Value("${ai.cache.redis-prefix:ai:cache:}") String redisPrefix,
+        @Value("${ai.cache.redis-threads:4}") int redisThreads,
+        @Value("${ai.cache.ttl.question:6h}") Duration questionTtl,
+        @Value("${ai.cache.ttl.analysis:24h}") Duration analysisTtl,
+        @Value("${ai.cache.ttl.standard-answer:7d}") Duration standardAnswerTtl
+    ) {
+        this.enabled = enabled;
+        this.redisTemplate = redisEnabled ? redisTemplate.getIfAvailable() : null;
+        this.redisPrefix = redisPrefix;
+        this.redisExecutor = this.redisTemplate == null ? null : redisExecutor(redisThreads);
+        this.meterRegistry = meterRegistry;
+        this.ttls = Map.of(QUESTION, questionTtl, ANALYSIS, analysisTtl, STANDARD_ANSWER, standardAnswerTtl);
+        this.local = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new Expiry<String, Cached>() {
+                @Override
+                public long expireAfterCreate(String key, Cached value, long currentTime) {
+                    return value.ttlNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Cached value, long currentTime, long currentDuration) {
+                    return value.ttlNanos();
+                }
+
+                @Override
+                public long expireAfterRead(String key, Cached value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "ai.responses");
+    }
+
+    /**
+     * @param type        one of the type constants; selects the TTL and tags the metrics
+     * @param fingerprint everything the response depends on, e.g. the upstream request body
+     * @param loader      the upstream call, made only on a miss
+     */
+    public CompletableFuture<String> getOrLoad(String type, String fingerprint, Supplier<CompletableFuture<String>> loader) {
+        Duration ttl = ttls.get(type);
+        if (!enabled || ttl == null || ttl.isZero() || ttl.isNegative()) {
+            return loader.get();
+        }
+
+        String key = key(type, fingerprint);
+        Cached cached = local.getIfPresent(key);
+        if (cached != null) {
+            count(type, "hit");
+            return CompletableFuture.completedFuture(cached.value());
+        }
+
+        CompletableFuture<String> shared = new CompletableFuture<>();
+        CompletableFuture<String> leader = inFlight.putIfAbsent(key, shared);
+        if (leader != null) {
+            count(type, "coalesced");
+            return leader.thenApply(Function.identity()); // a caller cancelling must not cancel the others
+        }
+
+        readRemote(key).thenCompose(remote -> {
+            if (remote != null) {
+                count(type, "remote_hit");
+                local.put(key, new Cached(remote, ttl.toNanos()));
+                return CompletableFuture.completedFuture(remote);
+            }
+            count(type, "miss");
+            CompletableFuture<String> loaded;
+            try {
+                loaded = loader.get();
+            } catch (RuntimeException e) {
+                return CompletableFuture.<String>failedFuture(e);
+            }
+            return loaded.thenApply(value -> {
+                if (StringUtils.hasText(value)) {
+                    store(key, value, ttl);
+                }
+                return value;
+            });
+        }).whenComplete((value, e) -> {
+            inFlight.remove(key, shared);
+            if (e != null) {
+                shared.completeExceptionally(e);
+            } else {
+                shared.complete(value);
+            }
+        });
+        return shared.thenApply(Function.identity());
+    }
+
+    private void store(String key, String value, Duration ttl) {
+        local.put(key, new Cached(value, ttl.toNanos()));
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisExecutor.execute(() -> {
+                try {
+                    redisTemplate.opsForValue().set(redisPrefix + key, value, ttl);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to write AI response cache entry to Redis: {}", e.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write AI response cache entry to Redis: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Completes with the Redis entry, or null when there is none, Redis is disabled or the read
+     * failed. Completes at once when Redis is disabled, so the local path stays synchronous.
+     */
+    private CompletableFuture<String> readRemote(String key) {
+        if (redisTemplate == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> redisTemplate.opsForValue().get(redisPrefix + key), redisExecutor)
+                .exceptionally(e -> {
+                    logger.warn("Failed to read AI response cache entry from Redis: {}", e.getMessage());
+                    return null;
+                });
+        } catch (RuntimeException e) {
+            logger.warn("Failed to read AI response cache entry from Redis: {}", e.getMessage());
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private static ExecutorService redisExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), task -> {
+            Thread thread = new Thread(task, "ai-cache-redis-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (redisExecutor != null) {
+            redisExecutor.shutdown();
+        }
+    }
+
+    private void count(String type, String result) {
+        meterRegistry.counter("ai.cache.requests", "type", type, "result", result).increment();
+    }
+
+    static String key(String type, String fingerprint) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(type.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(fingerprint.getBytes(StandardCharsets.UTF_8));
+            return type + ":" + HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,18 +1,40 @@
 package com.interview.service;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * The *Async variants never block the caller on the upstream LLM; they complete on the HTTP
+ * client's threads. The blocking variants wait for them and remain for existing callers.
+ */
 public interface AiService {
 
     String generateInterviewQuestion(String category, String difficulty, String context);
 
+    CompletableFuture<String> generateInterviewQuestionAsync(String category, String difficulty, String context);
+
     Map<String, Object> analyzeAnswer(String question, String answer, String expectedAnswer);
 
+    CompletableFuture<Map<String, Object>> analyzeAnswerAsync(String question, String answer, String expectedAnswer);
+
     String generateFollowUpQuestion(String previousQuestion, String answer, String context);
 
+    CompletableFuture<String> generateFollowUpQuestionAsync(String previousQuestion, String answer, String context);
+
     Map<String, Object> generateInterviewReport(Long sessionId);
 
     String chatWithAI(String message, String context);
 
+    CompletableFuture<String> chatWithAIAsync(String message, String context);
+
+    /**
+     * Stream a chat reply token by token. Cancelling the returned future aborts the upstream call.
+     */
+    CompletableFuture<Void> streamChat(String message, String context, AiStreamSink sink);
+
     Map<String, Object> callDifyWorkflow(Map<String, Object> params);
-}
\ No newline at end of file
+
+    CompletableFuture<Map<String, Object>> callDifyWorkflowAsync(Map<String, Object> params);
+
+    CompletableFuture<Void> streamDifyWorkflow(Map<String, Object> params, AiStreamSink sink);
+}
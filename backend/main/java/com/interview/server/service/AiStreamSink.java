@@ -0,0 +1,20 @@
+package com.interview.service;
+
+import java.util.Map;
+
+/**
+ * Receives a streamed AI response as it arrives. Calls come from HTTP client threads, one at a
+ * time per stream, and end with exactly one complete or error. Throwing from any method cancels
+ * the upstream request (e.g. when the browser went away).
+ */
+public interface AiStreamSink {
+
+    void token(String text);
+
+    /**
+     * @param metadata final upstream fields such as workflow outputs; may be empty
+     */
+    void complete(Map<String, Object> metadata);
+
+    void error(String message);
+}
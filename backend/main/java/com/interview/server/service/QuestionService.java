@@ -16,6 +16,10 @@ public interface QuestionService {
                                       String keyword, String tags,
                                       String sort);
 
+    // Stream all matching questions to the sink (no paging), for CSV export
+    void exportQuestions(Long majorGroupId, Long categoryId, String difficulty, String type,
+                         String keyword, String tags, java.util.function.Consumer<Question> sink);
+
 
     Question getQuestionById(Long id);
 
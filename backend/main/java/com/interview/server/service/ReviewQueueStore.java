@@ -0,0 +1,238 @@
+package com.interview.service;
+
+import com.interview.entity.WrongAnswerRecord;
+import com.interview.mapper.WrongAnswerMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-user review queue that serves "next N due" without sorting the user's rows.
+ *
+ * Each loaded user keeps the non-mastered records in two ordered sets: waiting (soonest due
+ * first) and ready (highest rank first). A read promotes every waiting entry whose due time has
+ * passed and then takes the first N ready entries, i.e. O((k + N) log n) for k newly due items.
+ *
+ * Rank mirrors SpacedRepetitionServiceImpl.calculatePriority: the stored priority_score plus 100
+ * per overdue day. The overdue term only depends on the due day, so ranking by
+ * priority_score - 100 * dueDay yields the same order whatever "now" is.
+ *
+ * Records without a next_review_time are due immediately, like in the due-items SQL, and carry
+ * no overdue bonus: they are queued as due at the start of the day they are queued.
+ *
+ * Queues are loaded lazily from a narrow (id, next_review_time, priority_score) query, updated
+ * after each commit by the service, and reloaded after ttl-seconds so writes made on another
+ * instance are eventually picked up. Every commit hook bumps a version stripe of the user; a
+ * queue whose load overlapped such a hook is not kept, since it may predate that commit.
+ */
+@Component
+public class ReviewQueueStore {
+
+    private static final long OVERDUE_DAY_WEIGHT = 100;
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    private static final int VERSION_STRIPES = 256;
+
+    private final WrongAnswerMapper wrongAnswerMapper;
+    private final Cache<Long, UserQueue> queues;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public ReviewQueueStore(
+        WrongAnswerMapper wrongAnswerMapper,
+        @Value("${wrong-answers.review-queue.memory-max-users:10000}") int maxUsers,
+        @Value("${wrong-answers.review-queue.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.wrongAnswerMapper = wrongAnswerMapper;
+        this.queues = Caffeine.newBuilder()
+            .maximumSize(maxUsers)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+    }
+
+    /**
+     * Ids of the user's next due records, highest rank first
+     */
+    public List<Long> nextDue(Long userId, int limit, LocalDateTime now) {
+        UserQueue queue = queueFor(userId);
+        synchronized (queue) {
+            return queue.take(limit, toMillis(now));
+        }
+    }
+
+    /**
+     * Re-queue a record with its new due time and score once the current transaction commits.
+     * Mastered records leave the queue.
+     */
+    public void upsertAfterCommit(WrongAnswerRecord record) {
+        Long userId = record.getUserId();
+        Long id = record.getId();
+        boolean mastered = "mastered".equals(record.getReviewStatus());
+        int score = record.getPriorityScore() != null ? record.getPriorityScore() : 0;
+        afterCommit(() -> {
+            bumpVersion(userId);
+            UserQueue queue = queues.getIfPresent(userId);
+            if (queue == null) {
+                return;
+            }
+            synchronized (queue) {
+                if (mastered) {
+                    queue.remove(id);
+                } else {
+                    queue.put(id, dueMillis(record.getNextReviewTime()), score);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop a record from its user's queue once the current transaction commits
+     */
+    public void removeAfterCommit(Long userId, Long recordId) {
+        afterCommit(() -> {
+            bumpVersion(userId);
+            UserQueue queue = queues.getIfPresent(userId);
+            if (queue != null) {
+                synchronized (queue) {
+                    queue.remove(recordId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Forget a user's queue once the current transaction commits; used after bulk changes
+     */
+    public void evictAfterCommit(Long userId) {
+        evict(userId);
+        afterCommit(() -> evict(userId));
+    }
+
+    /**
+     * Forget every loaded queue, e.g. after a bulk rescheduling run
+     */
+    public void clear() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        queues.invalidateAll();
+    }
+
+    private UserQueue queueFor(Long userId) {
+        UserQueue queue = queues.getIfPresent(userId);
+        if (queue != null) {
+            return queue;
+        }
+        long version = versions.get(stripe(userId));
+        UserQueue loaded = new UserQueue();
+        for (WrongAnswerRecord row : wrongAnswerMapper.selectQueueEntries(userId)) {
+            loaded.put(row.getId(), dueMillis(row.getNextReviewTime()), row.getPriorityScore() != null ? row.getPriorityScore() : 0);
+        }
+        queues.put(userId, loaded);
+        // A commit hook ran during the load and may have missed this queue; don't keep it
+        if (versions.get(stripe(userId)) != version) {
+            queues.asMap().remove(userId, loaded);
+        }
+        return loaded;
+    }
+
+    private void evict(Long userId) {
+        bumpVersion(userId);
+        queues.invalidate(userId);
+    }
+
+    private void bumpVersion(Long userId) {
+        versions.incrementAndGet(stripe(userId));
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(userId, VERSION_STRIPES);
+    }
+
+    private static long dueMillis(LocalDateTime nextReviewTime) {
+        // Start of the current day: due for any read from now on, without an overdue bonus
+        return nextReviewTime != null
+            ? toMillis(nextReviewTime)
+            : Math.floorDiv(System.currentTimeMillis(), MILLIS_PER_DAY) * MILLIS_PER_DAY;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Entry {
+        final long id;
+        final long dueMillis;
+        final long rank;
+
+        Entry(long id, long dueMillis, int score) {
+            this.id = id;
+            this.dueMillis = dueMillis;
+            this.rank = score - OVERDUE_DAY_WEIGHT * Math.floorDiv(dueMillis, MILLIS_PER_DAY);
+        }
+    }
+
+    private static final class UserQueue {
+        private static final Comparator<Entry> BY_DUE =
+            Comparator.<Entry>comparingLong(e -> e.dueMillis).thenComparingLong(e -> e.id);
+        private static final Comparator<Entry> BY_RANK =
+            Comparator.<Entry>comparingLong(e -> -e.rank).thenComparingLong(e -> e.dueMillis).thenComparingLong(e -> e.id);
+
+        private final TreeSet<Entry> waiting = new TreeSet<>(BY_DUE);
+        private final TreeSet<Entry> ready = new TreeSet<>(BY_RANK);
+        private final Map<Long, Entry> byId = new HashMap<>();
+
+        void put(long id, long dueMillis, int score) {
+            remove(id);
+            Entry entry = new Entry(id, dueMillis, score);
+            byId.put(id, entry);
+            waiting.add(entry);
+        }
+
+        void remove(long id) {
+            Entry entry = byId.remove(id);
+            if (entry != null) {
+                waiting.remove(entry);
+                ready.remove(entry);
+            }
+        }
+
+        List<Long> take(int limit, long nowMillis) {
+            while (!waiting.isEmpty() && waiting.first().dueMillis <= nowMillis) {
+                ready.add(waiting.pollFirst());
+            }
+            List<Long> ids = new ArrayList<>(Math.min(limit, ready.size()));
+            Iterator<Entry> it = ready.iterator();
+            while (it.hasNext() && ids.size() < limit) {
+                ids.add(it.next().id);
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.interview.service;
+
+import com.interview.entity.RescheduleCheckpoint;
+import com.interview.entity.WrongAnswerRecord;
+import com.interview.mapper.RescheduleCheckpointMapper;
+import com.interview.mapper.WrongAnswerMapper;
+import com.interview.service.scheduling.ReviewScheduler;
+import com.interview.service.scheduling.ReviewSchedulers;
+import com.interview.service.scheduling.ReviewState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk rescheduling of wrong-answer reviews.
+ *
+ * Records are read in primary-key order through a streaming cursor and written back in JDBC
+ * batches that only touch next_review_time, instead of one full-row updateById per record.
+ * Intervals come from the active ReviewScheduler, evaluated on a single reused ReviewState.
+ * The nightly all-users run stores the last written id after every batch, so a crashed or
+ * restarted run picks up where it stopped. Each batch commits together with its checkpoint
+ * and a resync change for every user it touched, so clients that synced before the batch fall
+ * back to a full resync instead of missing the new review times. Each run reports rows,
+ * duration and throughput.
+ */
+@Component
+public class ReviewRescheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewRescheduler.class);
+
+    static final String NIGHTLY_JOB = "nightly";
+    private static final String UPDATE_SQL = "UPDATE wrong_answer_records SET next_review_time = ? WHERE id = ?";
+
+    private final WrongAnswerMapper wrongAnswerMapper;
+    private final RescheduleCheckpointMapper checkpointMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReviewQueueStore reviewQueue;
+    private final ReviewSchedulers reviewSchedulers;
+    private final WrongAnswerOutbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final Counter rowsCounter;
+    private final Counter batchesCounter;
+    private final Timer runTimer;
+    private final AtomicLong lastRunRowsPerSecond = new AtomicLong();
+
+    public ReviewRescheduler(
+        WrongAnswerMapper wrongAnswerMapper,
+        RescheduleCheckpointMapper checkpointMapper,
+        JdbcTemplate jdbcTemplate,
+        ReviewQueueStore reviewQueue,
+        ReviewSchedulers reviewSchedulers,
+        WrongAnswerOutbox outbox,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        @Value("${wrong-answers.reschedule.batch-size:1000}") int batchSize
+    ) {
+        this.wrongAnswerMapper = wrongAnswerMapper;
+        this.checkpointMapper = checkpointMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.reviewQueue = reviewQueue;
+        this.reviewSchedulers = reviewSchedulers;
+        this.outbox = outbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.rowsCounter = Counter.builder("wrong_answers.reschedule.rows").register(meterRegistry);
+        this.batchesCounter = Counter.builder("wrong_answers.reschedule.batches").register(meterRegistry);
+        this.runTimer = Timer.builder("wrong_answers.reschedule.run").register(meterRegistry);
+        meterRegistry.gauge("wrong_answers.reschedule.last_run.rows_per_second", lastRunRowsPerSecond);
+    }
+
+    /**
+     * Reschedule one user's open records starting from now (review plan generation).
+     * Runs in the caller's transaction.
+     */
+    public int rescheduleUser(Long userId, LocalDateTime now) {
+        List<Object[]> batch = new ArrayList<>();
+        ReviewScheduler scheduler = reviewSchedulers.active();
+        ReviewState state = new ReviewState();
+        wrongAnswerMapper.streamRescheduleCandidates(userId, 0L, ctx -> {
+            WrongAnswerRecord record = ctx.getResultObject();
+            LocalDateTime next = now.plusDays(scheduler.intervalDays(state.readFrom(record, 0)));
+            batch.add(new Object[]{Timestamp.valueOf(next), record.getId()});
+        });
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+        }
+        reviewQueue.evictAfterCommit(userId);
+        return batch.size();
+    }
+
+    /**
+     * Nightly run over all users. Each record is rescheduled from its own last answer time,
+     * so the result does not depend on when the job runs and repeating a batch is harmless.
+     */
+    @Scheduled(cron = "${wrong-answers.reschedule.cron:0 0 3 * * *}")
+    public void rescheduleAll() {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Bulk rescheduling already running, skipping this trigger");
+            return;
+        }
+        try {
+            runTimer.record(this::runFromCheckpoint);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void runFromCheckpoint() {
+        LocalDateTime started = LocalDateTime.now();
+        RescheduleCheckpoint checkpoint = checkpointMapper.selectByJobName(NIGHTLY_JOB);
+        long afterId;
+        long processedBefore;
+        if (checkpoint != null && "running".equals(checkpoint.getStatus())) {
+            afterId = checkpoint.getLastId() != null ? checkpoint.getLastId() : 0L;
+            processedBefore = checkpoint.getProcessed() != null ? checkpoint.getProcessed() : 0L;
+            logger.info("Resuming bulk rescheduling after id {} ({} rows already done)", afterId, processedBefore);
+        } else {
+            checkpointMapper.upsertStarted(NIGHTLY_JOB, started);
+            afterId = 0L;
+            processedBefore = 0L;
+        }
+
+        long startNanos = System.nanoTime();
+        BatchWriter writer = new BatchWriter(processedBefore);
+        wrongAnswerMapper.streamRescheduleCandidates(null, afterId, ctx -> writer.add(ctx.getResultObject()));
+        writer.flush();
+        checkpointMapper.markDone(NIGHTLY_JOB, LocalDateTime.now());
+        reviewQueue.clear();
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        long rowsThisRun = writer.processed - processedBefore;
+        lastRunRowsPerSecond.set(rowsThisRun * 1000 / elapsedMs);
+        logger.info("Bulk rescheduling finished: {} rows in {} ms ({} rows/s)",
+            rowsThisRun, elapsedMs, lastRunRowsPerSecond.get());
+    }
+
+    private static LocalDateTime anchorOf(WrongAnswerRecord record) {
+        LocalDateTime wrong = record.getLastWrongTime();
+        LocalDateTime correct = record.getLastCorrectTime();
+        if (wrong != null && correct != null) {
+            return wrong.isAfter(correct) ? wrong : correct;
+        }
+        if (wrong != null) return wrong;
+        if (correct != null) return correct;
+        return record.getCreatedAt() != null ? record.getCreatedAt() : LocalDateTime.now();
+    }
+
+    /**
+     * Collects rows from the cursor and writes them batchSize at a time, checkpointing after each batch
+     */
+    private final class BatchWriter {
+        private final List<Object[]> pending = new ArrayList<>(batchSize);
+        private final Set<Long> users = new LinkedHashSet<>();
+        private final ReviewScheduler scheduler = reviewSchedulers.active();
+        private final ReviewState state = new ReviewState();
+        private long processed;
+        private long lastId;
+
+        BatchWriter(long processed) {
+            this.processed = processed;
+        }
+
+        void add(WrongAnswerRecord record) {
+            LocalDateTime next = anchorOf(record).plusDays(scheduler.intervalDays(state.readFrom(record, 0)));
+            pending.add(new Object[]{Timestamp.valueOf(next), record.getId()});
+            users.add(record.getUserId());
+            lastId = record.getId();
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            long total = processed + pending.size();
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, pending);
+                users.forEach(outbox::resync);
+                checkpointMapper.updateProgress(NIGHTLY_JOB, lastId, total, LocalDateTime.now());
+            });
+            processed = total;
+            rowsCounter.increment(pending.size());
+            batchesCounter.increment();
+            pending.clear();
+            users.clear();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.interview.service;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published when a user finishes an AI interview, a question bank practice or a mock exam.
+ * The source is the payload map: userId, sessionId and wrongAnswers (one map per answer
+ * with questionId, questionTitle, questionContent, difficulty and knowledgePoints).
+ */
+public class SessionCompletedEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String AI_INTERVIEW_COMPLETED = "AI_INTERVIEW_COMPLETED";
+    public static final String QUESTION_BANK_PRACTICE_COMPLETED = "QUESTION_BANK_PRACTICE_COMPLETED";
+    public static final String MOCK_EXAM_COMPLETED = "MOCK_EXAM_COMPLETED";
+
+    private final String type;
+
+    public SessionCompletedEvent(String type, Map<String, Object> payload) {
+        super(payload);
+        this.type = type;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getPayload() {
+        return (Map<String, Object>) getSource();
+    }
+
+    public Long getUserId() {
+        return toLong(getPayload().get("userId"));
+    }
+
+    public Long getSessionId() {
+        return toLong(getPayload().get("sessionId"));
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> getWrongAnswers() {
+        Object answers = getPayload().get("wrongAnswers");
+        return answers != null ? (List<Map<String, Object>>) answers : Collections.emptyList();
+    }
+
+    static Long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+}
@@ -0,0 +1,226 @@
+package com.interview.service;
+
+import cn.hutool.json.JSONArray;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Client for the session storage service used by the Dify workflows.
+ *
+ * Concurrent identical GETs share one HTTP request, and session snapshots are kept for
+ * ai.dify.session-storage.snapshot-ttl so one AI request does not fetch the same session
+ * several times. Question lookups are answered from the session snapshot when it contains the
+ * question. Writes through this client, and {@link #invalidate} after a workflow that writes
+ * itself, drop the snapshot; a GET already in flight at that moment is returned to its callers
+ * but not cached. Snapshots are shared between callers and must be treated as read-only. All
+ * calls complete with null (or normally for writes) on any failure.
+ */
+@Component
+public class SessionStorageClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionStorageClient.class);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    private final Map<String, CompletableFuture<JSONObject>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, JSONObject> snapshots;
+    private final String baseUrl;
+    private final String apiKey;
+    private final boolean enabled;
+    private final Duration timeout;
+
+    public SessionStorageClient(
+            @Value("${ai.dify.session-storage.base-url:http://localhost:8081}") String baseUrl,
+            @Value("${ai.dify.session-storage.api-key:${session.storage.api-key:${api.key:}}}") String apiKey,
+            @Value("${ai.dify.session-storage.enabled:true}") boolean enabled,
+            @Value("${ai.dify.session-storage.timeout:10s}") Duration timeout,
+            @Value("${ai.dify.session-storage.snapshot-ttl:15s}") Duration snapshotTtl,
+            @Value("${ai.dify.session-storage.snapshot-max-size:1000}") long snapshotMaxSize
+    ) {
+        this.baseUrl = StringUtils.hasText(baseUrl) ? baseUrl.replaceAll("/+$", "") : "http://localhost:8081";
+        this.apiKey = apiKey;
+        this.enabled = enabled && StringUtils.hasText(baseUrl);
+        this.timeout = timeout;
+        this.snapshots = Caffeine.newBuilder()
+                .expireAfterWrite(snapshotTtl)
+                .maximumSize(snapshotMaxSize)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<JSONObject> getSession(String sessionId) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(null);
+        }
+        JSONObject snapshot = snapshots.getIfPresent(sessionId);
+        if (snapshot != null) {
+            return CompletableFuture.completedFuture(snapshot);
+        }
+        return coalescedGet(sessionPath(sessionId), session -> snapshots.put(sessionId, session));
+    }
+
+    /**
+     * The question from the session snapshot, or from the question endpoint when the snapshot
+     * is unavailable or does not list it.
+     */
+    public CompletableFuture<JSONObject> getQuestion(String sessionId, String questionId) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return getSession(sessionId).thenCompose(session -> {
+            JSONObject question = findQuestion(session, questionId);
+            return question != null
+                    ? CompletableFuture.completedFuture(question)
+                    : coalescedGet(questionPath(sessionId, questionId), null);
+        });
+    }
+
+    public CompletableFuture<Void> putAnswer(String sessionId, String questionId, String answer) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(null);
+        }
+        invalidate(sessionId);
+        try {
+            JSONObject body = JSONUtil.createObj();
+            body.set("answer", answer);
+            body.set("hasAnswer", true);
+            HttpRequest request = request(questionPath(sessionId, questionId))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8))
+                    .build();
+
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenAccept(response -> {
+                        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                            logger.warn("Storage service returned status {} body {}", response.statusCode(), response.body());
+                        }
+                    })
+                    .exceptionally(e -> {
+                        logger.warn("Failed to call storage service", unwrap(e));
+                        return null;
+                    })
+                    .whenComplete((ignored, e) -> invalidate(sessionId));
+        } catch (Exception e) {
+            logger.warn("Failed to call storage service", e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Drop the cached snapshot of a session that was changed outside this client
+     */
+    public void invalidate(String sessionId) {
+        snapshots.invalidate(sessionId);
+        inFlight.remove(sessionPath(sessionId));
+    }
+
+    private CompletableFuture<JSONObject> coalescedGet(String path, Consumer<JSONObject> onFresh) {
+        CompletableFuture<JSONObject> shared = new CompletableFuture<>();
+        CompletableFuture<JSONObject> leader = inFlight.putIfAbsent(path, shared);
+        if (leader != null) {
+            return leader.thenApply(Function.identity()); // a caller cancelling must not cancel the others
+        }
+        get(path).whenComplete((json, e) -> {
+            // invalidate() removes the entry, so a response that raced a write is not cached
+            if (inFlight.remove(path, shared) && json != null && onFresh != null) {
+                onFresh.accept(json);
+            }
+            shared.complete(json);
+        });
+        return shared.thenApply(Function.identity());
+    }
+
+    private CompletableFuture<JSONObject> get(String path) {
+        try {
+            HttpRequest request = request(path).header("Accept", "application/json").GET().build();
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> {
+                        if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                            return JSONUtil.parseObj(response.body());
+                        }
+                        logger.warn("Storage service returned status {} body {}", response.statusCode(), response.body());
+                        return (JSONObject) null;
+                    })
+                    .exceptionally(e -> {
+                        logger.warn("Failed to call storage service", unwrap(e));
+                        return null;
+                    });
+        } catch (Exception e) {
+            logger.warn("Failed to call storage service", e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + path))
+                .timeout(timeout);
+        if (StringUtils.hasText(apiKey)) {
+            builder.header("Authorization", "Bearer " + apiKey);
+        }
+        return builder;
+    }
+
+    static JSONObject findQuestion(JSONObject session, String questionId) {
+        if (session == null || questionId == null) {
+            return null;
+        }
+        Object raw = session.get("questions");
+        JSONArray questions = raw instanceof JSONArray array ? array
+                : raw instanceof String text && JSONUtil.isTypeJSONArray(text) ? JSONUtil.parseArray(text)
+                : null;
+        if (questions == null) {
+            return null;
+        }
+        for (int i = 0; i < questions.size(); i++) {
+            Object item = questions.get(i);
+            if (item instanceof JSONObject question && questionId.equals(question.getStr("id"))) {
+                return question;
+            }
+        }
+        return null;
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private static String sessionPath(String sessionId) {
+        return "/api/sessions/" + urlEncode(sessionId);
+    }
+
+    private static String questionPath(String sessionId, String questionId) {
+        return sessionPath(sessionId) + "/questions/" + urlEncode(questionId);
+    }
+
+    private static String urlEncode(String value) {
+        return value == null ? "" : URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,235 @@
+package com.interview.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.dto.RecordWrongAnswerRequest;
+import com.interview.entity.IngestDeadLetter;
+import com.interview.mapper.IngestDeadLetterMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous ingestion of wrong answers captured from completed sessions.
+ *
+ * Answers are partitioned by user over one bounded queue per worker, so all answers of a user
+ * are written by the same worker. Each worker takes up to batchSize answers, groups them per
+ * user and writes the whole batch in one transaction through WrongAnswerService.recordWrongAnswers,
+ * which coalesces answers to the same question and uses multi-row upserts. Users are written in
+ * id order, so batches that overlap lock their rows in the same order. When a queue is full the
+ * submitting thread waits briefly and then writes its remaining answers itself, so producers
+ * slow down instead of dropping data. A batch that fails is retried per user; users that still
+ * fail go to the dead-letter table.
+ */
+@Component
+public class WrongAnswerIngestion {
+
+    private static final Logger logger = LoggerFactory.getLogger(WrongAnswerIngestion.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final WrongAnswerService wrongAnswerService;
+    private final IngestDeadLetterMapper deadLetterMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final List<BlockingQueue<Submission>> queues;
+    private final int batchSize;
+    private final long lingerMs;
+    private final long offerTimeoutMs;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final Counter answersCounter;
+    private final Counter batchesCounter;
+    private final Counter callerRunsCounter;
+    private final Counter deadLetterCounter;
+
+    /**
+     * One captured answer of a user
+     */
+    record Submission(Long userId, RecordWrongAnswerRequest request) {}
+
+    public WrongAnswerIngestion(
+        WrongAnswerService wrongAnswerService,
+        IngestDeadLetterMapper deadLetterMapper,
+        PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry,
+        @Value("${wrong-answers.ingest.queue-capacity:10000}") int queueCapacity,
+        @Value("${wrong-answers.ingest.workers:2}") int workerCount,
+        @Value("${wrong-answers.ingest.batch-size:500}") int batchSize,
+        @Value("${wrong-answers.ingest.linger-ms:50}") long lingerMs,
+        @Value("${wrong-answers.ingest.offer-timeout-ms:200}") long offerTimeoutMs
+    ) {
+        this.wrongAnswerService = wrongAnswerService;
+        this.deadLetterMapper = deadLetterMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.queues = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            queues.add(new ArrayBlockingQueue<>(Math.max(1, queueCapacity / workerCount)));
+        }
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.answersCounter = Counter.builder("wrong_answers.ingest.answers").register(meterRegistry);
+        this.batchesCounter = Counter.builder("wrong_answers.ingest.batches").register(meterRegistry);
+        this.callerRunsCounter = Counter.builder("wrong_answers.ingest.caller_runs").register(meterRegistry);
+        this.deadLetterCounter = Counter.builder("wrong_answers.ingest.dead_letters").register(meterRegistry);
+        meterRegistry.gauge("wrong_answers.ingest.queue_depth", Tags.empty(), queues,
+            qs -> qs.stream().mapToInt(BlockingQueue::size).sum());
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < queues.size(); i++) {
+            BlockingQueue<Submission> queue = queues.get(i);
+            Thread worker = new Thread(() -> drainLoop(queue), "wrong-answer-ingest-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Stop accepting new work from the queues once they are empty and wait for in-flight batches
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        List<Submission> rest = new ArrayList<>();
+        queues.forEach(queue -> queue.drainTo(rest));
+        if (!rest.isEmpty()) {
+            process(rest);
+        }
+    }
+
+    /**
+     * Queue the answers of one user on the queue of its worker. Blocks up to offerTimeoutMs per
+     * answer when that queue is full, then writes the remaining answers on the calling thread.
+     */
+    public void submit(Long userId, List<RecordWrongAnswerRequest> requests) {
+        if (userId == null || requests == null || requests.isEmpty()) {
+            return;
+        }
+        BlockingQueue<Submission> queue = queues.get(Math.floorMod(userId.hashCode(), queues.size()));
+        for (int i = 0; i < requests.size(); i++) {
+            Submission submission = new Submission(userId, requests.get(i));
+            boolean queued;
+            try {
+                queued = running && queue.offer(submission, offerTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+            if (!queued) {
+                callerRunsCounter.increment();
+                List<Submission> rest = new ArrayList<>();
+                for (RecordWrongAnswerRequest request : requests.subList(i, requests.size())) {
+                    rest.add(new Submission(userId, request));
+                }
+                process(rest);
+                return;
+            }
+        }
+    }
+
+    private void drainLoop(BlockingQueue<Submission> queue) {
+        List<Submission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Submission first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                // Give the rest of a just-published session a moment to arrive
+                if (batch.size() < batchSize && lingerMs > 0) {
+                    Submission next = queue.poll(lingerMs, TimeUnit.MILLISECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                        queue.drainTo(batch, batchSize - batch.size());
+                    }
+                }
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Wrong-answer ingestion worker failed on a batch of {}", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Write one batch: everything in a single transaction, falling back to one transaction per
+     * user so a single bad user does not hold back the others
+     */
+    void process(List<Submission> batch) {
+        Map<Long, List<RecordWrongAnswerRequest>> byUser = new TreeMap<>();
+        for (Submission submission : batch) {
+            byUser.computeIfAbsent(submission.userId(), k -> new ArrayList<>()).add(submission.request());
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                byUser.forEach(wrongAnswerService::recordWrongAnswers));
+            batchesCounter.increment();
+            answersCounter.increment(batch.size());
+            return;
+        } catch (RuntimeException e) {
+            logger.warn("Ingestion batch of {} answers for {} users failed, retrying per user: {}",
+                batch.size(), byUser.size(), e.getMessage());
+        }
+
+        byUser.forEach((userId, requests) -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> wrongAnswerService.recordWrongAnswers(userId, requests));
+                answersCounter.increment(requests.size());
+            } catch (RuntimeException e) {
+                deadLetter(userId, requests, e);
+            }
+        });
+    }
+
+    private void deadLetter(Long userId, List<RecordWrongAnswerRequest> requests, RuntimeException cause) {
+        deadLetterCounter.increment(requests.size());
+        logger.error("Dead-lettering {} answers of user {}", requests.size(), userId, cause);
+        try {
+            IngestDeadLetter deadLetter = new IngestDeadLetter();
+            deadLetter.setUserId(userId);
+            deadLetter.setSource(requests.get(0).getSource());
+            deadLetter.setAnswerCount(requests.size());
+            deadLetter.setPayload(objectMapper.writeValueAsString(requests));
+            String message = String.valueOf(cause.getMessage());
+            deadLetter.setErrorMessage(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            deadLetter.setCreatedAt(LocalDateTime.now());
+            deadLetterMapper.insert(deadLetter);
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.error("Could not store dead letter for user {}", userId, e);
+        }
+    }
+}
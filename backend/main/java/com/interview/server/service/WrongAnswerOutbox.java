@@ -0,0 +1,101 @@
+package com.interview.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.entity.WrongAnswerChange;
+import com.interview.mapper.WrongAnswerOutboxMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write side of the wrong-answer change feed.
+ *
+ * Mutations call these methods inside their own transaction, so a change is published if and
+ * only if the mutation commits. WrongAnswerOutboxRelay picks the rows up and pushes them to
+ * the user's WebSocket sessions. Each change is numbered by WrongAnswerSyncLog first so that
+ * clients can resume from the last sequence they saw.
+ */
+@Component
+public class WrongAnswerOutbox {
+
+    private static final int INSERT_CHUNK_SIZE = 500;
+
+    private final WrongAnswerOutboxMapper outboxMapper;
+    private final WrongAnswerSyncLog syncLog;
+    private final ObjectMapper objectMapper;
+
+    public WrongAnswerOutbox(WrongAnswerOutboxMapper outboxMapper, WrongAnswerSyncLog syncLog, ObjectMapper objectMapper) {
+        this.outboxMapper = outboxMapper;
+        this.syncLog = syncLog;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Fields of one record changed to the given values
+     */
+    public void upsert(Long userId, Long recordId, Map<String, Object> fields) {
+        append(List.of(new WrongAnswerChange(userId, recordId, WrongAnswerChange.OP_UPSERT, toJson(fields), LocalDateTime.now())));
+    }
+
+    /**
+     * Fields of several records changed, keyed by record id
+     */
+    public void upsertAll(Long userId, Map<Long, Map<String, Object>> fieldsById) {
+        LocalDateTime now = LocalDateTime.now();
+        List<WrongAnswerChange> changes = new ArrayList<>(fieldsById.size());
+        fieldsById.forEach((recordId, fields) ->
+            changes.add(new WrongAnswerChange(userId, recordId, WrongAnswerChange.OP_UPSERT, toJson(fields), now)));
+        append(changes);
+    }
+
+    public void deleted(Long userId, Collection<Long> recordIds) {
+        append(changes(userId, recordIds, WrongAnswerChange.OP_DELETE));
+    }
+
+    /**
+     * Records changed in SQL (e.g. JSON tag edits) without the new values at hand
+     */
+    public void refresh(Long userId, Collection<Long> recordIds) {
+        append(changes(userId, recordIds, WrongAnswerChange.OP_REFRESH));
+    }
+
+    /**
+     * Too many records changed to describe individually
+     */
+    public void resync(Long userId) {
+        append(List.of(new WrongAnswerChange(userId, null, WrongAnswerChange.OP_RESYNC, null, LocalDateTime.now())));
+    }
+
+    private List<WrongAnswerChange> changes(Long userId, Collection<Long> recordIds, String op) {
+        LocalDateTime now = LocalDateTime.now();
+        List<WrongAnswerChange> changes = new ArrayList<>(recordIds.size());
+        for (Long recordId : recordIds) {
+            changes.add(new WrongAnswerChange(userId, recordId, op, null, now));
+        }
+        return changes;
+    }
+
+    private void append(List<WrongAnswerChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        // Every caller passes the changes of a single user
+        syncLog.sequence(changes.get(0).getUserId(), changes);
+        for (int i = 0; i < changes.size(); i += INSERT_CHUNK_SIZE) {
+            outboxMapper.insertBatch(changes.subList(i, Math.min(i + INSERT_CHUNK_SIZE, changes.size())));
+        }
+    }
+
+    private String toJson(Map<String, Object> fields) {
+        try {
+            return objectMapper.writeValueAsString(fields);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize wrong-answer change", e);
+        }
+    }
+}
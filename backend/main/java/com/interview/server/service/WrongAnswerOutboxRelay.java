@@ -0,0 +1,153 @@
+package com.interview.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.entity.WrongAnswerChange;
+import com.interview.mapper.WrongAnswerOutboxMapper;
+import com.interview.websocket.UserMessageSender;
+import com.interview.websocket.UserPresenceRegistry;
+import com.interview.websocket.WireMessages.Change;
+import com.interview.websocket.WireMessages.Changes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes the wrong-answer outbox to /user/queue/wrong-answers through the UserMessageSender
+ * of the configured broker mode.
+ *
+ * Every relayInterval the oldest pending rows are locked, coalesced per user and per record
+ * (later field values win, a delete supersedes earlier edits, a resync supersedes everything),
+ * sent as one versioned CHANGES message (see WireMessages) per user and deleted in the same
+ * transaction. Row locks keep relays on several instances from publishing the same change twice.
+ * Changes of users with no open session are dropped without serializing or publishing them;
+ * a device syncs when it reconnects.
+ */
+@Component
+public class WrongAnswerOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(WrongAnswerOutboxRelay.class);
+
+    private static final TypeReference<Map<String, Object>> FIELDS_TYPE = new TypeReference<>() {};
+
+    private final WrongAnswerOutboxMapper outboxMapper;
+    private final UserMessageSender userMessageSender;
+    private final UserPresenceRegistry presenceRegistry;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public WrongAnswerOutboxRelay(
+        WrongAnswerOutboxMapper outboxMapper,
+        UserMessageSender userMessageSender,
+        UserPresenceRegistry presenceRegistry,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        @Value("${wrong-answers.outbox.batch-size:500}") int batchSize
+    ) {
+        this.outboxMapper = outboxMapper;
+        this.userMessageSender = userMessageSender;
+        this.presenceRegistry = presenceRegistry;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${wrong-answers.outbox.relay-interval-ms:500}")
+    public void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed >= batchSize);
+        } catch (RuntimeException e) {
+            logger.error("Wrong-answer outbox relay failed, pending changes stay queued", e);
+        }
+    }
+
+    /**
+     * Publish and delete one batch; must run inside a transaction
+     *
+     * @return number of outbox rows relayed
+     */
+    int relayBatch() {
+        List<WrongAnswerChange> pending = outboxMapper.selectPendingForUpdate(batchSize);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Map<Long, Change>> byUser = new LinkedHashMap<>();
+        Map<Long, Long> seqByUser = new HashMap<>();
+        List<Long> ids = new ArrayList<>(pending.size());
+        for (WrongAnswerChange row : pending) {
+            ids.add(row.getId());
+            merge(byUser.computeIfAbsent(row.getUserId(), k -> new LinkedHashMap<>()), row);
+            if (row.getSeq() != null) {
+                seqByUser.merge(row.getUserId(), row.getSeq(), Math::max);
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        byUser.forEach((userId, changes) -> {
+            String user = String.valueOf(userId);
+            if (presenceRegistry.isOnline(user)) {
+                userMessageSender.sendToUser(user,
+                    new Changes(new ArrayList<>(changes.values()), seqByUser.get(userId), now));
+            }
+        });
+
+        outboxMapper.deleteByIds(ids);
+        return pending.size();
+    }
+
+    private void merge(Map<Long, Change> changes, WrongAnswerChange row) {
+        if (changes.containsKey(null)) {
+            return; // a resync is already pending for this user
+        }
+        String op = row.getOp();
+        if (WrongAnswerChange.OP_RESYNC.equals(op)) {
+            changes.clear();
+            changes.put(null, new Change(null, op, null));
+            return;
+        }
+
+        Long recordId = row.getRecordId();
+        Change previous = changes.get(recordId);
+        if (WrongAnswerChange.OP_UPSERT.equals(op)) {
+            Map<String, Object> fields = parseFields(row.getPayload());
+            if (previous != null && WrongAnswerChange.OP_REFRESH.equals(previous.op())) {
+                return; // the client refetches the whole record anyway
+            }
+            if (previous != null && WrongAnswerChange.OP_UPSERT.equals(previous.op())) {
+                previous.fields().putAll(fields);
+                return;
+            }
+            changes.put(recordId, new Change(recordId, op, fields));
+        } else {
+            changes.put(recordId, new Change(recordId, op, null));
+        }
+    }
+
+    private Map<String, Object> parseFields(String payload) {
+        if (payload == null) {
+            return new LinkedHashMap<>();
+        }
+        try {
+            return new LinkedHashMap<>(objectMapper.readValue(payload, FIELDS_TYPE));
+        } catch (JsonProcessingException e) {
+            logger.warn("Skipping unreadable outbox payload: {}", e.getMessage());
+            return new LinkedHashMap<>();
+        }
+    }
+}
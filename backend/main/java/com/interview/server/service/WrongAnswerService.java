@@ -1,10 +1,16 @@
 package com.interview.service;
 
+import com.interview.dto.CursorPageResponse;
 import com.interview.dto.RecordWrongAnswerRequest;
+import com.interview.dto.WrongAnswerCommand;
 import com.interview.dto.WrongAnswerDto;
 import com.interview.dto.WrongAnswerStatisticsDto;
+import com.interview.dto.WrongAnswerSummaryDto;
+import com.interview.dto.WrongAnswerSyncDelta;
 import com.interview.controller.WrongAnswerController.AnalyticsData;
+import com.interview.controller.WrongAnswerController.BatchOperationResult;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service interface for wrong answer management
@@ -18,6 +24,14 @@ public interface WrongAnswerService {
      */
     WrongAnswerDto recordWrongAnswer(Long userId, RecordWrongAnswerRequest request);
 
+    /**
+     * Record many answers of one user in a single transaction.
+     * Answers to the same question are coalesced into one row update.
+     *
+     * @return number of distinct records created or updated
+     */
+    int recordWrongAnswers(Long userId, List<RecordWrongAnswerRequest> requests);
+
     /**
      * Mark a question as mastered
      */
@@ -38,6 +52,38 @@ public interface WrongAnswerService {
      */
     List<WrongAnswerDto> getWrongAnswers(Long userId);
 
+    /**
+     * Keyset-paginated listing ordered by last wrong time (newest first).
+     * status and source are optional filters; cursor is the nextCursor of the previous page or null.
+     */
+    CursorPageResponse<WrongAnswerDto> getWrongAnswersPage(Long userId, String status, String source, String cursor, int limit);
+
+    /**
+     * Summary-projection variant of getWrongAnswersPage (view=summary)
+     */
+    CursorPageResponse<WrongAnswerSummaryDto> getWrongAnswerSummaryPage(Long userId, String status, String source, String cursor, int limit);
+
+    /**
+     * Unpaged summary list; status and source are optional filters
+     */
+    List<WrongAnswerSummaryDto> getWrongAnswerSummaries(Long userId, String status, String source);
+
+    /**
+     * Summary projection of the records due for review
+     */
+    List<WrongAnswerSummaryDto> getDueForReviewSummaries(Long userId);
+
+    /**
+     * Summary projection of the next `limit` due records, served from the review queue
+     */
+    List<WrongAnswerSummaryDto> getDueForReviewSummaries(Long userId, int limit);
+
+    /**
+     * Stream a user's wrong answers to the sink one at a time, for exports.
+     * When recordIds is empty every record of the user is exported.
+     */
+    void exportWrongAnswers(Long userId, List<Long> recordIds, Consumer<WrongAnswerDto> sink);
+
     /**
      * Get wrong answers by review status
      */
@@ -53,18 +99,30 @@ public interface WrongAnswerService {
      */
     List<WrongAnswerDto> getDueForReview(Long userId);
 
+    /**
+     * Next `limit` due records, highest priority first, served from the in-memory review queue
+     */
+    List<WrongAnswerDto> getDueForReview(Long userId, int limit);
+
     /**
      * Get statistics for wrong answers
      */
     WrongAnswerStatisticsDto getStatistics(Long userId);
 
     /**
-     * Update user notes for a wrong answer
+     * Record ids changed or deleted after the given change sequence, or a full-resync marker
+     */
+    WrongAnswerSyncDelta getChangesSince(Long userId, Long sinceSeq);
+
+    /**
+     * Update user notes for a wrong answer. The result carries only the id, owner, notes and
+     * update time, since the record is not read back.
      */
     WrongAnswerDto updateUserNotes(Long userId, Long recordId, String notes);
 
     /**
-     * Update user tags for a wrong answer
+     * Update user tags for a wrong answer. The result carries only the id, owner, tags and
+     * update time, since the record is not read back.
      */
     WrongAnswerDto updateUserTags(Long userId, Long recordId, List<String> tags);
 
@@ -73,6 +131,15 @@ public interface WrongAnswerService {
      */
     void deleteWrongAnswer(Long userId, Long recordId);
 
+    /**
+     * Apply commands in order in one transaction; the first failing command rolls back all of them.
+     * A command rejected as not found, not owned or unsupported surfaces as an
+     * IllegalArgumentException naming its index; other failures propagate unchanged.
+     *
+     * @return number of commands applied
+     */
+    int applyCommands(Long userId, List<WrongAnswerCommand> commands);
+
     /**
      * Generate review plan based on spaced repetition algorithm
      */
@@ -102,24 +169,25 @@ public interface WrongAnswerService {
     );
 
     /**
-     * Batch update status for multiple wrong answers
+     * Batch update status for multiple wrong answers.
+     * Ids that do not exist or belong to another user are reported as failures.
      */
-    int batchUpdateStatus(Long userId, List<Long> recordIds, String status);
+    BatchOperationResult batchUpdateStatus(Long userId, List<Long> recordIds, String status);
 
     /**
      * Batch add tags to multiple wrong answers
      */
-    int batchAddTags(Long userId, List<Long> recordIds, List<String> tags);
+    BatchOperationResult batchAddTags(Long userId, List<Long> recordIds, List<String> tags);
 
     /**
      * Batch remove tags from multiple wrong answers
      */
-    int batchRemoveTags(Long userId, List<Long> recordIds, List<String> tags);
+    BatchOperationResult batchRemoveTags(Long userId, List<Long> recordIds, List<String> tags);
 
     /**
      * Batch delete multiple wrong answers
      */
-    int batchDelete(Long userId, List<Long> recordIds);
+    BatchOperationResult batchDelete(Long userId, List<Long> recordIds);
 
     /**
      * Get analytics data for wrong answers
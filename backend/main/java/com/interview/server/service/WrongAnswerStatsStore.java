@@ -0,0 +1,449 @@
+package com.interview.service;
+
+import com.interview.dto.WrongAnswerStatisticsDto;
+import com.interview.dto.WrongAnswerStatsBucket;
+import com.interview.entity.WrongAnswerRecord;
+import com.interview.entity.WrongAnswerStatCounter;
+import com.interview.mapper.WrongAnswerMapper;
+import com.interview.mapper.WrongAnswerStatCounterMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Materialized per-user statistics for wrong answers.
+ *
+ * Counters live in wrong_answer_stat_counters and are adjusted with signed deltas inside the
+ * transaction of each mutation, so reading statistics never scans wrong_answer_records.
+ * Users without counters are built lazily from the base table on first read, and a nightly
+ * reconciliation job rebuilds any counters that drifted (e.g. after manual SQL fixes).
+ *
+ * Deltas and rebuilds both lock the user's "total" counter row first: a delta waits for a
+ * rebuild in progress and then applies on top of it, while a rebuild waits for writers that
+ * already hold the row and so scans their committed changes.
+ *
+ * A bounded in-memory tier caches the last committed snapshot per user. Every eviction bumps
+ * a version stripe of the user; a snapshot read concurrently with a commit is only kept if
+ * its stripe did not move, so a stale read can never outlive the eviction that followed it.
+ */
+@Component
+public class WrongAnswerStatsStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(WrongAnswerStatsStore.class);
+
+    public static final String DIM_TOTAL = "total";
+    public static final String DIM_STATUS = "status";
+    public static final String DIM_SOURCE = "source";
+    public static final String DIM_DIFFICULTY = "difficulty";
+    public static final String DIM_WRONG_ATTEMPTS = "wrong_attempts";
+    public static final String DIM_CREATED_DAY = "created_day";
+    public static final String ALL = "*";
+
+    private static final List<String> DEFAULT_SOURCES = List.of("ai_interview", "question_bank", "mock_exam");
+    private static final List<String> DEFAULT_DIFFICULTIES = List.of("easy", "medium", "hard");
+    private static final int RECONCILE_PAGE_SIZE = 500;
+    private static final int VERSION_STRIPES = 256;
+
+    private final WrongAnswerMapper wrongAnswerMapper;
+    private final WrongAnswerStatCounterMapper counterMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<Long, Snapshot> memoryTier;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public WrongAnswerStatsStore(
+        WrongAnswerMapper wrongAnswerMapper,
+        WrongAnswerStatCounterMapper counterMapper,
+        PlatformTransactionManager transactionManager,
+        @Value("${wrong-answers.stats.memory-max-users:10000}") int memoryTierMaxUsers
+    ) {
+        this.wrongAnswerMapper = wrongAnswerMapper;
+        this.counterMapper = counterMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.memoryTier = Caffeine.newBuilder().maximumSize(memoryTierMaxUsers).build();
+    }
+
+    /**
+     * Current statistics of a user, served from memory or the counters table
+     */
+    public WrongAnswerStatisticsDto getStatistics(Long userId) {
+        return snapshot(userId).toStatistics(userId, LocalDate.now());
+    }
+
+    /**
+     * Current counter snapshot of a user
+     */
+    public Snapshot snapshot(Long userId) {
+        Snapshot cached = memoryTier.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long version = version(userId);
+        List<WrongAnswerStatCounter> rows = counterMapper.selectByUserId(userId);
+        Snapshot snapshot = rows.isEmpty() ? rebuild(userId) : Snapshot.fromRows(rows);
+        rememberAfterCommit(userId, snapshot, version);
+        return snapshot;
+    }
+
+    /**
+     * Apply a delta within the caller's transaction. Users whose counters were never
+     * initialized are skipped; they are built from the base table on their first read.
+     */
+    public void apply(Long userId, Delta delta) {
+        if (userId == null || delta == null || delta.isEmpty()) {
+            return;
+        }
+        if (counterMapper.lockInitialized(userId) == null) {
+            return;
+        }
+        counterMapper.upsertDeltas(userId, delta.toRows(userId));
+        evictAfterCommit(userId);
+    }
+
+    /**
+     * Drop the cached snapshot of a user now and again once the current transaction completes
+     */
+    public void evictAfterCommit(Long userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Recompute a user's counters from wrong_answer_records and persist them
+     */
+    public Snapshot rebuild(Long userId) {
+        return transactionTemplate.execute(status -> {
+            // Lock before scanning so the scan sees every writer that got the lock first
+            counterMapper.lockForRebuild(userId);
+            Snapshot fresh = computeFromBaseTable(userId);
+            counterMapper.deleteByUserId(userId);
+            counterMapper.insertBatch(fresh.toRows(userId));
+            evictAfterCommit(userId);
+            return fresh;
+        });
+    }
+
+    /**
+     * Nightly job: compare every materialized user against the base table and rebuild drifted counters
+     */
+    @Scheduled(cron = "${wrong-answers.stats.reconcile-cron:0 30 3 * * *}")
+    public void reconcileAll() {
+        long started = System.currentTimeMillis();
+        int prunedDays = counterMapper.deleteCreatedDaysBefore(LocalDate.now().toString());
+        int checked = 0;
+        int rebuilt = 0;
+        Long after = 0L;
+        while (true) {
+            List<Long> userIds = counterMapper.selectUserIdsAfter(after, RECONCILE_PAGE_SIZE);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            for (Long userId : userIds) {
+                try {
+                    if (reconcile(userId)) {
+                        rebuilt++;
+                    }
+                } catch (Exception e) {
+                    logger.warn("Failed to reconcile wrong answer counters for user {}", userId, e);
+                }
+                checked++;
+            }
+            after = userIds.get(userIds.size() - 1);
+        }
+        logger.info("Reconciled wrong answer counters: checked={}, rebuilt={}, prunedDays={}, took={}ms",
+            checked, rebuilt, prunedDays, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Rebuild a single user's counters if they no longer match the base table
+     *
+     * @return true when the counters had drifted and were rewritten
+     */
+    public boolean reconcile(Long userId) {
+        LocalDate today = LocalDate.now();
+        // Earlier days' creation counters are never rebuilt, so they take no part in the comparison
+        Snapshot stored = Snapshot.fromRows(counterMapper.selectByUserId(userId)).withoutCreatedDaysBefore(today);
+        Snapshot fresh = computeFromBaseTable(userId);
+        if (stored.equals(fresh)) {
+            return false;
+        }
+        rebuild(userId);
+        return true;
+    }
+
+    private Snapshot computeFromBaseTable(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime startOfDay = now.toLocalDate().atStartOfDay();
+        LocalDateTime endOfDay = now.withHour(23).withMinute(59).withSecond(59);
+        List<WrongAnswerStatsBucket> buckets = wrongAnswerMapper.selectStatisticsBuckets(userId, startOfDay, endOfDay);
+
+        Delta delta = new Delta();
+        // Always materialize the "total" row so the user counts as initialized
+        delta.add(DIM_TOTAL, ALL, 0);
+        for (WrongAnswerStatsBucket bucket : buckets) {
+            int count = bucket.getRecordCount() != null ? bucket.getRecordCount().intValue() : 0;
+            delta.add(DIM_TOTAL, ALL, count);
+            delta.add(DIM_STATUS, bucketKey(bucket.getReviewStatus()), count);
+            delta.add(DIM_SOURCE, bucketKey(bucket.getSource()), count);
+            delta.add(DIM_DIFFICULTY, bucketKey(bucket.getDifficulty()), count);
+            delta.add(DIM_WRONG_ATTEMPTS, ALL, bucket.getWrongAttempts() != null ? bucket.getWrongAttempts().intValue() : 0);
+            delta.add(DIM_CREATED_DAY, now.toLocalDate().toString(), bucket.getTodayCount() != null ? bucket.getTodayCount().intValue() : 0);
+        }
+        return new Snapshot(delta.counts, true);
+    }
+
+    /**
+     * Cache a snapshot read at the given version once it is committed; uncommitted reads of
+     * the caller's own transaction must not become visible to others
+     */
+    private void rememberAfterCommit(Long userId, Snapshot snapshot, long version) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(userId, snapshot, version);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(userId, snapshot, version);
+            }
+        });
+    }
+
+    private void remember(Long userId, Snapshot snapshot, long version) {
+        if (version(userId) != version) {
+            return;
+        }
+        memoryTier.put(userId, snapshot);
+        // An eviction that raced the put has bumped the version; undo the put
+        if (version(userId) != version) {
+            memoryTier.asMap().remove(userId, snapshot);
+        }
+    }
+
+    private void evict(Long userId) {
+        versions.incrementAndGet(stripe(userId));
+        memoryTier.invalidate(userId);
+    }
+
+    private long version(Long userId) {
+        return versions.get(stripe(userId));
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(userId, VERSION_STRIPES);
+    }
+
+    static String bucketKey(String value) {
+        return value != null ? value : "unknown";
+    }
+
+    /**
+     * Identifies one counter of a user
+     */
+    record CounterKey(String dimension, String bucketKey) {}
+
+    /**
+     * Signed counter changes produced by a single mutation
+     */
+    public static class Delta {
+        private final Map<CounterKey, Integer> counts = new LinkedHashMap<>();
+
+        /**
+         * A new record was inserted (after its status and counts were set)
+         */
+        public Delta recordAdded(WrongAnswerRecord record) {
+            return adjustRecord(record, 1);
+        }
+
+        /**
+         * A record was deleted
+         */
+        public Delta recordRemoved(WrongAnswerRecord record) {
+            return adjustRecord(record, -1);
+        }
+
+        /**
+         * A record moved from one review status to another
+         */
+        public Delta statusChanged(String from, String to) {
+            if (!Objects.equals(from, to)) {
+                add(DIM_STATUS, bucketKey(from), -1);
+                add(DIM_STATUS, bucketKey(to), 1);
+            }
+            return this;
+        }
+
+        /**
+         * Additional wrong attempts were recorded on an existing record
+         */
+        public Delta wrongAttempts(int attempts) {
+            return add(DIM_WRONG_ATTEMPTS, ALL, attempts);
+        }
+
+        public boolean isEmpty() {
+            return counts.values().stream().allMatch(v -> v == 0);
+        }
+
+        Delta add(String dimension, String bucketKey, int value) {
+            counts.merge(new CounterKey(dimension, bucketKey), value, Integer::sum);
+            return this;
+        }
+
+        List<WrongAnswerStatCounter> toRows(Long userId) {
+            List<WrongAnswerStatCounter> rows = new ArrayList<>(counts.size());
+            counts.forEach((key, value) -> {
+                if (value != 0) {
+                    rows.add(new WrongAnswerStatCounter(userId, key.dimension(), key.bucketKey(), value));
+                }
+            });
+            return rows;
+        }
+
+        private Delta adjustRecord(WrongAnswerRecord record, int sign) {
+            add(DIM_TOTAL, ALL, sign);
+            add(DIM_STATUS, bucketKey(record.getReviewStatus()), sign);
+            add(DIM_SOURCE, bucketKey(record.getSource()), sign);
+            add(DIM_DIFFICULTY, bucketKey(record.getDifficulty()), sign);
+            add(DIM_WRONG_ATTEMPTS, ALL, sign * (record.getWrongCount() != null ? record.getWrongCount() : 0));
+            LocalDateTime createdAt = record.getCreatedAt();
+            if (createdAt != null && createdAt.toLocalDate().equals(LocalDate.now())) {
+                add(DIM_CREATED_DAY, createdAt.toLocalDate().toString(), sign);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Immutable view of a user's counters
+     */
+    public static class Snapshot {
+        private final Map<CounterKey, Integer> counts;
+
+        Snapshot(Map<CounterKey, Integer> counts, boolean dropZeroBuckets) {
+            Map<CounterKey, Integer> copy = new HashMap<>();
+            counts.forEach((key, value) -> {
+                if (!dropZeroBuckets || value != 0 || DIM_TOTAL.equals(key.dimension())) {
+                    copy.put(key, value);
+                }
+            });
+            this.counts = Collections.unmodifiableMap(copy);
+        }
+
+        static Snapshot fromRows(List<WrongAnswerStatCounter> rows) {
+            Map<CounterKey, Integer> counts = new HashMap<>();
+            for (WrongAnswerStatCounter row : rows) {
+                counts.merge(new CounterKey(row.getDimension(), row.getBucketKey()),
+                    row.getCountValue() != null ? row.getCountValue() : 0, Integer::sum);
+            }
+            return new Snapshot(counts, true);
+        }
+
+        /**
+         * The same counters without per-day creation counts of days before the given one
+         */
+        Snapshot withoutCreatedDaysBefore(LocalDate day) {
+            Map<CounterKey, Integer> kept = new HashMap<>(counts);
+            String cutoff = day.toString();
+            kept.keySet().removeIf(key -> DIM_CREATED_DAY.equals(key.dimension()) && key.bucketKey().compareTo(cutoff) < 0);
+            return new Snapshot(kept, true);
+        }
+
+        public int get(String dimension, String bucketKey) {
+            return counts.getOrDefault(new CounterKey(dimension, bucketKey), 0);
+        }
+
+        public Map<String, Integer> dimension(String dimension) {
+            Map<String, Integer> values = new HashMap<>();
+            counts.forEach((key, value) -> {
+                if (key.dimension().equals(dimension)) {
+                    values.put(key.bucketKey(), value);
+                }
+            });
+            return values;
+        }
+
+        /**
+         * Records per source. Well-known keys are always present so the dashboard can render
+         * zeros; any other source found in the data is added as it appears.
+         */
+        public Map<String, Integer> countBySource() {
+            return withDefaults(DEFAULT_SOURCES, DIM_SOURCE);
+        }
+
+        /**
+         * Records per difficulty, with the well-known difficulties always present
+         */
+        public Map<String, Integer> countByDifficulty() {
+            return withDefaults(DEFAULT_DIFFICULTIES, DIM_DIFFICULTY);
+        }
+
+        private Map<String, Integer> withDefaults(List<String> defaults, String dimension) {
+            Map<String, Integer> values = new HashMap<>();
+            defaults.forEach(key -> values.put(key, 0));
+            values.putAll(dimension(dimension));
+            return values;
+        }
+
+        List<WrongAnswerStatCounter> toRows(Long userId) {
+            List<WrongAnswerStatCounter> rows = new ArrayList<>(counts.size());
+            counts.forEach((key, value) -> rows.add(new WrongAnswerStatCounter(userId, key.dimension(), key.bucketKey(), value)));
+            return rows;
+        }
+
+        WrongAnswerStatisticsDto toStatistics(Long userId, LocalDate today) {
+            WrongAnswerStatisticsDto stats = new WrongAnswerStatisticsDto(userId);
+            int total = get(DIM_TOTAL, ALL);
+            int mastered = get(DIM_STATUS, "mastered");
+
+            stats.setTotalWrongCount(total);
+            stats.setTotalWrongAttempts(get(DIM_WRONG_ATTEMPTS, ALL));
+            stats.setMasteredCount(mastered);
+            stats.setReviewingCount(get(DIM_STATUS, "reviewing"));
+            stats.setUnreviewedCount(get(DIM_STATUS, "unreviewed"));
+            stats.setMasteredPercentage(total > 0 ? (double) mastered / total * 100 : 0.0);
+
+            stats.setCountBySource(countBySource());
+            stats.setCountByDifficulty(countByDifficulty());
+
+            stats.setTodayWrongCount(get(DIM_CREATED_DAY, today.toString()));
+            return stats;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Snapshot other)) return false;
+            return counts.equals(other.counts);
+        }
+
+        @Override
+        public int hashCode() {
+            return counts.hashCode();
+        }
+    }
+}
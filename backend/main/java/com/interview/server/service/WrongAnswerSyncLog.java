@@ -0,0 +1,124 @@
+package com.interview.service;
+
+import com.interview.dto.WrongAnswerSyncDelta;
+import com.interview.entity.WrongAnswerChange;
+import com.interview.entity.WrongAnswerSyncCursor;
+import com.interview.entity.WrongAnswerSyncEntry;
+import com.interview.mapper.WrongAnswerSyncMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user change sequence behind resumable sync.
+ *
+ * WrongAnswerOutbox numbers every change here in the mutation's transaction and the log keeps
+ * the latest number per record (a tombstone for deleted records). A reconnecting client sends
+ * the last number it saw and gets back only the ids changed or deleted since, or a full-resync
+ * marker when the gap exceeds maxDelta, when it predates a resync change, or when tombstones it
+ * would need have been pruned.
+ */
+@Component
+public class WrongAnswerSyncLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(WrongAnswerSyncLog.class);
+
+    private static final int INSERT_CHUNK_SIZE = 500;
+
+    private final WrongAnswerSyncMapper syncMapper;
+    private final int maxDelta;
+    private final int tombstoneRetentionDays;
+
+    public WrongAnswerSyncLog(
+        WrongAnswerSyncMapper syncMapper,
+        @Value("${wrong-answers.sync.max-delta:1000}") int maxDelta,
+        @Value("${wrong-answers.sync.tombstone-retention-days:30}") int tombstoneRetentionDays
+    ) {
+        this.syncMapper = syncMapper;
+        this.maxDelta = maxDelta;
+        this.tombstoneRetentionDays = tombstoneRetentionDays;
+    }
+
+    /**
+     * Number the changes of one user and record them; must run inside the mutation's transaction
+     */
+    public void sequence(Long userId, List<WrongAnswerChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        syncMapper.allocateSeq(userId, changes.size());
+        long seq = syncMapper.selectCursor(userId).getSeq() - changes.size();
+
+        Map<Long, WrongAnswerSyncEntry> entries = new LinkedHashMap<>();
+        long resyncSeq = 0;
+        for (WrongAnswerChange change : changes) {
+            change.setSeq(++seq);
+            if (WrongAnswerChange.OP_RESYNC.equals(change.getOp())) {
+                resyncSeq = seq;
+            } else {
+                boolean deleted = WrongAnswerChange.OP_DELETE.equals(change.getOp());
+                entries.put(change.getRecordId(),
+                    new WrongAnswerSyncEntry(userId, change.getRecordId(), seq, deleted, change.getCreatedAt()));
+            }
+        }
+
+        List<WrongAnswerSyncEntry> rows = new ArrayList<>(entries.values());
+        for (int i = 0; i < rows.size(); i += INSERT_CHUNK_SIZE) {
+            syncMapper.upsertEntries(rows.subList(i, Math.min(i + INSERT_CHUNK_SIZE, rows.size())));
+        }
+        if (resyncSeq > 0) {
+            // Clients that have not seen the resync cannot catch up record by record
+            syncMapper.raiseFloor(userId, resyncSeq);
+        }
+    }
+
+    /**
+     * Record ids changed or deleted after sinceSeq; null sinceSeq asks for a full resync
+     */
+    public WrongAnswerSyncDelta changesSince(Long userId, Long sinceSeq) {
+        WrongAnswerSyncCursor cursor = syncMapper.selectCursor(userId);
+        long current = cursor == null ? 0 : cursor.getSeq();
+        long floor = cursor == null ? 0 : cursor.getFloorSeq();
+        if (sinceSeq == null || sinceSeq < floor || sinceSeq > current) {
+            return WrongAnswerSyncDelta.fullResync(current);
+        }
+
+        WrongAnswerSyncDelta delta = new WrongAnswerSyncDelta();
+        delta.setSeq(current);
+        if (sinceSeq == current) {
+            return delta;
+        }
+        List<WrongAnswerSyncEntry> changed = syncMapper.selectChangedSince(userId, sinceSeq, maxDelta + 1);
+        if (changed.size() > maxDelta) {
+            return WrongAnswerSyncDelta.fullResync(current);
+        }
+        for (WrongAnswerSyncEntry entry : changed) {
+            (Boolean.TRUE.equals(entry.getDeleted()) ? delta.getDeletedIds() : delta.getChangedIds())
+                .add(entry.getRecordId());
+        }
+        return delta;
+    }
+
+    /**
+     * Drop old tombstones; users whose history loses them must full-resync from before that point
+     */
+    @Scheduled(cron = "${wrong-answers.sync.prune-cron:0 30 3 * * *}")
+    @Transactional
+    public void pruneTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(tombstoneRetentionDays);
+        syncMapper.raiseFloorsForTombstonesBefore(cutoff);
+        int pruned = syncMapper.deleteTombstonesBefore(cutoff);
+        if (pruned > 0) {
+            logger.info("Pruned {} wrong-answer sync tombstones older than {}", pruned, cutoff);
+        }
+    }
+}
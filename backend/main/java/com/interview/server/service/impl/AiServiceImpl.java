@@ -3,9 +3,14 @@ package com.interview.service.impl;
 import cn.hutool.json.JSONArray;
 import cn.hutool.json.JSONUtil;
 import cn.hutool.json.JSONObject;
+import com.interview.service.AiResponseCache;
 import com.interview.service.AiService;
+import com.interview.service.AiStreamSink;
+import com.interview.service.SessionStorageClient;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
@@ -24,8 +29,15 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +45,9 @@ public class AiServiceImpl implements AiService {
 
     private static final Logger logger = LoggerFactory.getLogger(AiServiceImpl.class);
 
+    /** Sampling temperature for uncached calls; cached calls use 0 */
+    private static final double CHAT_TEMPERATURE = 0.7;
+
     private final HttpClient httpClient = HttpClient.newBuilder()
             .connectTimeout(Duration.ofSeconds(30))
             .followRedirects(HttpClient.Redirect.NORMAL)
@@ -68,27 +83,53 @@ public class AiServiceImpl implements AiService {
     @Value("${ai.dify.timeout-seconds:90}")
     private int difyTimeoutSeconds;
 
-    @Value("${ai.dify.session-storage.base-url:http://localhost:8081}")
-    private String sessionStorageBaseUrl;
+    @Value("${ai.dify.fan-out.parallelism:4}")
+    private int fanOutParallelism;
+
+    @Value("${ai.dify.fan-out.rate-per-second:5}")
+    private double fanOutRatePerSecond;
+
+    @Value("${ai.dify.fan-out.burst:4}")
+    private int fanOutBurst;
 
-    @Value("${ai.dify.session-storage.api-key:${session.storage.api-key:${api.key:}}}")
-    private String sessionStorageApiKey;
+    @Value("${ai.dify.fan-out.max-pending:200}")
+    private int fanOutMaxPending;
 
-    @Value("${ai.dify.session-storage.enabled:true}")
-    private boolean sessionStorageEnabled;
+    private BoundedFanOut standardAnswerFanOut;
+
+    @Autowired
+    private AiResponseCache responseCache;
+
+    @Autowired
+    private SessionStorageClient sessionStorage;
+
+    @PostConstruct
+    void initFanOut() {
+        standardAnswerFanOut = new BoundedFanOut(fanOutParallelism, fanOutRatePerSecond, fanOutBurst, fanOutMaxPending);
+    }
 
     @Override
     public String generateInterviewQuestion(String category, String difficulty, String context) {
+        return generateInterviewQuestionAsync(category, difficulty, context).join();
+    }
+
+    @Override
+    public CompletableFuture<String> generateInterviewQuestionAsync(String category, String difficulty, String context) {
         String prompt = String.format(
                 "You are a %s technical interviewer. Please generate a %s-level interview question. Context: %s. Respond with the question text only.",
                 category,
                 difficulty,
                 context != null ? context : "no additional context");
-        return callOpenAI(prompt);
+        return callOpenAIAsync(AiResponseCache.QUESTION, prompt);
     }
 
     @Override
     public Map<String, Object> analyzeAnswer(String question, String answer, String expectedAnswer) {
+        return analyzeAnswerAsync(question, answer, expectedAnswer).join();
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> analyzeAnswerAsync(String question, String answer, String expectedAnswer) {
         String prompt = String.format(
                 "Evaluate the following interview response.\nQuestion: %s\nAnswer: %s\nReference answer: %s\n" +
                         "Score the reply (0-100) for technical accuracy, completeness, and clarity. Provide strengths, weaknesses, and concrete suggestions in JSON format.",
@@ -96,26 +137,32 @@ public class AiServiceImpl implements AiService {
                 answer,
                 expectedAnswer != null ? expectedAnswer : "N/A");
 
-        String response = callOpenAI(prompt);
-        try {
-            return JSONUtil.toBean(response, Map.class);
-        } catch (Exception e) {
-            logger.error("Failed to parse AI response as JSON", e);
-            Map<String, Object> result = new HashMap<>();
-            result.put("score", 70);
-            result.put("feedback", response);
-            return result;
-        }
+        return callOpenAIAsync(AiResponseCache.ANALYSIS, prompt).thenApply(response -> {
+            try {
+                return JSONUtil.parseObj(response); // a JSONObject is a Map<String, Object>
+            } catch (Exception e) {
+                logger.error("Failed to parse AI response as JSON", e);
+                Map<String, Object> result = new HashMap<>();
+                result.put("score", 70);
+                result.put("feedback", response);
+                return result;
+            }
+        });
     }
 
     @Override
     public String generateFollowUpQuestion(String previousQuestion, String answer, String context) {
+        return generateFollowUpQuestionAsync(previousQuestion, answer, context).join();
+    }
+
+    @Override
+    public CompletableFuture<String> generateFollowUpQuestionAsync(String previousQuestion, String answer, String context) {
         String prompt = String.format(
                 "Based on the previous question: %s\nCandidate answer: %s\nCreate a relevant follow-up question. Context: %s",
                 previousQuestion,
                 answer,
                 context != null ? context : "");
-        return callOpenAI(prompt);
+        return callOpenAIAsync(prompt);
     }
 
     @Override
@@ -133,39 +180,214 @@ public class AiServiceImpl implements AiService {
 
     @Override
     public String chatWithAI(String message, String context) {
-        String prompt = String.format("You are a helpful AI assistant. Message: %s\nContext: %s\nPlease provide a helpful response.",
+        return chatWithAIAsync(message, context).join();
+    }
+
+    @Override
+    public CompletableFuture<String> chatWithAIAsync(String message, String context) {
+        return callOpenAIAsync(chatPrompt(message, context));
+    }
+
+    @Override
+    public CompletableFuture<Void> streamChat(String message, String context, AiStreamSink sink) {
+        HttpRequest request = openAiRequest(chatPrompt(message, context), true);
+        return stream(request, sink, "OpenAI", event -> {
+            if ("[DONE]".equals(event)) {
+                return Collections.emptyMap();
+            }
+            JSONArray choices = JSONUtil.parseObj(event).getJSONArray("choices");
+            if (choices != null && !choices.isEmpty()) {
+                JSONObject delta = choices.getJSONObject(0).getJSONObject("delta");
+                String content = delta == null ? null : delta.getStr("content");
+                if (StringUtils.hasLength(content)) {
+                    sink.token(content);
+                }
+            }
+            return null;
+        });
+    }
+
+    private String chatPrompt(String message, String context) {
+        return String.format("You are a helpful AI assistant. Message: %s\nContext: %s\nPlease provide a helpful response.",
                 message,
                 context != null ? context : "");
-        return callOpenAI(prompt);
     }
 
     @Override
     public Map<String, Object> callDifyWorkflow(Map<String, Object> params) {
+        return callDifyWorkflowAsync(params).join();
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> callDifyWorkflowAsync(Map<String, Object> params) {
         String requestType = params == null ? null : (String) params.get("requestType");
         if (!StringUtils.hasText(requestType)) {
-            return error("requestType must be provided");
+            return CompletableFuture.completedFuture(error("requestType must be provided"));
         }
         if (!StringUtils.hasText(difyApiKey)) {
-            return error("Dify API key is not configured");
+            return CompletableFuture.completedFuture(error("Dify API key is not configured"));
         }
 
+        CompletableFuture<Map<String, Object>> result;
         try {
-            return switch (requestType) {
+            result = switch (requestType) {
                 case "generate_questions" -> handleGenerateQuestions(params);
                 case "score_answer" -> handleScoreAnswer(params);
                 case "generate_standard_answer" -> handleStandardAnswer(params);
-                default -> error("Unsupported requestType: " + requestType);
+                default -> CompletableFuture.completedFuture(error("Unsupported requestType: " + requestType));
             };
         } catch (Exception e) {
-            logger.error("Failed to invoke Dify workflow", e);
-            return error("Failed to invoke Dify workflow: " + e.getMessage());
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.exceptionally(e -> {
+            Throwable cause = unwrap(e);
+            logger.error("Failed to invoke Dify workflow", cause);
+            return error("Failed to invoke Dify workflow: " + cause.getMessage());
+        });
+    }
+
+    /**
+     * Run one workflow in Dify's streaming mode, relaying text_chunk events and finishing with
+     * the workflow outputs. Inputs are passed by id only: score_answer needs questionId here,
+     * the lookup by question text of the blocking path is not done.
+     */
+    @Override
+    public CompletableFuture<Void> streamDifyWorkflow(Map<String, Object> params, AiStreamSink sink) {
+        String requestType = params == null ? null : stringParam(params, "requestType");
+        String workflowId = requestType == null ? null : switch (requestType) {
+            case "generate_questions" -> difyGenerateWorkflowId;
+            case "score_answer" -> difyScoreWorkflowId;
+            case "generate_standard_answer" -> difyAnswerWorkflowId;
+            default -> null;
+        };
+        if (!StringUtils.hasText(workflowId)) {
+            sink.error("Unsupported or unconfigured requestType: " + requestType);
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!StringUtils.hasText(difyApiKey)) {
+            sink.error("Dify API key is not configured");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if ("score_answer".equals(requestType) && !StringUtils.hasText(stringParam(params, "questionId", "question_id"))) {
+            sink.error("questionId is required to stream score_answer");
+            return CompletableFuture.completedFuture(null);
         }
+
+        JSONObject inputs = JSONUtil.createObj();
+        inputs.set("request_type", requestType);
+        putInput(inputs, "job_title", stringParam(params, "jobTitle", "job_title"));
+        putInput(inputs, "session_id", stringParam(params, "sessionId", "session_id"));
+        putInput(inputs, "question_id", stringParam(params, "questionId", "question_id"));
+        putInput(inputs, "candidate_answer", stringParam(params, "candidateAnswer", "candidate_answer", "answer"));
+
+        HttpRequest request = difyRequest(buildWorkflowRequestBody(workflowId, inputs, params, "streaming"));
+        return stream(request, sink, "Dify", event -> {
+            JSONObject json = JSONUtil.parseObj(event);
+            String type = json.getStr("event");
+            JSONObject data = json.getJSONObject("data");
+            if ("text_chunk".equals(type)) {
+                String text = data == null ? null : data.getStr("text");
+                if (StringUtils.hasLength(text)) {
+                    sink.token(text);
+                }
+            } else if ("workflow_finished".equals(type)) {
+                if (data != null && StringUtils.hasText(data.getStr("error"))) {
+                    throw new IllegalStateException("Dify workflow failed: " + data.getStr("error"));
+                }
+                Map<String, Object> metadata = new LinkedHashMap<>();
+                metadata.put("workflowRunId", json.getStr("workflow_run_id"));
+                metadata.put("outputs", data == null ? null : data.getJSONObject("outputs"));
+                return metadata;
+            } else if ("error".equals(type)) {
+                throw new IllegalStateException("Dify workflow failed: " + json.getStr("message"));
+            }
+            return null;
+        });
+    }
+
+    private static void putInput(JSONObject inputs, String key, String value) {
+        if (StringUtils.hasText(value)) {
+            inputs.set(key, value);
+        }
+    }
+
+    /**
+     * Send a streaming request and feed its events to the handler, which returns the final
+     * metadata once the stream is finished and null otherwise. The sink gets exactly one
+     * complete or error; cancelling the returned future aborts the upstream request.
+     */
+    private CompletableFuture<Void> stream(HttpRequest request, AiStreamSink sink, String upstream,
+                                           Function<String, Map<String, Object>> handler) {
+        CompletableFuture<Void> handle = new CompletableFuture<>();
+        AtomicBoolean finished = new AtomicBoolean();
+        Consumer<Map<String, Object>> complete = metadata -> {
+            if (finished.compareAndSet(false, true)) {
+                try {
+                    sink.complete(metadata);
+                } catch (RuntimeException e) {
+                    logger.debug("{} stream sink rejected the final event: {}", upstream, e.getMessage());
+                } finally {
+                    handle.complete(null);
+                }
+            }
+        };
+        Consumer<String> fail = message -> {
+            if (finished.compareAndSet(false, true)) {
+                logger.warn("{} stream failed: {}", upstream, message);
+                try {
+                    sink.error(message);
+                } catch (RuntimeException e) {
+                    logger.debug("{} stream sink rejected the final event: {}", upstream, e.getMessage());
+                } finally {
+                    handle.complete(null);
+                }
+            }
+        };
+
+        SseLineSubscriber subscriber = new SseLineSubscriber(
+                event -> {
+                    if (finished.get()) {
+                        return true;
+                    }
+                    Map<String, Object> metadata = handler.apply(event);
+                    if (metadata == null) {
+                        return false;
+                    }
+                    complete.accept(metadata);
+                    return true;
+                },
+                () -> complete.accept(Collections.emptyMap()),
+                e -> fail.accept(upstream + " stream failed: " + unwrap(e).getMessage()));
+
+        HttpResponse.BodyHandler<Void> bodyHandler = info -> info.statusCode() >= 200 && info.statusCode() < 300
+                ? HttpResponse.BodySubscribers.fromLineSubscriber(subscriber)
+                : HttpResponse.BodySubscribers.discarding();
+        CompletableFuture<HttpResponse<Void>> response = httpClient.sendAsync(request, bodyHandler);
+
+        handle.whenComplete((ignored, e) -> {
+            if (handle.isCancelled()) {
+                finished.set(true);
+                subscriber.cancel();
+                response.cancel(true);
+            }
+        });
+        response.whenComplete((r, e) -> {
+            if (e != null) {
+                fail.accept(upstream + " request failed: " + unwrap(e).getMessage());
+            } else if (r.statusCode() < 200 || r.statusCode() >= 300) {
+                fail.accept(upstream + " returned HTTP status " + r.statusCode());
+            } else {
+                complete.accept(Collections.emptyMap());
+            }
+        });
+        return handle;
     }
 
-    private Map<String, Object> handleGenerateQuestions(Map<String, Object> params) throws Exception {
+    private CompletableFuture<Map<String, Object>> handleGenerateQuestions(Map<String, Object> params) {
         String jobTitle = stringParam(params, "jobTitle", "job_title");
         if (!StringUtils.hasText(jobTitle)) {
-            return error("jobTitle must be provided");
+            return CompletableFuture.completedFuture(error("jobTitle must be provided"));
         }
 
         JSONObject inputs = JSONUtil.createObj();
@@ -173,29 +395,33 @@ public class AiServiceImpl implements AiService {
         inputs.set("request_type", "generate_questions");
 
         JSONObject requestBody = buildWorkflowRequestBody(difyGenerateWorkflowId, inputs, params);
-        JSONObject responseJson = invokeDify(requestBody);
+        return invokeDifyAsync(requestBody).thenCompose(responseJson -> {
+            JSONObject outputs = extractOutputs(responseJson);
+            if (outputs == null) {
+                return CompletableFuture.completedFuture(error("Dify response payload is empty"));
+            }
 
-        JSONObject outputs = extractOutputs(responseJson);
-        if (outputs == null) {
-            return error("Dify response payload is empty");
-        }
+            String sessionId = outputs.getStr("session_id", outputs.getStr("sessionId"));
+            if (!StringUtils.hasText(sessionId)) {
+                return CompletableFuture.completedFuture(error("Dify response did not include session_id"));
+            }
 
-        String sessionId = outputs.getStr("session_id", outputs.getStr("sessionId"));
-        if (!StringUtils.hasText(sessionId)) {
-            return error("Dify response did not include session_id");
-        }
+            List<Map<String, Object>> parsedQuestions = parseQuestionList(outputs);
+            List<Map<String, Object>> generatedQuestions = CollectionUtils.isEmpty(parsedQuestions) ? new ArrayList<>() : parsedQuestions;
 
-        List<Map<String, Object>> generatedQuestions = parseQuestionList(outputs);
-        if (CollectionUtils.isEmpty(generatedQuestions)) {
-            generatedQuestions = new ArrayList<>();
-        }
+            // Standard answers are generated in the background and land in session storage
+            if (!generatedQuestions.isEmpty() && StringUtils.hasText(difyAnswerWorkflowId)) {
+                triggerStandardAnswerWorkflow(sessionId, generatedQuestions, jobTitle);
+            }
 
-        // Trigger standard answer workflow if available
-        if (generatedQuestions.size() > 0 && StringUtils.hasText(difyAnswerWorkflowId)) {
-            triggerStandardAnswerWorkflow(sessionId, generatedQuestions, jobTitle);
-        }
+            sessionStorage.invalidate(sessionId); // the workflow has just written this session
+            return sessionStorage.getSession(sessionId)
+                    .thenApply(sessionSnapshot -> generateQuestionsResult(responseJson, sessionId, jobTitle, generatedQuestions, sessionSnapshot));
+        });
+    }
 
-        JSONObject sessionSnapshot = fetchSession(sessionId);
+    private Map<String, Object> generateQuestionsResult(JSONObject responseJson, String sessionId, String jobTitle,
+                                                        List<Map<String, Object>> generatedQuestions, JSONObject sessionSnapshot) {
         if (sessionSnapshot != null) {
             List<Map<String, Object>> storedQuestions = toQuestionList(sessionSnapshot.get("questions"));
             if (!storedQuestions.isEmpty()) {
@@ -225,71 +451,124 @@ public class AiServiceImpl implements AiService {
         return result;
     }
 
-    private Map<String, Object> handleStandardAnswer(Map<String, Object> params) throws Exception {
+    private CompletableFuture<Map<String, Object>> handleStandardAnswer(Map<String, Object> params) {
         String sessionId = stringParam(params, "sessionId", "session_id");
         String questionId = stringParam(params, "questionId", "question_id");
         if (!StringUtils.hasText(sessionId) || !StringUtils.hasText(questionId)) {
-            return error("sessionId and questionId must be provided");
+            return CompletableFuture.completedFuture(error("sessionId and questionId must be provided"));
         }
         if (!StringUtils.hasText(difyAnswerWorkflowId)) {
-            return error("Unable to determine questionId for scoring");
-        }
+            return CompletableFuture.completedFuture(error("Unable to determine questionId for scoring"));
+        }
+
+        return sessionStorage.getQuestion(sessionId, questionId).thenCompose(question -> {
+            String questionText = question != null ? question.getStr("question") : stringParam(params, "question");
+            Object jobTitle = question != null && question.containsKey("jobTitle")
+                    ? question.get("jobTitle")
+                    : stringParam(params, "jobTitle", "job_title");
+            return generateStandardAnswer(sessionId, questionId, questionText, jobTitle, params, false)
+                    .thenCompose(answer -> answer != null
+                            ? CompletableFuture.completedFuture(answer)
+                            : sessionStorage.getQuestion(sessionId, questionId).thenApply(stored -> stored != null ? stored.getStr("answer") : null))
+                    .thenApply(answer -> {
+                        Map<String, Object> result = new LinkedHashMap<>();
+                        result.put("success", true);
+                        result.put("session_id", sessionId);
+                        result.put("question_id", questionId);
+                        result.put("question", questionText);
+                        result.put("answer", answer);
+                        return result;
+                    });
+        });
+    }
 
+    /**
+     * Generate the standard answer for one stored question and PUT it to session storage.
+     * Answers are cached by workflow, job title and question text, so a repeated question skips
+     * the workflow, which is also why the answer is written back here on every call. Completes
+     * with the answer, or null when the workflow returned none.
+     *
+     * @param background route the workflow call through the rate-limited fan-out
+     */
+    private CompletableFuture<String> generateStandardAnswer(String sessionId, String questionId, String questionText,
+                                                             Object jobTitle, Map<String, Object> params, boolean background) {
         JSONObject inputs = JSONUtil.createObj();
         inputs.set("session_id", sessionId);
         inputs.set("question_id", questionId);
+        if (jobTitle != null) {
+            inputs.set("job_title", jobTitle);
+        }
         inputs.set("request_type", "generate_standard_answer");
         JSONObject requestBody = buildWorkflowRequestBody(difyAnswerWorkflowId, inputs, params);
-        invokeDify(requestBody); // Ignore response for now
 
-        JSONObject questionSnapshot = fetchQuestion(sessionId, questionId);
-        Map<String, Object> result = new LinkedHashMap<>();
-        result.put("success", true);
-        result.put("session_id", sessionId);
-        result.put("question_id", questionId);
-        result.put("question", questionSnapshot != null ? questionSnapshot.getStr("question") : null);
-        result.put("answer", questionSnapshot != null ? questionSnapshot.getStr("answer") : null);
-        return result;
+        Supplier<CompletableFuture<String>> runWorkflow = () -> {
+            CompletableFuture<JSONObject> response = background
+                    ? standardAnswerFanOut.submit(() -> invokeDifyAsync(requestBody))
+                    : invokeDifyAsync(requestBody);
+            return response.thenApply(json -> {
+                JSONObject outputs = extractOutputs(json);
+                return outputs == null ? null : outputs.getStr("generated_answer", outputs.getStr("standard_answer"));
+            });
+        };
+        CompletableFuture<String> answer = StringUtils.hasText(questionText)
+                ? responseCache.getOrLoad(AiResponseCache.STANDARD_ANSWER,
+                        difyAnswerWorkflowId + "\n" + Objects.toString(jobTitle, "") + "\n" + questionText, runWorkflow)
+                : runWorkflow.get();
+        return answer.thenCompose(text -> {
+            if (!StringUtils.hasText(text)) {
+                sessionStorage.invalidate(sessionId); // the workflow may still have saved an answer itself
+                return CompletableFuture.completedFuture(null);
+            }
+            return sessionStorage.putAnswer(sessionId, questionId, text).thenApply(ignored -> text);
+        });
     }
 
-    private Map<String, Object> handleScoreAnswer(Map<String, Object> params) throws Exception {
+    private CompletableFuture<Map<String, Object>> handleScoreAnswer(Map<String, Object> params) {
         String sessionId = stringParam(params, "sessionId", "session_id");
         if (!StringUtils.hasText(sessionId)) {
-            return error("sessionId is required");
+            return CompletableFuture.completedFuture(error("sessionId is required"));
         }
 
-        String questionId = stringParam(params, "questionId", "question_id");
+        String givenQuestionId = stringParam(params, "questionId", "question_id");
         String questionText = stringParam(params, "question");
-        if (!StringUtils.hasText(questionId)) {
-            questionId = findQuestionIdByText(sessionId, questionText);
-        }
-        if (!StringUtils.hasText(questionId)) {
-            return error("Unable to determine questionId for scoring");
-        }
+        CompletableFuture<String> questionIdFuture = StringUtils.hasText(givenQuestionId)
+                ? CompletableFuture.completedFuture(givenQuestionId)
+                : findQuestionIdByText(sessionId, questionText);
 
-        String candidateAnswer = stringParam(params, "candidateAnswer", "candidate_answer", "answer");
-        if (!StringUtils.hasText(candidateAnswer)) {
-            return error("Candidate answer must not be empty");
-        }
-
-        if (!StringUtils.hasText(difyScoreWorkflowId)) {
-            return error("Score workflow ID is not configured");
-        }
+        return questionIdFuture.thenCompose(questionId -> {
+            if (!StringUtils.hasText(questionId)) {
+                return CompletableFuture.completedFuture(error("Unable to determine questionId for scoring"));
+            }
 
-        JSONObject inputs = JSONUtil.createObj();
-        inputs.set("session_id", sessionId);
-        inputs.set("question_id", questionId);
-        inputs.set("candidate_answer", candidateAnswer);
-        inputs.set("request_type", "score_answer");
+            String candidateAnswer = stringParam(params, "candidateAnswer", "candidate_answer", "answer");
+            if (!StringUtils.hasText(candidateAnswer)) {
+                return CompletableFuture.completedFuture(error("Candidate answer must not be empty"));
+            }
 
-        JSONObject requestBody = buildWorkflowRequestBody(difyScoreWorkflowId, inputs, params);
-        JSONObject responseJson = invokeDify(requestBody);
-        JSONObject outputs = extractOutputs(responseJson);
+            if (!StringUtils.hasText(difyScoreWorkflowId)) {
+                return CompletableFuture.completedFuture(error("Score workflow ID is not configured"));
+            }
 
-        if (outputs == null) {
-            return error("Dify response payload is empty");
-        }
+            JSONObject inputs = JSONUtil.createObj();
+            inputs.set("session_id", sessionId);
+            inputs.set("question_id", questionId);
+            inputs.set("candidate_answer", candidateAnswer);
+            inputs.set("request_type", "score_answer");
+
+            JSONObject requestBody = buildWorkflowRequestBody(difyScoreWorkflowId, inputs, params);
+            return invokeDifyAsync(requestBody).thenCompose(responseJson -> {
+                JSONObject outputs = extractOutputs(responseJson);
+                if (outputs == null) {
+                    return CompletableFuture.completedFuture(error("Dify response payload is empty"));
+                }
+                return sessionStorage.getQuestion(sessionId, questionId)
+                        .thenApply(questionSnapshot -> scoreAnswerResult(responseJson, outputs, sessionId, questionId, questionSnapshot));
+            });
+        });
+    }
 
+    private Map<String, Object> scoreAnswerResult(JSONObject responseJson, JSONObject outputs, String sessionId,
+                                                  String questionId, JSONObject questionSnapshot) {
         Map<String, Object> result = new LinkedHashMap<>();
         result.put("success", true);
         result.put("session_id", sessionId);
@@ -308,7 +587,6 @@ public class AiServiceImpl implements AiService {
         result.put("comprehensive_evaluation", evaluation);
         result.put("comprehensiveEvaluation", evaluation);
 
-        JSONObject questionSnapshot = fetchQuestion(sessionId, questionId);
         if (questionSnapshot != null) {
             result.put("question", questionSnapshot.getStr("question"));
             result.put("standard_answer", questionSnapshot.getStr("answer"));
@@ -323,58 +601,74 @@ public class AiServiceImpl implements AiService {
         return result;
     }
 
-    private void triggerStandardAnswerWorkflow(String sessionId, List<Map<String, Object>> questions, String jobTitle) {
-        if (!sessionStorageEnabled || !StringUtils.hasText(difyAnswerWorkflowId)) {
-            return;
+    /**
+     * Run the standard answer workflow for every question through the fan-out, so at most
+     * ai.dify.fan-out.parallelism calls are in flight and starts follow its rate limit. Each
+     * generated answer is written back to session storage as soon as its call completes, and
+     * repeated questions come from the response cache without a workflow call; failures are
+     * logged per question and never fail the returned future.
+     */
+    private CompletableFuture<Void> triggerStandardAnswerWorkflow(String sessionId, List<Map<String, Object>> questions, String jobTitle) {
+        if (!sessionStorage.isEnabled() || !StringUtils.hasText(difyAnswerWorkflowId)) {
+            return CompletableFuture.completedFuture(null);
         }
 
+        List<CompletableFuture<Void>> answers = new ArrayList<>();
         for (Map<String, Object> question : questions) {
-            try {
-                String questionId = (String) question.getOrDefault("id", "");
-                if (!StringUtils.hasText(questionId)) {
-                    continue;
-                }
-                JSONObject inputs = JSONUtil.createObj();
-                inputs.set("session_id", sessionId);
-                inputs.set("question_id", questionId);
-                inputs.set("job_title", question.getOrDefault("jobTitle", jobTitle));
-                inputs.set("request_type", "generate_standard_answer");
-                JSONObject requestBody = buildWorkflowRequestBody(difyAnswerWorkflowId, inputs, Collections.emptyMap());
-                invokeDify(requestBody);
-                TimeUnit.MILLISECONDS.sleep(150);
-            } catch (Exception e) {
-                logger.warn("Failed to trigger standard answer workflow for session {} question {}", sessionId, question.get("id"), e);
+            String questionId = (String) question.getOrDefault("id", "");
+            if (!StringUtils.hasText(questionId)) {
+                continue;
             }
-        }
+            Object questionText = question.get("question");
+            answers.add(generateStandardAnswer(sessionId, questionId, questionText == null ? null : questionText.toString(),
+                            question.getOrDefault("jobTitle", jobTitle), Collections.emptyMap(), true)
+                    .handle((ignored, e) -> {
+                        if (e != null) {
+                            logger.warn("Failed to generate standard answer for session {} question {}", sessionId, questionId, unwrap(e));
+                        }
+                        return (Void) null;
+                    }));
+        }
+        return CompletableFuture.allOf(answers.toArray(new CompletableFuture<?>[0]));
     }
 
     private JSONObject buildWorkflowRequestBody(String workflowId, JSONObject inputs, Map<String, Object> params) {
+        return buildWorkflowRequestBody(workflowId, inputs, params, "blocking");
+    }
+
+    private JSONObject buildWorkflowRequestBody(String workflowId, JSONObject inputs, Map<String, Object> params, String responseMode) {
         JSONObject requestBody = JSONUtil.createObj();
         requestBody.set("workflow_id", workflowId);
         requestBody.set("inputs", inputs);
-        requestBody.set("response_mode", "blocking");
+        requestBody.set("response_mode", responseMode);
         String user = params == null ? null : stringParam(params, "user", "userId");
         requestBody.set("user", StringUtils.hasText(user) ? user : "interview-backend");
         return requestBody;
     }
 
-    private JSONObject invokeDify(JSONObject requestBody) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
+    /**
+     * POST a workflow run; completes exceptionally on transport errors and non-2xx responses
+     */
+    private CompletableFuture<JSONObject> invokeDifyAsync(JSONObject requestBody) {
+        return httpClient.sendAsync(difyRequest(requestBody), HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            logger.info("Dify workflow response status: {}, body: {}", response.statusCode(), response.body());
+
+            if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                return JSONUtil.parseObj(response.body());
+            }
+
+            throw new IllegalStateException("Dify API request failed with HTTP status: " + response.statusCode() + ", body: " + response.body());
+        });
+    }
+
+    private HttpRequest difyRequest(JSONObject requestBody) {
+        return HttpRequest.newBuilder()
                 .uri(URI.create(difyWorkflowUrl))
                 .timeout(Duration.ofSeconds(difyTimeoutSeconds))
                 .header("Content-Type", "application/json")
                 .header("Authorization", "Bearer " + difyApiKey)
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody.toString(), StandardCharsets.UTF_8))
                 .build();
-
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        logger.info("Dify workflow response status: {}, body: {}", response.statusCode(), response.body());
-
-        if (response.statusCode() >= 200 && response.statusCode() < 300) {
-            return JSONUtil.parseObj(response.body());
-        }
-
-        throw new IllegalStateException("Dify API request failed with HTTP status: " + response.statusCode() + ", body: " + response.body());
     }
 
     private JSONObject extractOutputs(JSONObject responseJson) {
@@ -464,73 +758,22 @@ public class AiServiceImpl implements AiService {
         return result;
     }
 
-    private JSONObject fetchSession(String sessionId) {
-        if (!sessionStorageEnabled || !StringUtils.hasText(sessionStorageBaseUrl)) {
-            return null;
-        }
-        return getFromStorage("/api/sessions/" + urlEncode(sessionId));
-    }
-
-    private JSONObject fetchQuestion(String sessionId, String questionId) {
-        if (!sessionStorageEnabled || !StringUtils.hasText(sessionStorageBaseUrl)) {
-            return null;
+    private CompletableFuture<String> findQuestionIdByText(String sessionId, String questionText) {
+        if (!StringUtils.hasText(questionText)) {
+            return CompletableFuture.completedFuture(null);
         }
-        return getFromStorage("/api/sessions/" + urlEncode(sessionId) + "/questions/" + urlEncode(questionId));
-    }
-
-    private JSONObject getFromStorage(String path) {
-        try {
-            String url = buildStorageUrl(path);
-            HttpRequest.Builder builder = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("Accept", "application/json")
-                    .timeout(Duration.ofSeconds(difyTimeoutSeconds));
-
-            if (StringUtils.hasText(sessionStorageApiKey)) {
-                builder.header("Authorization", "Bearer " + sessionStorageApiKey);
+        return sessionStorage.getSession(sessionId).thenApply(session -> {
+            if (session == null || !session.containsKey("questions")) {
+                return null;
             }
-
-            HttpResponse<String> response = httpClient.send(builder.GET().build(), HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                return JSONUtil.parseObj(response.body());
+            List<Map<String, Object>> questions = toQuestionList(session.get("questions"));
+            for (Map<String, Object> question : questions) {
+                if (questionText.equals(question.get("question"))) {
+                    return (String) question.get("id");
+                }
             }
-            logger.warn("Storage service returned status {} body {}", response.statusCode(), response.body());
-        } catch (Exception e) {
-            logger.warn("Failed to call storage service", e);
-        }
-        return null;
-    }
-
-    private String findQuestionIdByText(String sessionId, String questionText) {
-        if (!StringUtils.hasText(questionText)) {
-            return null;
-        }
-        JSONObject session = fetchSession(sessionId);
-        if (session == null || !session.containsKey("questions")) {
             return null;
-        }
-        List<Map<String, Object>> questions = toQuestionList(session.get("questions"));
-        for (Map<String, Object> question : questions) {
-            if (questionText.equals(question.get("question"))) {
-                return (String) question.get("id");
-            }
-        }
-        return null;
-    }
-
-    private String buildStorageUrl(String path) {
-        String base = sessionStorageBaseUrl;
-        if (!StringUtils.hasText(base)) {
-            base = "http://localhost:8081";
-        }
-        if (base.endsWith("/")) {
-            base = base.substring(0, base.length() - 1);
-        }
-        return base + path;
-    }
-
-    private String urlEncode(String value) {
-        return value == null ? "" : java.net.URLEncoder.encode(value, StandardCharsets.UTF_8);
+        });
     }
 
     private String stringParam(Map<String, Object> params, String... keys) {
@@ -560,35 +803,92 @@ public class AiServiceImpl implements AiService {
         return result;
     }
 
-    private String callOpenAI(String prompt) {
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    /**
+     * Chat completion without blocking the caller; completes with a fallback message on failure
+     */
+    private CompletableFuture<String> callOpenAIAsync(String prompt) {
+        return callOpenAIAsync(null, prompt);
+    }
+
+    /**
+     * @param cacheType response cache type, or null to always call upstream. Cached calls are
+     *                  sent at temperature 0, so the stored reply is the one the same request
+     *                  would get again. Failures turn into a fallback message after the cache, so
+     *                  they are never stored
+     */
+    private CompletableFuture<String> callOpenAIAsync(String cacheType, String prompt) {
+        CompletableFuture<String> content;
         try {
-            JSONObject requestBody = JSONUtil.createObj();
-            requestBody.put("model", openAiModel);
-            requestBody.put("messages", List.of(Map.of("role", "user", "content", prompt)));
-            requestBody.put("max_tokens", 1000);
-            requestBody.put("temperature", 0.7);
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(openAiBaseUrl + "/v1/chat/completions"))
-                    .header("Content-Type", "application/json")
-                    .header("Authorization", "Bearer " + openAiApiKey)
-                    .timeout(Duration.ofMillis(openAiTimeoutMs))
-                    .POST(HttpRequest.BodyPublishers.ofString(requestBody.toString(), StandardCharsets.UTF_8))
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() == 200) {
-                JSONObject responseJson = JSONUtil.parseObj(response.body());
-                return responseJson.getJSONArray("choices")
-                        .getJSONObject(0)
-                        .getJSONObject("message")
-                        .getStr("content");
-            }
-            logger.error("OpenAI API call failed with status: {}, body: {}", response.statusCode(), response.body());
-            return "AI service is temporarily unavailable, please try again later.";
+            JSONObject requestBody = openAiRequestBody(prompt, false, cacheType == null ? CHAT_TEMPERATURE : 0);
+            content = cacheType == null
+                    ? requestOpenAIAsync(requestBody)
+                    : responseCache.getOrLoad(cacheType, requestBody.toString(), () -> requestOpenAIAsync(requestBody));
         } catch (Exception e) {
-            logger.error("Failed to call OpenAI API", e);
+            content = CompletableFuture.failedFuture(e);
+        }
+        return content.exceptionally(e -> {
+            Throwable cause = unwrap(e);
+            if (cause instanceof UpstreamStatusException) {
+                return "AI service is temporarily unavailable, please try again later.";
+            }
+            logger.error("Failed to call OpenAI API", cause);
             return "AI service encountered an unexpected error, please retry later.";
+        });
+    }
+
+    private CompletableFuture<String> requestOpenAIAsync(JSONObject requestBody) {
+        return httpClient.sendAsync(openAiRequest(requestBody), HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() == 200) {
+                        JSONObject responseJson = JSONUtil.parseObj(response.body());
+                        return responseJson.getJSONArray("choices")
+                                .getJSONObject(0)
+                                .getJSONObject("message")
+                                .getStr("content");
+                    }
+                    logger.error("OpenAI API call failed with status: {}, body: {}", response.statusCode(), response.body());
+                    throw new UpstreamStatusException(response.statusCode());
+                });
+    }
+
+    private static final class UpstreamStatusException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        UpstreamStatusException(int status) {
+            super("HTTP status " + status);
         }
     }
+
+    private HttpRequest openAiRequest(String prompt, boolean stream) {
+        return openAiRequest(openAiRequestBody(prompt, stream, CHAT_TEMPERATURE));
+    }
+
+    private JSONObject openAiRequestBody(String prompt, boolean stream, double temperature) {
+        JSONObject requestBody = JSONUtil.createObj();
+        requestBody.set("model", openAiModel);
+        requestBody.set("messages", List.of(Map.of("role", "user", "content", prompt)));
+        requestBody.set("max_tokens", 1000);
+        requestBody.set("temperature", temperature);
+        if (stream) {
+            requestBody.set("stream", true);
+        }
+        return requestBody;
+    }
+
+    private HttpRequest openAiRequest(JSONObject requestBody) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(openAiBaseUrl + "/v1/chat/completions"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + openAiApiKey)
+                .timeout(Duration.ofMillis(openAiTimeoutMs))
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody.toString(), StandardCharsets.UTF_8))
+                .build();
+    }
 }
@@ -0,0 +1,145 @@
+package com.interview.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs asynchronous tasks with at most {@code parallelism} in flight, starting them no faster
+ * than a token bucket allows ({@code ratePerSecond} sustained, {@code burst} at once). Nothing
+ * blocks: queued tasks are started when an earlier one completes or when the bucket refills.
+ * At most {@code maxPending} tasks wait; beyond that {@link #submit} fails with a
+ * {@link RejectedExecutionException}.
+ */
+final class BoundedFanOut {
+
+    private final int parallelism;
+    private final double ratePerNano;
+    private final double burst;
+    private final int maxPending;
+
+    private final Queue<Runnable> pending = new ArrayDeque<>();
+    private int inFlight;
+    private double tokens;
+    private long refilledAt;
+    private boolean refillScheduled;
+    private boolean draining;
+
+    /**
+     * @param ratePerSecond sustained start rate; zero or negative disables the rate limit
+     */
+    BoundedFanOut(int parallelism, double ratePerSecond, int burst, int maxPending) {
+        this.parallelism = Math.max(1, parallelism);
+        this.ratePerNano = ratePerSecond > 0 ? ratePerSecond / TimeUnit.SECONDS.toNanos(1) : 0;
+        this.burst = Math.max(1, burst);
+        this.maxPending = Math.max(1, maxPending);
+        this.tokens = this.burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        synchronized (this) {
+            if (pending.size() >= maxPending) {
+                return CompletableFuture.failedFuture(
+                        new RejectedExecutionException("Fan-out queue is full (" + maxPending + " waiting)"));
+            }
+            pending.add(() -> start(task, result));
+        }
+        drain();
+        return result;
+    }
+
+    synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    synchronized int inFlightCount() {
+        return inFlight;
+    }
+
+    /**
+     * Start whatever the limits allow. Only one caller drains at a time: a task that completes
+     * synchronously calls back in here from {@link #start}, and instead of recursing it leaves
+     * the work to the loop already running, which re-checks the queue after every start.
+     */
+    private void drain() {
+        synchronized (this) {
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        while (true) {
+            Runnable next;
+            synchronized (this) {
+                if (pending.isEmpty() || inFlight >= parallelism || refillScheduled) {
+                    draining = false;
+                    return;
+                }
+                long waitNanos = takeToken();
+                if (waitNanos > 0) {
+                    draining = false;
+                    refillScheduled = true;
+                    CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS).execute(() -> {
+                        synchronized (this) {
+                            refillScheduled = false;
+                        }
+                        drain();
+                    });
+                    return;
+                }
+                next = pending.poll();
+                inFlight++;
+            }
+            try {
+                next.run();
+            } catch (Throwable e) {
+                synchronized (this) {
+                    draining = false;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Take one token, or return how long until one is available
+     */
+    private long takeToken() {
+        if (ratePerNano == 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * ratePerNano);
+        refilledAt = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / ratePerNano));
+    }
+
+    private <T> void start(Supplier<CompletableFuture<T>> task, CompletableFuture<T> result) {
+        CompletableFuture<T> running;
+        try {
+            running = task.get();
+        } catch (RuntimeException e) {
+            running = CompletableFuture.failedFuture(e);
+        }
+        running.whenComplete((value, e) -> {
+            synchronized (this) {
+                inFlight--;
+            }
+            if (e != null) {
+                result.completeExceptionally(e);
+            } else {
+                result.complete(value);
+            }
+            drain();
+        });
+    }
+}
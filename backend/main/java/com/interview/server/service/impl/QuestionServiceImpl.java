@@ -14,6 +14,7 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -58,6 +59,21 @@ public class QuestionServiceImpl implements QuestionService {
         return new PageResponse<>(questions, total, page, size);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportQuestions(Long majorGroupId, Long categoryId, String difficulty, String type,
+                                String keyword, String tags, java.util.function.Consumer<Question> sink) {
+        if (majorGroupId != null && majorGroupId <= 0) {
+            return;
+        }
+        List<String> tagList = new java.util.ArrayList<>();
+        if (tags != null && !tags.isEmpty()) {
+            tagList = java.util.Arrays.asList(tags.split(","));
+        }
+        questionMapper.streamForExport(majorGroupId, categoryId, difficulty, type, keyword, tags, tagList,
+                ctx -> sink.accept(ctx.getResultObject()));
+    }
+
     @Override
     public Map<String, Object> getFacets(Long majorGroupId, Long categoryId,
                                          String difficulty, String type,
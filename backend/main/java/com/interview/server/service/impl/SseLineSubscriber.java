@@ -0,0 +1,100 @@
+package com.interview.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Line subscriber for HttpClient that turns an upstream text/event-stream into one callback per
+ * event with the joined data lines. Lines are pushed by the client as they arrive, so no thread
+ * is parked on the response body. The callback returns true once the stream is finished; that,
+ * or a failing callback, cancels the upstream response.
+ */
+class SseLineSubscriber implements Flow.Subscriber<String> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseLineSubscriber.class);
+
+    private final Predicate<String> onEvent;
+    private final Runnable onEnd;
+    private final Consumer<Throwable> onFailure;
+    private final StringBuilder data = new StringBuilder();
+    // cancel() may come from another thread, e.g. when the browser disconnects
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelled;
+
+    SseLineSubscriber(Predicate<String> onEvent, Runnable onEnd, Consumer<Throwable> onFailure) {
+        this.onEvent = onEvent;
+        this.onEnd = onEnd;
+        this.onFailure = onFailure;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(String line) {
+        if (cancelled) {
+            return;
+        }
+        if (line.isEmpty()) {
+            dispatch();
+        } else if (line.startsWith("data:")) {
+            if (data.length() > 0) {
+                data.append('\n');
+            }
+            data.append(line.startsWith("data: ") ? line.substring(6) : line.substring(5));
+        }
+        // event:, id:, retry: and comment lines carry nothing the callers use
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (!cancelled) {
+            onFailure.accept(throwable);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        if (cancelled) {
+            return;
+        }
+        dispatch();
+        if (!cancelled) {
+            onEnd.run();
+        }
+    }
+
+    /**
+     * Stop reading; no further callbacks are made
+     */
+    void cancel() {
+        cancelled = true;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    private void dispatch() {
+        if (data.length() == 0) {
+            return;
+        }
+        String event = data.toString();
+        data.setLength(0);
+        try {
+            if (onEvent.test(event)) {
+                cancel();
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Stream consumer failed, cancelling upstream: {}", e.getMessage());
+            cancel();
+            onFailure.accept(e);
+        }
+    }
+}
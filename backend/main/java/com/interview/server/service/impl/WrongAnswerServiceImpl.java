@@ -1,20 +1,45 @@
 package com.interview.service.impl;
 
+import com.interview.dto.CursorPageResponse;
 import com.interview.dto.RecordWrongAnswerRequest;
+import com.interview.dto.ReviewActivitySummary;
+import com.interview.dto.WrongAnswerCommand;
 import com.interview.dto.WrongAnswerDto;
 import com.interview.dto.WrongAnswerStatisticsDto;
+import com.interview.dto.WrongAnswerSummaryDto;
+import com.interview.dto.WrongAnswerSyncDelta;
 import com.interview.entity.WrongAnswerRecord;
 import com.interview.mapper.WrongAnswerMapper;
 import com.interview.mapper.WrongAnswerReviewLogMapper;
 import com.interview.entity.WrongAnswerReviewLog;
+import com.interview.service.ReviewQueueStore;
+import com.interview.service.ReviewRescheduler;
+import com.interview.service.WrongAnswerOutbox;
 import com.interview.service.WrongAnswerService;
+import com.interview.service.WrongAnswerStatsStore;
+import com.interview.service.WrongAnswerSyncLog;
+import com.interview.service.scheduling.EbbinghausScheduler;
+import com.interview.service.scheduling.ReviewScheduler;
+import com.interview.service.scheduling.ReviewSchedulers;
+import com.interview.service.scheduling.ReviewState;
 import org.springframework.beans.BeanUtils;
-import com.interview.config.WrongAnswersSchedulerConfig;
+import org.springframework.jdbc.core.JdbcTemplate;
+import com.interview.controller.WrongAnswerController.BatchOperationResult;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -23,104 +48,160 @@ import java.util.stream.Collectors;
 @Service
 public class WrongAnswerServiceImpl implements WrongAnswerService {
 
+    private static final int BATCH_CHUNK_SIZE = 200;
+    private static final int MAX_TAG_REMOVE_PASSES = 10;
+    private static final int MAX_PAGE_SIZE = 100;
+    // Batched per row and guarded by owner, so a stale id can only miss, never insert
+    private static final String ANSWER_STATE_SQL = "UPDATE wrong_answer_records SET review_status = ?, "
+        + "next_review_time = ?, review_priority = ?, priority_score = ?, updated_at = ? WHERE id = ? AND user_id = ?";
+
     private final WrongAnswerMapper wrongAnswerMapper;
     private final WrongAnswerReviewLogMapper reviewLogMapper;
-    private final WrongAnswersSchedulerConfig schedulerConfig;
-
-    public WrongAnswerServiceImpl(WrongAnswerMapper wrongAnswerMapper, WrongAnswerReviewLogMapper reviewLogMapper, WrongAnswersSchedulerConfig schedulerConfig) {
+    private final ReviewSchedulers reviewSchedulers;
+    private final WrongAnswerStatsStore statsStore;
+    private final ReviewQueueStore reviewQueue;
+    private final ReviewRescheduler reviewRescheduler;
+    private final WrongAnswerOutbox outbox;
+    private final WrongAnswerSyncLog syncLog;
+    private final JdbcTemplate jdbcTemplate;
+
+    public WrongAnswerServiceImpl(WrongAnswerMapper wrongAnswerMapper, WrongAnswerReviewLogMapper reviewLogMapper,
+                                  ReviewSchedulers reviewSchedulers, WrongAnswerStatsStore statsStore,
+                                  ReviewQueueStore reviewQueue, ReviewRescheduler reviewRescheduler,
+                                  WrongAnswerOutbox outbox, WrongAnswerSyncLog syncLog, JdbcTemplate jdbcTemplate) {
         this.wrongAnswerMapper = wrongAnswerMapper;
         this.reviewLogMapper = reviewLogMapper;
-        this.schedulerConfig = schedulerConfig;
+        this.reviewSchedulers = reviewSchedulers;
+        this.statsStore = statsStore;
+        this.reviewQueue = reviewQueue;
+        this.reviewRescheduler = reviewRescheduler;
+        this.outbox = outbox;
+        this.syncLog = syncLog;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
+    @Transactional
     public WrongAnswerDto recordWrongAnswer(Long userId, RecordWrongAnswerRequest request) {
-        // Try to find existing record
-        WrongAnswerRecord existing = wrongAnswerMapper.selectByUserAndQuestion(
-            userId, request.getQuestionId()
-        );
-
-        WrongAnswerRecord record;
-        if (existing == null) {
-            // Create new record
-            record = new WrongAnswerRecord(userId, request.getQuestionId(), request.getSource());
-            record.setQuestionTitle(request.getQuestionTitle());
-            record.setQuestionContent(request.getQuestionContent());
-            record.setDifficulty(request.getDifficulty());
-            record.setKnowledgePoints(request.getKnowledgePoints());
-            // Initialize SM-2 scheduling defaults
-            record.setRepetitions(0);
-            record.setEaseFactor(2.5);
-            record.setIntervalDays(0);
-            record.setLastQuality(null);
-        } else {
-            // Update existing record
-            record = existing;
+        LocalDateTime now = LocalDateTime.now();
+        boolean correct = isCorrect(request);
+
+        // Insert the record with its derived state, or add the answer to the existing row in SQL
+        WrongAnswerRecord answer = newAnswer(userId, request, now);
+        applyAnswer(answer, correct, now);
+        boolean created = wrongAnswerMapper.upsertAnswer(answer) == 1;
+        WrongAnswerRecord record = answer;
+        String prevStatus = null;
+        if (!created) {
+            // The upsert holds the row lock and left its status alone, so the plain read-back
+            // carries the summed counts and the status before this answer
+            record = wrongAnswerMapper.selectByUserAndQuestion(userId, request.getQuestionId());
+            prevStatus = record.getReviewStatus();
+            applyAnswer(record, correct, now);
+            jdbcTemplate.update(ANSWER_STATE_SQL, answerState(record));
         }
 
-        // Update based on whether answer is correct
-        if (request.getIsCorrect() != null && request.getIsCorrect()) {
-            // User got it correct
-            record.setCorrectCount((record.getCorrectCount() != null ? record.getCorrectCount() : 0) + 1);
-            record.setLastCorrectTime(LocalDateTime.now());
+        WrongAnswerStatsStore.Delta delta = new WrongAnswerStatsStore.Delta();
+        addToDelta(delta, record, prevStatus, created, correct ? 0 : 1);
+        statsStore.apply(userId, delta);
+        reviewQueue.upsertAfterCommit(record);
+        outbox.upsert(userId, record.getId(), answerFields(record, created));
 
-            // Check if mastered (3 consecutive correct answers)
-            if (record.getCorrectCount() >= 3) {
-                record.setReviewStatus("mastered");
-            } else if (!record.getReviewStatus().equals("reviewing")) {
-                record.setReviewStatus("reviewing");
-            }
-        } else {
-            // User got it wrong
-            record.setWrongCount((record.getWrongCount() != null ? record.getWrongCount() : 0) + 1);
-            record.setLastWrongTime(LocalDateTime.now());
-            record.setReviewStatus("reviewing");
-        }
+        // Convert to DTO and return
+        return convertToDto(record);
+    }
 
-        // Calculate next review time using spaced repetition algorithm
-        calculateNextReviewTime(record);
+    @Override
+    @Transactional
+    public int recordWrongAnswers(Long userId, List<RecordWrongAnswerRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
 
-        // Set priority
-        updateReviewPriority(record);
+        // Coalesce answers to the same question into one row with summed counters, in question
+        // order so concurrent batches of a user lock the rows in the same order
+        Map<Long, WrongAnswerRecord> answers = new TreeMap<>();
+        Map<Long, Boolean> lastCorrect = new HashMap<>();
+        Map<Long, Integer> wrongAttempts = new HashMap<>();
+        for (RecordWrongAnswerRequest request : requests) {
+            Long questionId = request.getQuestionId();
+            boolean correct = isCorrect(request);
+            WrongAnswerRecord answer = answers.get(questionId);
+            if (answer == null) {
+                answers.put(questionId, newAnswer(userId, request, now));
+            } else if (correct) {
+                answer.setCorrectCount(answer.getCorrectCount() + 1);
+                answer.setLastCorrectTime(now);
+            } else {
+                answer.setWrongCount(answer.getWrongCount() + 1);
+                answer.setLastWrongTime(now);
+            }
+            lastCorrect.put(questionId, correct);
+            wrongAttempts.merge(questionId, correct ? 0 : 1, Integer::sum);
+        }
 
-        // Update timestamps
-        record.setUpdatedAt(LocalDateTime.now());
+        // Rows inserted by the upsert carry no status until the state write below, so the
+        // read-back tells new rows apart and holds the status before this batch for the others
+        List<Long> questionIds = new ArrayList<>(answers.keySet());
+        wrongAnswerMapper.upsertAnswers(new ArrayList<>(answers.values()));
+        List<WrongAnswerRecord> records = wrongAnswerMapper.selectByUserAndQuestionIds(userId, questionIds);
 
-        // Save to database
-        if (existing == null) {
-            wrongAnswerMapper.insert(record);
-        } else {
-            wrongAnswerMapper.updateById(record);
+        WrongAnswerStatsStore.Delta delta = new WrongAnswerStatsStore.Delta();
+        Map<Long, Map<String, Object>> changes = new LinkedHashMap<>();
+        for (WrongAnswerRecord record : records) {
+            Long questionId = record.getQuestionId();
+            String prevStatus = record.getReviewStatus();
+            boolean created = prevStatus == null;
+            applyAnswer(record, lastCorrect.get(questionId), now);
+            addToDelta(delta, record, prevStatus, created, wrongAttempts.get(questionId));
+            changes.put(record.getId(), answerFields(record, created));
         }
-
-        // Convert to DTO and return
-        return convertToDto(record);
+        List<Object[]> states = new ArrayList<>(records.size());
+        for (WrongAnswerRecord record : records) {
+            states.add(answerState(record));
+        }
+        jdbcTemplate.batchUpdate(ANSWER_STATE_SQL, states);
+        statsStore.apply(userId, delta);
+        reviewQueue.evictAfterCommit(userId);
+        outbox.upsertAll(userId, changes);
+        return records.size();
     }
 
     @Override
+    @Transactional
     public WrongAnswerDto markAsMastered(Long userId, Long recordId) {
-        WrongAnswerRecord record = wrongAnswerMapper.selectById(recordId);
+        WrongAnswerRecord record = wrongAnswerMapper.selectByIdForUpdate(recordId);
         if (record == null || !record.getUserId().equals(userId)) {
             throw new IllegalArgumentException("Record not found or unauthorized");
         }
 
+        String prevStatus = record.getReviewStatus();
         record.setReviewStatus("mastered");
         record.setUpdatedAt(LocalDateTime.now());
-        wrongAnswerMapper.updateById(record);
+        wrongAnswerMapper.updateStatus(recordId, userId, record.getReviewStatus(), record.getUpdatedAt());
+        statsStore.apply(userId, new WrongAnswerStatsStore.Delta().statusChanged(prevStatus, record.getReviewStatus()));
+        reviewQueue.upsertAfterCommit(record);
+        outbox.upsert(userId, recordId, statusFields(record.getReviewStatus(), record.getUpdatedAt()));
 
         return convertToDto(record);
     }
 
     @Override
+    @Transactional
     public WrongAnswerDto markAsReviewing(Long userId, Long recordId) {
-        WrongAnswerRecord record = wrongAnswerMapper.selectById(recordId);
+        WrongAnswerRecord record = wrongAnswerMapper.selectByIdForUpdate(recordId);
         if (record == null || !record.getUserId().equals(userId)) {
             throw new IllegalArgumentException("Record not found or unauthorized");
         }
 
+        String prevStatus = record.getReviewStatus();
         record.setReviewStatus("reviewing");
         record.setUpdatedAt(LocalDateTime.now());
-        wrongAnswerMapper.updateById(record);
+        wrongAnswerMapper.updateStatus(recordId, userId, record.getReviewStatus(), record.getUpdatedAt());
+        statsStore.apply(userId, new WrongAnswerStatsStore.Delta().statusChanged(prevStatus, record.getReviewStatus()));
+        reviewQueue.upsertAfterCommit(record);
+        outbox.upsert(userId, recordId, statusFields(record.getReviewStatus(), record.getUpdatedAt()));
 
         return convertToDto(record);
     }
@@ -142,6 +223,68 @@ public class WrongAnswerServiceImpl implements WrongAnswerService {
             .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPageResponse<WrongAnswerDto> getWrongAnswersPage(Long userId, String status, String source, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        PageCursor after = PageCursor.decode(cursor);
+
+        // Fetch one extra row to know whether another page exists
+        List<WrongAnswerRecord> rows = wrongAnswerMapper.selectPageAfter(userId, status, source,
+            after != null, after != null ? after.lastWrongTime() : null, after != null ? after.id() : null, pageSize + 1);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            WrongAnswerRecord last = rows.get(pageSize - 1);
+            nextCursor = new PageCursor(last.getLastWrongTime(), last.getId()).encode();
+        }
+
+        List<WrongAnswerDto> items = rows.stream().map(this::convertToDto).collect(Collectors.toList());
+        return new CursorPageResponse<>(items, nextCursor, pageSize);
+    }
+
+    @Override
+    public CursorPageResponse<WrongAnswerSummaryDto> getWrongAnswerSummaryPage(Long userId, String status, String source, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        PageCursor after = PageCursor.decode(cursor);
+
+        List<WrongAnswerSummaryDto> rows = wrongAnswerMapper.selectSummaryPageAfter(userId, status, source,
+            after != null, after != null ? after.lastWrongTime() : null, after != null ? after.id() : null, pageSize + 1);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            WrongAnswerSummaryDto last = rows.get(pageSize - 1);
+            nextCursor = new PageCursor(last.getLastWrongTime(), last.getId()).encode();
+        }
+        return new CursorPageResponse<>(rows, nextCursor, pageSize);
+    }
+
+    @Override
+    public List<WrongAnswerSummaryDto> getWrongAnswerSummaries(Long userId, String status, String source) {
+        return wrongAnswerMapper.selectSummaryList(userId, status, source);
+    }
+
+    @Override
+    public List<WrongAnswerSummaryDto> getDueForReviewSummaries(Long userId) {
+        return wrongAnswerMapper.selectSummaryDueForReview(userId, LocalDateTime.now());
+    }
+
+    @Override
+    public List<WrongAnswerSummaryDto> getDueForReviewSummaries(Long userId, int limit) {
+        List<Long> ids = reviewQueue.nextDue(userId, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)), LocalDateTime.now());
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, WrongAnswerSummaryDto> byId = new java.util.HashMap<>();
+        wrongAnswerMapper.selectSummaryByUserAndIds(userId, ids).forEach(r -> byId.put(r.getId(), r));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportWrongAnswers(Long userId, List<Long> recordIds, Consumer<WrongAnswerDto> sink) {
+        wrongAnswerMapper.streamForExport(userId, distinctIds(recordIds), ctx -> sink.accept(convertToDto(ctx.getResultObject())));
+    }
+
     @Override
     public List<WrongAnswerDto> getWrongAnswersByStatus(Long userId, String status) {
         return wrongAnswerMapper.selectByUserIdAndStatus(userId, status)
@@ -167,77 +310,61 @@ public class WrongAnswerServiceImpl implements WrongAnswerService {
     }
 
     @Override
-    public WrongAnswerStatisticsDto getStatistics(Long userId) {
-        WrongAnswerStatisticsDto stats = new WrongAnswerStatisticsDto(userId);
-
-        // Total counts
-        stats.setTotalWrongCount(wrongAnswerMapper.countByUserId(userId));
-
-        // By status
-        stats.setMasteredCount(wrongAnswerMapper.countByUserIdAndStatus(userId, "mastered"));
-        stats.setReviewingCount(wrongAnswerMapper.countByUserIdAndStatus(userId, "reviewing"));
-        stats.setUnreviewedCount(wrongAnswerMapper.countByUserIdAndStatus(userId, "unreviewed"));
-
-        // Calculate mastered percentage
-        int total = stats.getTotalWrongCount();
-        if (total > 0) {
-            stats.setMasteredPercentage((double) stats.getMasteredCount() / total * 100);
-        } else {
-            stats.setMasteredPercentage(0.0);
+    public List<WrongAnswerDto> getDueForReview(Long userId, int limit) {
+        List<Long> ids = reviewQueue.nextDue(userId, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)), LocalDateTime.now());
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
         }
+        Map<Long, WrongAnswerRecord> byId = new java.util.HashMap<>();
+        wrongAnswerMapper.selectByUserAndIds(userId, ids).forEach(r -> byId.put(r.getId(), r));
+        return ids.stream()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .map(this::convertToDto)
+            .collect(Collectors.toList());
+    }
 
-        // By source
-        Map<String, Integer> countBySource = new HashMap<>();
-        countBySource.put("ai_interview", wrongAnswerMapper.countByUserIdAndSource(userId, "ai_interview"));
-        countBySource.put("question_bank", wrongAnswerMapper.countByUserIdAndSource(userId, "question_bank"));
-        countBySource.put("mock_exam", wrongAnswerMapper.countByUserIdAndSource(userId, "mock_exam"));
-        stats.setCountBySource(countBySource);
-
-        // By difficulty
-        Map<String, Integer> countByDifficulty = new HashMap<>();
-        countByDifficulty.put("easy", wrongAnswerMapper.countByUserIdAndDifficulty(userId, "easy"));
-        countByDifficulty.put("medium", wrongAnswerMapper.countByUserIdAndDifficulty(userId, "medium"));
-        countByDifficulty.put("hard", wrongAnswerMapper.countByUserIdAndDifficulty(userId, "hard"));
-        stats.setCountByDifficulty(countByDifficulty);
-
-        // Today's counts
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime startOfDay = now.withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime endOfDay = now.withHour(23).withMinute(59).withSecond(59);
-        stats.setTodayWrongCount(wrongAnswerMapper.countTodayByUserId(userId, startOfDay, endOfDay));
+    @Override
+    public WrongAnswerStatisticsDto getStatistics(Long userId) {
+        // O(1): served from the materialized counters, never from wrong_answer_records
+        return statsStore.getStatistics(userId);
+    }
 
-        return stats;
+    @Override
+    public WrongAnswerSyncDelta getChangesSince(Long userId, Long sinceSeq) {
+        return syncLog.changesSince(userId, sinceSeq);
     }
 
     @Override
+    @Transactional
     public WrongAnswerDto updateUserNotes(Long userId, Long recordId, String notes) {
-        WrongAnswerRecord record = wrongAnswerMapper.selectById(recordId);
-        if (record == null || !record.getUserId().equals(userId)) {
+        LocalDateTime now = LocalDateTime.now();
+        if (wrongAnswerMapper.updateNotes(recordId, userId, notes, now) == 0) {
             throw new IllegalArgumentException("Record not found or unauthorized");
         }
-
-        record.setUserNotes(notes);
-        record.setUpdatedAt(LocalDateTime.now());
-        wrongAnswerMapper.updateById(record);
-
-        return convertToDto(record);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("userNotes", notes);
+        fields.put("updatedAt", now);
+        outbox.upsert(userId, recordId, fields);
+        return convertToDto(writtenFields(userId, recordId, now, record -> record.setUserNotes(notes)));
     }
 
     @Override
+    @Transactional
     public WrongAnswerDto updateUserTags(Long userId, Long recordId, List<String> tags) {
-        WrongAnswerRecord record = wrongAnswerMapper.selectById(recordId);
-        if (record == null || !record.getUserId().equals(userId)) {
+        LocalDateTime now = LocalDateTime.now();
+        if (wrongAnswerMapper.updateTags(recordId, userId, tags, now) == 0) {
             throw new IllegalArgumentException("Record not found or unauthorized");
         }
-
-        record.setUserTags(tags);
-        record.setUpdatedAt(LocalDateTime.now());
-        wrongAnswerMapper.updateById(record);
-
-        return convertToDto(record);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("userTags", tags);
+        fields.put("updatedAt", now);
+        outbox.upsert(userId, recordId, fields);
+        return convertToDto(writtenFields(userId, recordId, now, record -> record.setUserTags(tags)));
     }
 
     @Override
+    @Transactional
     public void deleteWrongAnswer(Long userId, Long recordId) {
         WrongAnswerRecord record = wrongAnswerMapper.selectById(recordId);
         if (record == null || !record.getUserId().equals(userId)) {
@@ -245,24 +372,60 @@ public class WrongAnswerServiceImpl implements WrongAnswerService {
         }
 
         wrongAnswerMapper.deleteById(recordId);
+        statsStore.apply(userId, new WrongAnswerStatsStore.Delta().recordRemoved(record));
+        reviewQueue.removeAfterCommit(userId, recordId);
+        outbox.deleted(userId, List.of(recordId));
     }
 
     @Override
-    public void generateReviewPlan(Long userId) {
-        // Get all non-mastered wrong answers
-        List<WrongAnswerRecord> records = wrongAnswerMapper.selectByUserIdAndStatus(userId, "reviewing");
-        records.addAll(wrongAnswerMapper.selectByUserIdAndStatus(userId, "unreviewed"));
+    @Transactional
+    public int applyCommands(Long userId, List<WrongAnswerCommand> commands) {
+        for (int i = 0; i < commands.size(); i++) {
+            WrongAnswerCommand command = commands.get(i);
+            try {
+                apply(userId, command);
+            } catch (IllegalArgumentException e) {
+                // Not found, not owned or unsupported; infrastructure failures propagate as they are
+                throw new IllegalArgumentException(
+                    "Command " + i + " (" + command.getClass().getSimpleName() + ") failed: " + e.getMessage(), e);
+            }
+        }
+        return commands.size();
+    }
 
-        // Update next review times
-        for (WrongAnswerRecord record : records) {
-            calculateNextReviewTime(record);
-            wrongAnswerMapper.updateById(record);
+    private void apply(Long userId, WrongAnswerCommand command) {
+        if (command instanceof WrongAnswerCommand.RecordAnswer record) {
+            recordWrongAnswer(userId, record.toRequest());
+        } else if (command instanceof WrongAnswerCommand.UpdateStatus update) {
+            if ("mastered".equals(update.status())) {
+                markAsMastered(userId, update.recordId());
+            } else {
+                markAsReviewing(userId, update.recordId());
+            }
+        } else if (command instanceof WrongAnswerCommand.UpdateNotes update) {
+            updateUserNotes(userId, update.recordId(), update.notes());
+        } else if (command instanceof WrongAnswerCommand.UpdateTags update) {
+            updateUserTags(userId, update.recordId(), update.tags());
+        } else if (command instanceof WrongAnswerCommand.DeleteRecord delete) {
+            deleteWrongAnswer(userId, delete.recordId());
+        } else {
+            throw new IllegalArgumentException("Unsupported command: " + command);
         }
     }
 
     @Override
+    @Transactional
+    public void generateReviewPlan(Long userId) {
+        // Scheduling-only batch update of every non-mastered record
+        reviewRescheduler.rescheduleUser(userId, LocalDateTime.now());
+        outbox.resync(userId);
+    }
+
+    @Override
+    @Transactional
     public WrongAnswerDto reviewOnce(Long userId, Long recordId, String result, Integer timeSpentSec, String notes) {
-        WrongAnswerRecord record = wrongAnswerMapper.selectById(recordId);
+        // Locked, since updateScheduling writes counts and SM-2/FSRS state derived from this read
+        WrongAnswerRecord record = wrongAnswerMapper.selectByIdForUpdate(recordId);
         if (record == null || !record.getUserId().equals(userId)) {
             throw new IllegalArgumentException("Record not found or unauthorized");
         }
@@ -271,6 +434,7 @@ public class WrongAnswerServiceImpl implements WrongAnswerService {
         LocalDateTime now = LocalDateTime.now();
 
         boolean pass = result != null && ("pass".equalsIgnoreCase(result) || "mastered".equalsIgnoreCase(result));
+        double elapsedDays = daysSinceLastAnswer(record, now);
 
         if (pass) {
             record.setCorrectCount((record.getCorrectCount() != null ? record.getCorrectCount() : 0) + 1);
@@ -287,19 +451,19 @@ public class WrongAnswerServiceImpl implements WrongAnswerService {
         }
 
         int quality = mapResultToQuality(result);
-        String strategy = schedulerConfig.getStrategy();
-        if ("ebbinghaus".equals(strategy)) {
-            calculateNextReviewTime(record);
-        } else if ("fsrs".equals(strategy)) {
-            applySm2Scheduling(record, quality);
-            // lightweight FSRS-style adjustment based on item difficulty & history
-            adjustIntervalFsrs(record);
-        } else {
-            applySm2Scheduling(record, quality);
-        }
+        ReviewScheduler scheduler = reviewSchedulers.active();
+        ReviewState state = new ReviewState().readFrom(record, elapsedDays);
+        scheduler.review(state, quality);
+        state.writeTo(record);
+        record.setNextReviewTime(state.intervalDays > 0 ? now.plusDays(state.intervalDays) : null);
         updateReviewPriority(record);
         record.setUpdatedAt(now);
-        wrongAnswerMapper.updateById(record);
+        wrongAnswerMapper.updateScheduling(record);
+        outbox.upsert(userId, recordId, answerFields(record, false));
+        statsStore.apply(userId, new WrongAnswerStatsStore.Delta()
+            .statusChanged(prevStatus, record.getReviewStatus())
+            .wrongAttempts(pass ? 0 : 1));
+        reviewQueue.upsertAfterCommit(record);
 
         // Write review log
         WrongAnswerReviewLog log = new WrongAnswerReviewLog();
@@ -345,110 +509,182 @@ public class WrongAnswerServiceImpl implements WrongAnswerService {
 
     // Helper methods
 
+    private static boolean isCorrect(RecordWrongAnswerRequest request) {
+        return request.getIsCorrect() != null && request.getIsCorrect();
+    }
+
     /**
-     * Calculate next review time using Ebbinghaus spaced repetition algorithm
-     * Intervals: 1 day, 3 days, 7 days, 14 days, 30 days...
+     * Row written by the answer upsert: the full record when it is new, otherwise only its
+     * counters and answer times are added to the existing row
      */
-    private void calculateNextReviewTime(WrongAnswerRecord record) {
-        if (record.getReviewStatus().equals("mastered")) {
-            record.setNextReviewTime(null);
-            return;
+    private WrongAnswerRecord newAnswer(Long userId, RecordWrongAnswerRequest request, LocalDateTime now) {
+        WrongAnswerRecord answer = new WrongAnswerRecord(userId, request.getQuestionId(), request.getSource());
+        answer.setSourceInstanceId(request.getSourceInstanceId());
+        answer.setQuestionTitle(request.getQuestionTitle());
+        answer.setQuestionContent(request.getQuestionContent());
+        answer.setDifficulty(request.getDifficulty());
+        answer.setKnowledgePoints(request.getKnowledgePoints());
+        answer.setUserTags(request.getUserTags());
+        answer.setPriorityScore(0);
+        // Initialize SM-2 scheduling defaults
+        answer.setRepetitions(0);
+        answer.setEaseFactor(2.5);
+        answer.setIntervalDays(0);
+        if (isCorrect(request)) {
+            answer.setCorrectCount(1);
+            answer.setLastCorrectTime(now);
+        } else {
+            answer.setWrongCount(1);
+            answer.setLastWrongTime(now);
         }
-
-        LocalDateTime now = LocalDateTime.now();
-        int daysToAdd = getIntervalDays(record.getWrongCount());
-        record.setNextReviewTime(now.plusDays(daysToAdd));
+        answer.setCreatedAt(now);
+        answer.setUpdatedAt(now);
+        return answer;
     }
 
     /**
-     * Map textual result to SM-2 quality score (0-5)
+     * Record carrying only what a narrow update wrote, so the response needs no read-back
      */
-    private int mapResultToQuality(String result) {
-        if (result == null) return 2;
-        String r = result.toLowerCase();
-        if ("pass".equals(r) || "mastered".equals(r)) return 5;
-        if ("doubt".equals(r) || "partial".equals(r)) return 3;
-        return 1; // fail
+    private static WrongAnswerRecord writtenFields(Long userId, Long recordId, LocalDateTime updatedAt,
+                                                   Consumer<WrongAnswerRecord> written) {
+        WrongAnswerRecord record = new WrongAnswerRecord();
+        record.setId(recordId);
+        record.setUserId(userId);
+        record.setUpdatedAt(updatedAt);
+        written.accept(record);
+        return record;
     }
 
     /**
-     * Apply simplified SM-2 scheduling to update nextReviewTime and related fields
+     * A new record counts as added; an existing one moves between status buckets and adds its wrong attempts
      */
-    private void applySm2Scheduling(WrongAnswerRecord record, int quality) {
-        LocalDateTime now = LocalDateTime.now();
-
-        Integer reps = record.getRepetitions() != null ? record.getRepetitions() : 0;
-        Double ef = record.getEaseFactor() != null ? record.getEaseFactor() : 2.5;
-        Integer interval = record.getIntervalDays() != null ? record.getIntervalDays() : 0;
+    private static void addToDelta(WrongAnswerStatsStore.Delta delta, WrongAnswerRecord record, String prevStatus,
+                                   boolean created, int wrongAttempts) {
+        if (created) {
+            delta.recordAdded(record);
+        } else {
+            delta.statusChanged(prevStatus, record.getReviewStatus()).wrongAttempts(wrongAttempts);
+        }
+    }
 
-        if (quality < 3) {
-            reps = 0;
-            interval = 1;
+    /**
+     * Derive status, schedule and priority of a record from its counts after an answer
+     */
+    private void applyAnswer(WrongAnswerRecord record, boolean correct, LocalDateTime now) {
+        // Mastered after 3 correct answers, otherwise (back) under review
+        if (correct && record.getCorrectCount() >= 3) {
+            record.setReviewStatus("mastered");
         } else {
-            if (reps == 0) {
-                interval = 1;
-            } else if (reps == 1) {
-                interval = 6;
-            } else {
-                interval = (int) Math.round(interval * ef);
-                if (interval < 1) interval = 1;
-            }
-            reps = reps + 1;
+            record.setReviewStatus("reviewing");
         }
 
-        // Update ease factor
-        ef = ef + (0.1 - (5 - quality) * (0.08 + (5 - quality) * 0.02));
-        if (ef < 1.3) ef = 1.3;
+        // Calculate next review time using spaced repetition algorithm
+        calculateNextReviewTime(record);
+
+        // Set priority
+        updateReviewPriority(record);
+        record.setUpdatedAt(now);
+    }
 
-        record.setRepetitions(reps);
-        record.setEaseFactor(ef);
-        record.setIntervalDays(interval);
-        record.setLastQuality(quality);
-        record.setNextReviewTime(now.plusDays(interval));
+    /**
+     * Arguments of ANSWER_STATE_SQL for a record whose state was derived after an answer
+     */
+    private static Object[] answerState(WrongAnswerRecord record) {
+        return new Object[]{
+            record.getReviewStatus(),
+            record.getNextReviewTime() != null ? Timestamp.valueOf(record.getNextReviewTime()) : null,
+            record.getReviewPriority(),
+            record.getPriorityScore(),
+            Timestamp.valueOf(record.getUpdatedAt()),
+            record.getId(),
+            record.getUserId()
+        };
     }
 
     /**
-     * Lightweight FSRS-style interval adjustment as a prototype
-     * Increases/decreases interval using heuristic weight from difficulty and repetitions.
+     * Change-feed fields after an answer or review; a new record also carries its list metadata
      */
-    private void adjustIntervalFsrs(WrongAnswerRecord record) {
-        int interval = record.getIntervalDays() != null ? record.getIntervalDays() : 1;
-        String difficulty = record.getDifficulty();
-        int reps = record.getRepetitions() != null ? record.getRepetitions() : 0;
+    private static Map<String, Object> answerFields(WrongAnswerRecord record, boolean created) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (created) {
+            fields.put("questionId", record.getQuestionId());
+            fields.put("questionTitle", record.getQuestionTitle());
+            fields.put("source", record.getSource());
+            fields.put("difficulty", record.getDifficulty());
+            fields.put("createdAt", record.getCreatedAt());
+        }
+        fields.put("reviewStatus", record.getReviewStatus());
+        fields.put("wrongCount", record.getWrongCount());
+        fields.put("correctCount", record.getCorrectCount());
+        fields.put("lastWrongTime", record.getLastWrongTime());
+        fields.put("lastCorrectTime", record.getLastCorrectTime());
+        fields.put("nextReviewTime", record.getNextReviewTime());
+        fields.put("reviewPriority", record.getReviewPriority());
+        fields.put("updatedAt", record.getUpdatedAt());
+        return fields;
+    }
 
-        double diffWeight = 1.0;
-        if ("hard".equalsIgnoreCase(difficulty)) diffWeight = 0.85;
-        else if ("easy".equalsIgnoreCase(difficulty)) diffWeight = 1.1;
+    private static Map<String, Object> statusFields(String reviewStatus, LocalDateTime updatedAt) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("reviewStatus", reviewStatus);
+        fields.put("updatedAt", updatedAt);
+        return fields;
+    }
 
-        double repsWeight = 1.0 + Math.min(0.25, Math.log(1 + Math.max(0, reps)) / 10.0);
+    /**
+     * Calculate next review time using Ebbinghaus spaced repetition algorithm
+     * Intervals: 1 day, 3 days, 7 days, 14 days, 30 days...
+     */
+    private void calculateNextReviewTime(WrongAnswerRecord record) {
+        if (record.getReviewStatus().equals("mastered")) {
+            record.setNextReviewTime(null);
+            return;
+        }
 
-        double alpha = schedulerConfig.getFsrsAlpha();
+        LocalDateTime now = LocalDateTime.now();
+        int daysToAdd = EbbinghausScheduler.intervalDaysFor(record.getWrongCount() != null ? record.getWrongCount() : 0);
+        record.setNextReviewTime(now.plusDays(daysToAdd));
+    }
 
-        int adjusted = (int)Math.round(interval * diffWeight * repsWeight * alpha);
-        if (adjusted < 1) adjusted = 1;
-        record.setIntervalDays(adjusted);
-        record.setNextReviewTime(java.time.LocalDateTime.now().plusDays(adjusted));
+    /**
+     * Map textual result to SM-2 quality score (0-5)
+     */
+    private int mapResultToQuality(String result) {
+        if (result == null) return 2;
+        String r = result.toLowerCase();
+        if ("pass".equals(r) || "mastered".equals(r)) return 5;
+        if ("doubt".equals(r) || "partial".equals(r)) return 3;
+        return 1; // fail
     }
 
     /**
-     * Determine review interval based on number of wrong answers
+     * Days between the previous answer (or creation) and now, used by FSRS retrievability
      */
-    private int getIntervalDays(Integer wrongCount) {
-        if (wrongCount == null || wrongCount == 0) return 1;
-        if (wrongCount == 1) return 1;
-        if (wrongCount == 2) return 3;
-        if (wrongCount == 3) return 7;
-        if (wrongCount == 4) return 14;
-        return 30; // After 5+ wrong, review in 30 days
+    private double daysSinceLastAnswer(WrongAnswerRecord record, LocalDateTime now) {
+        LocalDateTime last = record.getLastWrongTime();
+        LocalDateTime correct = record.getLastCorrectTime();
+        if (correct != null && (last == null || correct.isAfter(last))) {
+            last = correct;
+        }
+        if (last == null) {
+            last = record.getCreatedAt();
+        }
+        return last != null ? Math.max(0, Duration.between(last, now).toSeconds() / 86400.0) : 0;
     }
 
     /**
-     * Update review priority based on wrong count and difficulty
+     * Update review priority based on wrong count and difficulty.
+     * priorityScore is the time-independent part of SpacedRepetitionServiceImpl.calculatePriority;
+     * ReviewQueueStore adds the overdue term when ranking due items.
      */
     private void updateReviewPriority(WrongAnswerRecord record) {
         int wrongCount = record.getWrongCount() != null ? record.getWrongCount() : 0;
+        int correctCount = record.getCorrectCount() != null ? record.getCorrectCount() : 0;
         String difficulty = record.getDifficulty();
 
+        int difficultyScore = "easy".equals(difficulty) ? 2 : "hard".equals(difficulty) ? 10 : 5;
+        record.setPriorityScore(Math.max(0, wrongCount * 50 + difficultyScore * 30 - correctCount * 10));
+
         if (wrongCount >= 3 || "hard".equals(difficulty)) {
             record.setReviewPriority("high");
         } else if (wrongCount >= 2) {
@@ -468,79 +704,187 @@ public class WrongAnswerServiceImpl implements WrongAnswerService {
     }
 
     @Override
-    public int batchUpdateStatus(Long userId, List<Long> recordIds, String status) {
-        int count = 0;
-        for (Long recordId : recordIds) {
-            try {
-                if ("mastered".equals(status)) {
-                    markAsMastered(userId, recordId);
-                } else if ("reviewing".equals(status)) {
-                    markAsReviewing(userId, recordId);
-                }
-                count++;
-            } catch (Exception e) {
-                // Continue with next record on error
-                continue;
-            }
+    @Transactional
+    public BatchOperationResult batchUpdateStatus(Long userId, List<Long> recordIds, String status) {
+        String targetStatus = normalizeStatus(status);
+        List<Long> ids = distinctIds(recordIds);
+        Map<Long, WrongAnswerRecord> owned = loadOwned(userId, ids);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (List<Long> chunk : chunks(new ArrayList<>(owned.keySet()))) {
+            wrongAnswerMapper.updateStatusByIds(userId, chunk, targetStatus, now);
         }
-        return count;
+
+        WrongAnswerStatsStore.Delta delta = new WrongAnswerStatsStore.Delta();
+        owned.values().forEach(r -> delta.statusChanged(r.getReviewStatus(), targetStatus));
+        statsStore.apply(userId, delta);
+        reviewQueue.evictAfterCommit(userId);
+        Map<Long, Map<String, Object>> changes = new LinkedHashMap<>();
+        owned.keySet().forEach(id -> changes.put(id, statusFields(targetStatus, now)));
+        outbox.upsertAll(userId, changes);
+
+        return batchResult("status_update", recordIds, owned);
     }
 
     @Override
-    public int batchAddTags(Long userId, List<Long> recordIds, List<String> tags) {
-        int count = 0;
-        for (Long recordId : recordIds) {
-            try {
-                WrongAnswerDto current = getWrongAnswer(userId, recordId);
-                if (current != null) {
-                    List<String> currentTags = current.getUserTags() != null ?
-                        new java.util.ArrayList<>(current.getUserTags()) : new java.util.ArrayList<>();
-                    for (String tag : tags) {
-                        if (!currentTags.contains(tag)) {
-                            currentTags.add(tag);
-                        }
-                    }
-                    updateUserTags(userId, recordId, currentTags);
-                    count++;
-                }
-            } catch (Exception e) {
-                continue;
+    @Transactional
+    public BatchOperationResult batchAddTags(Long userId, List<Long> recordIds, List<String> tags) {
+        List<Long> ids = distinctIds(recordIds);
+        Map<Long, WrongAnswerRecord> owned = loadOwned(userId, ids);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (List<Long> chunk : chunks(new ArrayList<>(owned.keySet()))) {
+            for (String tag : distinctTags(tags)) {
+                wrongAnswerMapper.appendTagByIds(userId, chunk, tag, now);
             }
         }
-        return count;
+
+        outbox.refresh(userId, owned.keySet());
+        return batchResult("add_tags", recordIds, owned);
     }
 
     @Override
-    public int batchRemoveTags(Long userId, List<Long> recordIds, List<String> tags) {
-        int count = 0;
-        for (Long recordId : recordIds) {
-            try {
-                WrongAnswerDto current = getWrongAnswer(userId, recordId);
-                if (current != null && current.getUserTags() != null) {
-                    List<String> currentTags = new java.util.ArrayList<>(current.getUserTags());
-                    currentTags.removeAll(tags);
-                    updateUserTags(userId, recordId, currentTags);
-                    count++;
-                }
-            } catch (Exception e) {
-                continue;
+    @Transactional
+    public BatchOperationResult batchRemoveTags(Long userId, List<Long> recordIds, List<String> tags) {
+        List<Long> ids = distinctIds(recordIds);
+        Map<Long, WrongAnswerRecord> owned = loadOwned(userId, ids);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (List<Long> chunk : chunks(new ArrayList<>(owned.keySet()))) {
+            for (String tag : distinctTags(tags)) {
+                removeTagFromChunk(userId, chunk, tag, now);
             }
         }
-        return count;
+
+        outbox.refresh(userId, owned.keySet());
+        return batchResult("remove_tags", recordIds, owned);
     }
 
     @Override
-    public int batchDelete(Long userId, List<Long> recordIds) {
-        int count = 0;
-        for (Long recordId : recordIds) {
+    @Transactional
+    public BatchOperationResult batchDelete(Long userId, List<Long> recordIds) {
+        List<Long> ids = distinctIds(recordIds);
+        Map<Long, WrongAnswerRecord> owned = loadOwned(userId, ids);
+
+        for (List<Long> chunk : chunks(new ArrayList<>(owned.keySet()))) {
+            wrongAnswerMapper.deleteByIds(userId, chunk);
+        }
+
+        WrongAnswerStatsStore.Delta delta = new WrongAnswerStatsStore.Delta();
+        owned.values().forEach(delta::recordRemoved);
+        statsStore.apply(userId, delta);
+        reviewQueue.evictAfterCommit(userId);
+        outbox.deleted(userId, owned.keySet());
+
+        return batchResult("delete", recordIds, owned);
+    }
+
+    /**
+     * Remove every occurrence of the tag from the chunk. JSON_REMOVE drops one occurrence per
+     * statement, so rows with legacy duplicated tags take several passes, at most MAX_TAG_REMOVE_PASSES.
+     */
+    private void removeTagFromChunk(Long userId, List<Long> chunk, String tag, LocalDateTime now) {
+        String pattern = tag.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        for (int pass = 0; pass < MAX_TAG_REMOVE_PASSES; pass++) {
+            if (wrongAnswerMapper.removeTagByIds(userId, chunk, tag, pattern, now) == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lock and load the owned rows among the ids. Ids are locked in ascending order so two
+     * overlapping batches cannot deadlock across chunks.
+     */
+    private Map<Long, WrongAnswerRecord> loadOwned(Long userId, List<Long> ids) {
+        Map<Long, WrongAnswerRecord> owned = new LinkedHashMap<>();
+        for (List<Long> chunk : chunks(ids.stream().sorted().collect(Collectors.toList()))) {
+            for (WrongAnswerRecord record : wrongAnswerMapper.selectBatchStateByIdsForUpdate(userId, chunk)) {
+                owned.put(record.getId(), record);
+            }
+        }
+        return owned;
+    }
+
+    /**
+     * Build a per-id result: owned ids succeeded, everything else is reported as a failure
+     */
+    private BatchOperationResult batchResult(String operation, List<Long> requestedIds, Map<Long, WrongAnswerRecord> owned) {
+        List<Long> succeeded = new ArrayList<>();
+        Map<Long, String> failures = new LinkedHashMap<>();
+        for (Long id : distinctIds(requestedIds)) {
+            if (owned.containsKey(id)) {
+                succeeded.add(id);
+            } else {
+                failures.put(id, "Record not found or unauthorized");
+            }
+        }
+        int total = requestedIds != null ? requestedIds.size() : 0;
+        return new BatchOperationResult(operation, succeeded, failures, total);
+    }
+
+    private List<Long> distinctIds(List<Long> ids) {
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        return ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+    }
+
+    private List<String> distinctTags(List<String> tags) {
+        if (tags == null) {
+            return new ArrayList<>();
+        }
+        return tags.stream().filter(t -> t != null && !t.isBlank()).distinct().collect(Collectors.toList());
+    }
+
+    private <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += BATCH_CHUNK_SIZE) {
+            chunks.add(items.subList(i, Math.min(items.size(), i + BATCH_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    /**
+     * Opaque page cursor: URL-safe base64 of "lastWrongTime|id" (empty time for NULL)
+     */
+    private record PageCursor(LocalDateTime lastWrongTime, Long id) {
+
+        String encode() {
+            String raw = (lastWrongTime != null ? lastWrongTime.toString() : "") + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static PageCursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
             try {
-                deleteWrongAnswer(userId, recordId);
-                count++;
-            } catch (Exception e) {
-                continue;
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", -1);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                LocalDateTime time = parts[0].isEmpty() ? null : LocalDateTime.parse(parts[0]);
+                return new PageCursor(time, Long.parseLong(parts[1]));
+            } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
             }
         }
-        return count;
+    }
+
+    /**
+     * Validate a batch status; the legacy "unreveiwed" spelling accepted by the API maps to "unreviewed"
+     */
+    private String normalizeStatus(String status) {
+        String value = status != null ? status.toLowerCase() : null;
+        if ("unreveiwed".equals(value)) {
+            value = "unreviewed";
+        }
+        if (!"mastered".equals(value) && !"reviewing".equals(value) && !"unreviewed".equals(value)) {
+            throw new IllegalArgumentException("Invalid status: " + status);
+        }
+        return value;
     }
 
     @Override
@@ -548,45 +892,30 @@ public class WrongAnswerServiceImpl implements WrongAnswerService {
         com.interview.controller.WrongAnswerController.AnalyticsData analytics =
             new com.interview.controller.WrongAnswerController.AnalyticsData();
 
-        List<WrongAnswerDto> allRecords = getWrongAnswers(userId);
-
-        // Filter records from last N days
-        java.time.LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
-        List<WrongAnswerDto> recentRecords = allRecords.stream()
-            .filter(r -> r.getUpdatedAt() != null && r.getUpdatedAt().isAfter(cutoffDate))
-            .collect(Collectors.toList());
-
-        // Calculate metrics
-        int total = allRecords.size();
-        int mastered = (int) allRecords.stream()
-            .filter(r -> "mastered".equals(r.getReviewStatus())).count();
-        int reviewing = (int) allRecords.stream()
-            .filter(r -> "reviewing".equals(r.getReviewStatus())).count();
-        int unreviewed = total - mastered - reviewing;
+        // Totals and distributions come from the materialized counters
+        WrongAnswerStatsStore.Snapshot snapshot = statsStore.snapshot(userId);
+        int total = snapshot.get(WrongAnswerStatsStore.DIM_TOTAL, WrongAnswerStatsStore.ALL);
+        int mastered = snapshot.get(WrongAnswerStatsStore.DIM_STATUS, "mastered");
+        int reviewing = snapshot.get(WrongAnswerStatsStore.DIM_STATUS, "reviewing");
 
         analytics.setTotalWrongAnswers(total);
         analytics.setMasteredCount(mastered);
         analytics.setReviewingCount(reviewing);
-        analytics.setUnreviewedCount(unreviewed);
+        analytics.setUnreviewedCount(total - mastered - reviewing);
         analytics.setMasteryRate(total > 0 ? (double) mastered / total * 100 : 0);
-        analytics.setWeeklyReviewCount((int) recentRecords.stream()
-            .filter(r -> r.getUpdatedAt().isAfter(LocalDateTime.now().minusDays(7))).count());
-
-        // Calculate source distribution
-        Map<String, Integer> sourceDistribution = new HashMap<>();
-        allRecords.forEach(r -> {
-            String source = r.getSource() != null ? r.getSource() : "unknown";
-            sourceDistribution.put(source, sourceDistribution.getOrDefault(source, 0) + 1);
-        });
-        analytics.setSourceDistribution(sourceDistribution);
-
-        // Calculate difficulty distribution
-        Map<String, Integer> difficultyDistribution = new HashMap<>();
-        allRecords.forEach(r -> {
-            String difficulty = r.getDifficulty() != null ? r.getDifficulty() : "unknown";
-            difficultyDistribution.put(difficulty, difficultyDistribution.getOrDefault(difficulty, 0) + 1);
-        });
-        analytics.setDifficultyDistribution(difficultyDistribution);
+        analytics.setSourceDistribution(snapshot.countBySource());
+        analytics.setDifficultyDistribution(snapshot.countByDifficulty());
+
+        // Review activity is aggregated from the review logs in one query
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = now.minusDays(Math.max(days, 0));
+        LocalDateTime weekStart = now.minusDays(7);
+        LocalDateTime windowStart = from.isBefore(weekStart) ? from : weekStart;
+        ReviewActivitySummary activity = reviewLogMapper.selectActivitySummary(userId, from, weekStart, windowStart);
+        if (activity != null) {
+            analytics.setWeeklyReviewCount(activity.getWeeklyReviewCount() != null ? activity.getWeeklyReviewCount().intValue() : 0);
+            analytics.setAvgTimePerQuestion(activity.getAvgTimeSpentSec() != null ? activity.getAvgTimeSpentSec() : 0);
+        }
 
         return analytics;
     }
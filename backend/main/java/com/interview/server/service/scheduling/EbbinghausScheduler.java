@@ -0,0 +1,37 @@
+package com.interview.service.scheduling;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Fixed Ebbinghaus-style ladder keyed on how often the record was answered wrong
+ */
+@Component
+public class EbbinghausScheduler implements ReviewScheduler {
+
+    /**
+     * Determine review interval based on number of wrong answers
+     */
+    public static int intervalDaysFor(int wrongCount) {
+        if (wrongCount <= 1) return 1;
+        if (wrongCount == 2) return 3;
+        if (wrongCount == 3) return 7;
+        if (wrongCount == 4) return 14;
+        return 30; // After 5+ wrong, review in 30 days
+    }
+
+    @Override
+    public String name() {
+        return "ebbinghaus";
+    }
+
+    @Override
+    public void review(ReviewState state, int quality) {
+        state.lastQuality = quality;
+        state.intervalDays = state.mastered ? 0 : intervalDaysFor(state.wrongCount);
+    }
+
+    @Override
+    public int intervalDays(ReviewState state) {
+        return intervalDaysFor(state.wrongCount);
+    }
+}
@@ -0,0 +1,114 @@
+package com.interview.service.scheduling;
+
+import com.interview.config.WrongAnswersSchedulerConfig;
+import org.springframework.stereotype.Component;
+
+/**
+ * FSRS (Free Spaced Repetition Scheduler, v4.5 formulas with the published default weights).
+ *
+ * Memory is modelled by stability S (days until recall probability drops to 90%) and
+ * difficulty D (1..10). Retrievability after t days is R = (1 + F * t / S)^DECAY. A successful
+ * review grows S depending on D, S and R; a lapse shrinks it. The next interval is the time at
+ * which R reaches the requested retention, scaled by WrongAnswersSchedulerConfig.fsrsAlpha.
+ *
+ * SM-2 quality maps to FSRS grades: 0-2 Again, 3 Hard, 4-5 Good.
+ */
+@Component
+public class FsrsScheduler implements ReviewScheduler {
+
+    private static final double[] W = {
+        0.4872, 1.4003, 3.7145, 13.8206, 5.1618, 1.2298, 0.8975, 0.031,
+        1.6474, 0.1367, 1.0461, 2.1072, 0.0793, 0.3246, 1.587, 0.2272, 2.8755
+    };
+    private static final double DECAY = -0.5;
+    private static final double FACTOR = 19.0 / 81.0;
+    private static final double REQUEST_RETENTION = 0.9;
+    private static final int MAX_INTERVAL_DAYS = 36500;
+
+    private static final int AGAIN = 1;
+    private static final int HARD = 2;
+    private static final int GOOD = 3;
+    private static final int EASY = 4;
+
+    private final WrongAnswersSchedulerConfig config;
+
+    public FsrsScheduler(WrongAnswersSchedulerConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public String name() {
+        return "fsrs";
+    }
+
+    @Override
+    public void review(ReviewState state, int quality) {
+        int grade = toGrade(quality);
+
+        if (state.stability <= 0 || state.difficulty <= 0) {
+            state.stability = initialStability(grade);
+            state.difficulty = initialDifficulty(grade);
+        } else {
+            double r = retrievability(Math.max(0, state.elapsedDays), state.stability);
+            double d = state.difficulty;
+            state.stability = grade == AGAIN
+                ? forgetStability(d, state.stability, r)
+                : recallStability(d, state.stability, r, grade);
+            state.difficulty = nextDifficulty(d, grade);
+        }
+
+        state.repetitions = grade == AGAIN ? 0 : state.repetitions + 1;
+        state.lastQuality = quality;
+        state.intervalDays = intervalDays(state);
+    }
+
+    @Override
+    public int intervalDays(ReviewState state) {
+        if (state.stability <= 0) {
+            return Math.max(1, state.intervalDays);
+        }
+        double interval = state.stability / FACTOR * (Math.pow(REQUEST_RETENTION, 1 / DECAY) - 1);
+        long days = Math.round(interval * config.getFsrsAlpha());
+        return (int) Math.max(1, Math.min(MAX_INTERVAL_DAYS, days));
+    }
+
+    private static int toGrade(int quality) {
+        if (quality < 3) return AGAIN;
+        if (quality == 3) return HARD;
+        return GOOD;
+    }
+
+    private static double retrievability(double elapsedDays, double stability) {
+        return Math.pow(1 + FACTOR * elapsedDays / stability, DECAY);
+    }
+
+    private static double initialStability(int grade) {
+        return Math.max(0.1, W[grade - 1]);
+    }
+
+    private static double initialDifficulty(int grade) {
+        return clampDifficulty(W[4] - (grade - 3) * W[5]);
+    }
+
+    private static double nextDifficulty(double d, int grade) {
+        double next = d - W[6] * (grade - 3);
+        // Mean reversion towards the difficulty of a first "Good"
+        return clampDifficulty(W[7] * initialDifficulty(GOOD) + (1 - W[7]) * next);
+    }
+
+    private static double recallStability(double d, double s, double r, int grade) {
+        double hardPenalty = grade == HARD ? W[15] : 1;
+        double easyBonus = grade == EASY ? W[16] : 1;
+        return s * (1 + Math.exp(W[8]) * (11 - d) * Math.pow(s, -W[9])
+            * (Math.exp((1 - r) * W[10]) - 1) * hardPenalty * easyBonus);
+    }
+
+    private static double forgetStability(double d, double s, double r) {
+        double next = W[11] * Math.pow(d, -W[12]) * (Math.pow(s + 1, W[13]) - 1) * Math.exp((1 - r) * W[14]);
+        return Math.max(0.1, Math.min(next, s));
+    }
+
+    private static double clampDifficulty(double d) {
+        return Math.min(10, Math.max(1, d));
+    }
+}
@@ -0,0 +1,25 @@
+package com.interview.service.scheduling;
+
+/**
+ * Spaced-repetition strategy. Implementations are stateless singletons that work only on the
+ * primitives of a {@link ReviewState} and must not allocate, so they can be used both on the
+ * review endpoint and in bulk over every open record.
+ */
+public interface ReviewScheduler {
+
+    /**
+     * Strategy key as used by WrongAnswersSchedulerConfig: sm2 | ebbinghaus | fsrs
+     */
+    String name();
+
+    /**
+     * Apply one review graded with an SM-2 quality (0-5) and set state.intervalDays.
+     * An interval of 0 means the record needs no further review.
+     */
+    void review(ReviewState state, int quality);
+
+    /**
+     * Interval implied by the current state without a new review (used when rescheduling)
+     */
+    int intervalDays(ReviewState state);
+}
@@ -0,0 +1,37 @@
+package com.interview.service.scheduling;
+
+import com.interview.config.WrongAnswersSchedulerConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the available ReviewScheduler beans, keyed by name.
+ * active() follows WrongAnswersSchedulerConfig.strategy and falls back to SM-2.
+ */
+@Component
+public class ReviewSchedulers {
+
+    private static final String DEFAULT_STRATEGY = "sm2";
+
+    private final Map<String, ReviewScheduler> byName = new HashMap<>();
+    private final WrongAnswersSchedulerConfig config;
+
+    public ReviewSchedulers(List<ReviewScheduler> schedulers, WrongAnswersSchedulerConfig config) {
+        for (ReviewScheduler scheduler : schedulers) {
+            byName.put(scheduler.name(), scheduler);
+        }
+        this.config = config;
+    }
+
+    public ReviewScheduler active() {
+        ReviewScheduler scheduler = byName.get(config.getStrategy());
+        return scheduler != null ? scheduler : byName.get(DEFAULT_STRATEGY);
+    }
+
+    public ReviewScheduler get(String name) {
+        return byName.get(name);
+    }
+}
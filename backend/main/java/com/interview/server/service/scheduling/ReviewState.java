@@ -0,0 +1,72 @@
+package com.interview.service.scheduling;
+
+import com.interview.entity.WrongAnswerRecord;
+
+/**
+ * Mutable, primitive scheduling state of one record.
+ *
+ * Schedulers read and update it in place and never allocate, so a single instance can be
+ * reused across millions of rows in the bulk rescheduling path.
+ */
+public final class ReviewState {
+
+    // SM-2
+    public int repetitions;
+    public double easeFactor;
+    public int intervalDays;
+    public int lastQuality;
+
+    // History
+    public int wrongCount;
+    public boolean mastered;
+    public double elapsedDays; // days since the previous review
+
+    // FSRS memory state; 0 means the record has not been scheduled by FSRS yet
+    public double stability;
+    public double difficulty;
+
+    public ReviewState() {
+        reset();
+    }
+
+    public ReviewState reset() {
+        repetitions = 0;
+        easeFactor = 2.5;
+        intervalDays = 0;
+        lastQuality = -1;
+        wrongCount = 0;
+        mastered = false;
+        elapsedDays = 0;
+        stability = 0;
+        difficulty = 0;
+        return this;
+    }
+
+    /**
+     * Load the scheduling columns of a record into this state
+     */
+    public ReviewState readFrom(WrongAnswerRecord record, double elapsedDays) {
+        repetitions = record.getRepetitions() != null ? record.getRepetitions() : 0;
+        easeFactor = record.getEaseFactor() != null ? record.getEaseFactor() : 2.5;
+        intervalDays = record.getIntervalDays() != null ? record.getIntervalDays() : 0;
+        lastQuality = record.getLastQuality() != null ? record.getLastQuality() : -1;
+        wrongCount = record.getWrongCount() != null ? record.getWrongCount() : 0;
+        mastered = "mastered".equals(record.getReviewStatus());
+        this.elapsedDays = elapsedDays;
+        stability = record.getFsrsStability() != null ? record.getFsrsStability() : 0;
+        difficulty = record.getFsrsDifficulty() != null ? record.getFsrsDifficulty() : 0;
+        return this;
+    }
+
+    /**
+     * Copy the scheduling result back onto a record (next review time is set by the caller)
+     */
+    public void writeTo(WrongAnswerRecord record) {
+        record.setRepetitions(repetitions);
+        record.setEaseFactor(easeFactor);
+        record.setIntervalDays(intervalDays);
+        record.setLastQuality(lastQuality >= 0 ? lastQuality : null);
+        record.setFsrsStability(stability > 0 ? stability : null);
+        record.setFsrsDifficulty(difficulty > 0 ? difficulty : null);
+    }
+}
@@ -0,0 +1,51 @@
+package com.interview.service.scheduling;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Simplified SM-2: 1 day, 6 days, then interval x ease factor; a lapse restarts at 1 day
+ */
+@Component
+public class Sm2Scheduler implements ReviewScheduler {
+
+    @Override
+    public String name() {
+        return "sm2";
+    }
+
+    @Override
+    public void review(ReviewState state, int quality) {
+        int reps = state.repetitions;
+        int interval = state.intervalDays;
+        double ef = state.easeFactor;
+
+        if (quality < 3) {
+            reps = 0;
+            interval = 1;
+        } else {
+            if (reps == 0) {
+                interval = 1;
+            } else if (reps == 1) {
+                interval = 6;
+            } else {
+                interval = (int) Math.round(interval * ef);
+                if (interval < 1) interval = 1;
+            }
+            reps = reps + 1;
+        }
+
+        // Update ease factor
+        ef = ef + (0.1 - (5 - quality) * (0.08 + (5 - quality) * 0.02));
+        if (ef < 1.3) ef = 1.3;
+
+        state.repetitions = reps;
+        state.easeFactor = ef;
+        state.intervalDays = interval;
+        state.lastQuality = quality;
+    }
+
+    @Override
+    public int intervalDays(ReviewState state) {
+        return Math.max(1, state.intervalDays);
+    }
+}
@@ -0,0 +1,25 @@
+package com.interview.websocket;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends through the configured broker directly. With the simple broker this reaches sessions on
+ * this instance; with the STOMP relay the broker resolves sessions on every instance.
+ * UserSessionDelivery encodes the message in each session's wire format.
+ */
+@Component
+@ConditionalOnExpression("'${wrong-answers.websocket.broker:simple}' != 'redis'")
+public class LocalUserMessageSender implements UserMessageSender {
+
+    private final UserSessionDelivery sessionDelivery;
+
+    public LocalUserMessageSender(UserSessionDelivery sessionDelivery) {
+        this.sessionDelivery = sessionDelivery;
+    }
+
+    @Override
+    public void sendToUser(String userId, Object payload) {
+        sessionDelivery.toUser(userId, payload);
+    }
+}
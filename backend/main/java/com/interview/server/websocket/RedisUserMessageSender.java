@@ -0,0 +1,82 @@
+package com.interview.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * User messages over Redis pub/sub for wrong-answers.websocket.broker=redis.
+ *
+ * Every instance publishes user messages to one channel and subscribes to it; an instance
+ * delivers a message only when the user has a session in its local SimpUserRegistry, so each
+ * session receives it exactly once no matter which instance produced it. The envelope is always
+ * JSON; the delivering instance re-encodes the payload in each session's wire format. The
+ * subscription is the RedisMessageListenerContainer bean declared in WebSocketConfig.
+ */
+@Component
+@ConditionalOnProperty(name = "wrong-answers.websocket.broker", havingValue = "redis")
+public class RedisUserMessageSender implements UserMessageSender, MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisUserMessageSender.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final UserSessionDelivery sessionDelivery;
+    private final SimpUserRegistry userRegistry;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+
+    public RedisUserMessageSender(
+        StringRedisTemplate redisTemplate,
+        UserSessionDelivery sessionDelivery,
+        SimpUserRegistry userRegistry,
+        ObjectMapper objectMapper,
+        @Value("${wrong-answers.websocket.redis-channel:wrong-answers:user-messages}") String channel
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.sessionDelivery = sessionDelivery;
+        this.userRegistry = userRegistry;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    @Override
+    public void sendToUser(String userId, Object payload) {
+        try {
+            ObjectNode envelope = objectMapper.createObjectNode();
+            envelope.put("user", userId);
+            envelope.set("payload", objectMapper.valueToTree(payload));
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(envelope));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to publish user message for " + userId, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            JsonNode envelope = objectMapper.readTree(new String(message.getBody(), StandardCharsets.UTF_8));
+            String userId = envelope.path("user").asText(null);
+            if (userId == null || userRegistry.getUser(userId) == null) {
+                return; // no session of this user on this instance
+            }
+            sessionDelivery.toUser(userId, envelope.get("payload"));
+        } catch (Exception e) {
+            logger.warn("Dropping unreadable user message from {}: {}", channel, e.getMessage());
+        }
+    }
+}
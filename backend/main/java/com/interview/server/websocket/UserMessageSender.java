@@ -0,0 +1,12 @@
+package com.interview.websocket;
+
+/**
+ * Delivers a message to every WebSocket session of a user, wherever the session is connected.
+ * The implementation follows wrong-answers.websocket.broker.
+ */
+public interface UserMessageSender {
+
+    String DESTINATION = "/queue/wrong-answers";
+
+    void sendToUser(String userId, Object payload);
+}
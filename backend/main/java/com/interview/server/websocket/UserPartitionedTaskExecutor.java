@@ -0,0 +1,208 @@
+package com.interview.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+import java.security.Principal;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor for the client inbound channel that runs each user's messages in arrival order on
+ * one lane while different users proceed in parallel on other lanes.
+ *
+ * A message is assigned to a lane by the hash of its simpUser (falling back to the session id
+ * for frames sent before authentication). Every lane is a single worker with a bounded queue;
+ * when a lane is full the WebSocket transport thread waits for room, which slows down that
+ * connection without dropping frames or letting a message overtake the ones queued before it.
+ * With virtualThreads enabled on JDK 21 the lane workers are virtual threads, so many lanes can
+ * block on MyBatis without pinning a platform thread each.
+ *
+ * Extends ThreadPoolTaskExecutor only because that is the type ChannelRegistration accepts;
+ * the inherited pool is kept at one idle thread. The submit variants go through the lanes as
+ * well; a submitted task carries no message, so it runs on lane 0.
+ */
+public class UserPartitionedTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger logger = LoggerFactory.getLogger(UserPartitionedTaskExecutor.class);
+
+    private final int laneCount;
+    private final int laneCapacity;
+    private final boolean virtualThreads;
+    private final transient MeterRegistry meterRegistry;
+
+    private transient ThreadPoolExecutor[] lanes;
+    private transient Timer handlerTimer;
+    private transient Timer queueWaitTimer;
+    private transient Counter laneFullCounter;
+
+    public UserPartitionedTaskExecutor(int laneCount, int laneCapacity, boolean virtualThreads,
+                                       MeterRegistry meterRegistry) {
+        this.laneCount = Math.max(1, laneCount);
+        this.laneCapacity = Math.max(1, laneCapacity);
+        this.virtualThreads = virtualThreads;
+        this.meterRegistry = meterRegistry;
+        setCorePoolSize(1);
+        setMaxPoolSize(1);
+        setThreadNamePrefix("ws-inbound-");
+    }
+
+    @Override
+    public void initialize() {
+        super.initialize();
+        ThreadFactory threadFactory = threadFactory();
+        lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(laneCapacity), threadFactory, this::waitForRoom);
+        }
+
+        handlerTimer = Timer.builder("wrong_answers.ws.inbound.handler")
+            .description("Time spent handling one inbound STOMP message")
+            .register(meterRegistry);
+        queueWaitTimer = Timer.builder("wrong_answers.ws.inbound.queue_wait")
+            .description("Time an inbound STOMP message waited for its lane")
+            .register(meterRegistry);
+        laneFullCounter = Counter.builder("wrong_answers.ws.inbound.lane_full")
+            .description("Inbound messages whose sender waited because their lane was full")
+            .register(meterRegistry);
+        Gauge.builder("wrong_answers.ws.inbound.queue_depth", this, UserPartitionedTaskExecutor::queueDepth)
+            .description("Inbound STOMP messages waiting across all lanes")
+            .register(meterRegistry);
+        Gauge.builder("wrong_answers.ws.inbound.max_lane_depth", this, UserPartitionedTaskExecutor::maxLaneDepth)
+            .description("Inbound STOMP messages waiting on the busiest lane")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        long enqueuedAt = System.nanoTime();
+        lanes[laneOf(task)].execute(() -> {
+            queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                handlerTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        FutureTask<Object> future = new FutureTask<>(task, null);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public ListenableFuture<?> submitListenable(Runnable task) {
+        ListenableFutureTask<Object> future = new ListenableFutureTask<>(task, null);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+        ListenableFutureTask<T> future = new ListenableFutureTask<>(task);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public void shutdown() {
+        if (lanes != null) {
+            for (ThreadPoolExecutor lane : lanes) {
+                lane.shutdown();
+            }
+        }
+        super.shutdown();
+    }
+
+    private void waitForRoom(Runnable task, ThreadPoolExecutor lane) {
+        if (lane.isShutdown()) {
+            throw new RejectedExecutionException("Inbound lane is shut down");
+        }
+        laneFullCounter.increment();
+        try {
+            lane.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for an inbound lane", e);
+        }
+    }
+
+    int laneOf(Runnable task) {
+        if (!(task instanceof MessageHandlingRunnable handling)) {
+            return 0;
+        }
+        Message<?> message = handling.getMessage();
+        Principal user = SimpMessageHeaderAccessor.getUser(message.getHeaders());
+        String key = user != null ? user.getName() : SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        return key == null ? 0 : Math.floorMod(key.hashCode(), laneCount);
+    }
+
+    double queueDepth() {
+        long depth = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            depth += lane.getQueue().size();
+        }
+        return depth;
+    }
+
+    double maxLaneDepth() {
+        int max = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            max = Math.max(max, lane.getQueue().size());
+        }
+        return max;
+    }
+
+    /**
+     * Virtual-thread factory when requested and available (JDK 21+), platform threads otherwise.
+     * Looked up reflectively because the module still compiles for Java 17.
+     */
+    private ThreadFactory threadFactory() {
+        if (virtualThreads) {
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                builder = Class.forName("java.lang.Thread$Builder$OfVirtual")
+                    .getMethod("name", String.class, long.class)
+                    .invoke(builder, "ws-inbound-lane-", 0L);
+                return (ThreadFactory) Class.forName("java.lang.Thread$Builder")
+                    .getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                logger.warn("Virtual threads unavailable on this JVM, using platform threads for inbound lanes");
+            }
+        }
+        return new CustomizableThreadFactory("ws-inbound-lane-");
+    }
+}
@@ -0,0 +1,126 @@
+package com.interview.websocket;
+
+import com.interview.config.WebSocketConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Connected STOMP sessions per user, so the change feed can skip users with no open device.
+ *
+ * Sessions on this instance are tracked from connect/disconnect events; dead connections are
+ * closed by the STOMP heart-beat and so also end up here. Across instances:
+ * - relay: the broker-backed SimpUserRegistry already lists users of every instance
+ * - redis: each instance keeps a per-user session count in a Redis hash. A crashed instance
+ *   leaves its counts behind, which only costs extra fan-out for those users, never a lost
+ *   message
+ * - simple: only this instance can deliver, so local sessions are the whole answer
+ */
+@Component
+public class UserPresenceRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserPresenceRegistry.class);
+
+    private final Map<String, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+    private final Map<String, String> userBySession = new ConcurrentHashMap<>();
+    private final SimpUserRegistry userRegistry;
+    private final StringRedisTemplate redisTemplate;
+    private final String brokerMode;
+    private final String redisKey;
+
+    public UserPresenceRegistry(
+        SimpUserRegistry userRegistry,
+        ObjectProvider<StringRedisTemplate> redisTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${" + WebSocketConfig.BROKER_PROPERTY + ":simple}") String brokerMode,
+        @Value("${wrong-answers.websocket.presence-key:wrong-answers:presence}") String redisKey
+    ) {
+        this.userRegistry = userRegistry;
+        this.brokerMode = brokerMode;
+        this.redisTemplate = "redis".equalsIgnoreCase(brokerMode) ? redisTemplate.getIfAvailable() : null;
+        this.redisKey = redisKey;
+        meterRegistry.gaugeMapSize("wrong_answers.ws.users", Tags.empty(), sessionsByUser);
+        meterRegistry.gaugeMapSize("wrong_answers.ws.sessions", Tags.empty(), userBySession);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Principal user = event.getUser();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (user == null || sessionId == null) {
+            return;
+        }
+        String userId = user.getName();
+        if (userBySession.putIfAbsent(sessionId, userId) != null) {
+            return;
+        }
+        sessionsByUser.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(sessionId);
+        adjustShared(userId, 1);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String userId = userBySession.remove(event.getSessionId());
+        if (userId == null) {
+            return; // disconnect events can repeat for one session
+        }
+        sessionsByUser.computeIfPresent(userId, (k, sessions) -> {
+            sessions.remove(event.getSessionId());
+            return sessions.isEmpty() ? null : sessions;
+        });
+        adjustShared(userId, -1);
+    }
+
+    public boolean isConnectedLocally(String userId) {
+        return sessionsByUser.containsKey(userId);
+    }
+
+    /**
+     * Whether any instance may hold a session of the user; errs towards true when unsure
+     */
+    public boolean isOnline(String userId) {
+        if (isConnectedLocally(userId)) {
+            return true;
+        }
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            return userRegistry.getUser(userId) != null;
+        }
+        if (redisTemplate != null) {
+            try {
+                Object count = redisTemplate.opsForHash().get(redisKey, userId);
+                return count != null && Long.parseLong(count.toString()) > 0;
+            } catch (RuntimeException e) {
+                logger.debug("Presence lookup failed for {}: {}", userId, e.getMessage());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void adjustShared(String userId, long delta) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            // Zero entries are kept: deleting them would race with another instance's increment
+            redisTemplate.opsForHash().increment(redisKey, userId, delta);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to update shared presence for {}: {}", userId, e.getMessage());
+        }
+    }
+}
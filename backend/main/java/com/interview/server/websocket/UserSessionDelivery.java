@@ -0,0 +1,130 @@
+package com.interview.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.user.SimpSession;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes wrong-answer messages to STOMP sessions in the wire format each session negotiated.
+ *
+ * The format is read from the wire-format header of CONNECT and kept until DISCONNECT. A
+ * message is encoded at most once per format and sent as pre-encoded bytes, so a user with
+ * several devices costs one serialization per format rather than one per session. Sessions
+ * held by other instances (STOMP relay mode) are not known here and receive JSON.
+ */
+@Component
+public class UserSessionDelivery {
+
+    /**
+     * Session attribute set by the SockJS handshake; SockJS frames are text only
+     */
+    public static final String SOCKJS_ATTRIBUTE = "wrongAnswers.sockJs";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry userRegistry;
+    private final Map<WireFormat, ObjectMapper> mappers = new EnumMap<>(WireFormat.class);
+    private final Map<String, WireFormat> sessionFormats = new ConcurrentHashMap<>();
+
+    public UserSessionDelivery(
+        SimpMessagingTemplate messagingTemplate,
+        SimpUserRegistry userRegistry,
+        ObjectMapper objectMapper,
+        Jackson2ObjectMapperBuilder mapperBuilder
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.userRegistry = userRegistry;
+        // Same modules and date handling as the JSON mapper, different token format
+        this.mappers.put(WireFormat.JSON, objectMapper);
+        this.mappers.put(WireFormat.CBOR, mapperBuilder.factory(new CBORFactory()).build());
+        this.mappers.put(WireFormat.SMILE, mapperBuilder.factory(new SmileFactory()).build());
+    }
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String sessionId = accessor.getSessionId();
+        if (sessionId == null) {
+            return;
+        }
+        WireFormat format = WireFormat.negotiate(accessor.getFirstNativeHeader(WireFormat.HEADER));
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (format.isBinary() && attributes != null && attributes.containsKey(SOCKJS_ATTRIBUTE)) {
+            format = WireFormat.JSON;
+        }
+        if (format == WireFormat.JSON) {
+            sessionFormats.remove(sessionId);
+        } else {
+            sessionFormats.put(sessionId, format);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        sessionFormats.remove(event.getSessionId());
+    }
+
+    public WireFormat formatOf(String sessionId) {
+        return sessionFormats.getOrDefault(sessionId, WireFormat.JSON);
+    }
+
+    /**
+     * Send to every session of the user known to the user registry
+     */
+    public void toUser(String userId, Object payload) {
+        SimpUser user = userRegistry.getUser(userId);
+        if (user == null) {
+            return;
+        }
+        Map<WireFormat, byte[]> encoded = new EnumMap<>(WireFormat.class);
+        for (SimpSession session : user.getSessions()) {
+            WireFormat format = formatOf(session.getId());
+            byte[] body = encoded.computeIfAbsent(format, f -> encode(f, payload));
+            send(userId, session.getId(), format, body);
+        }
+    }
+
+    /**
+     * Send to one session of the user, e.g. the reply to a request that session made
+     */
+    public void toSession(String userId, String sessionId, Object payload) {
+        WireFormat format = formatOf(sessionId);
+        send(userId, sessionId, format, encode(format, payload));
+    }
+
+    byte[] encode(WireFormat format, Object payload) {
+        try {
+            return mappers.get(format).writeValueAsBytes(payload);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to encode " + format.token() + " message", e);
+        }
+    }
+
+    private void send(String userId, String sessionId, WireFormat format, byte[] body) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setContentType(format.contentType());
+        accessor.setNativeHeader(WireFormat.HEADER, format.token());
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+        // With a session id header the user destination resolves to that session only
+        messagingTemplate.send("/user/" + userId + UserMessageSender.DESTINATION, message);
+    }
+}
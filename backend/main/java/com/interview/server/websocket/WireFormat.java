@@ -0,0 +1,59 @@
+package com.interview.websocket;
+
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Encoding of server-to-client wrong-answer messages, chosen per STOMP session with the
+ * wire-format header of the CONNECT frame.
+ *
+ * Binary encodings travel as application/octet-stream so Spring sends them as binary WebSocket
+ * frames; the MESSAGE frame repeats the format in its wire-format header. SockJS only carries
+ * text, so SockJS sessions always get JSON.
+ */
+public enum WireFormat {
+
+    JSON("json", MimeTypeUtils.APPLICATION_JSON),
+    CBOR("cbor", MimeTypeUtils.APPLICATION_OCTET_STREAM),
+    SMILE("smile", MimeTypeUtils.APPLICATION_OCTET_STREAM);
+
+    public static final String HEADER = "wire-format";
+
+    private final String token;
+    private final MimeType contentType;
+
+    WireFormat(String token, MimeType contentType) {
+        this.token = token;
+        this.contentType = contentType;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    public MimeType contentType() {
+        return contentType;
+    }
+
+    public boolean isBinary() {
+        return this != JSON;
+    }
+
+    /**
+     * First supported format of a comma separated preference list, JSON when none matches
+     */
+    public static WireFormat negotiate(String header) {
+        if (header == null) {
+            return JSON;
+        }
+        for (String candidate : header.split(",")) {
+            String token = candidate.trim();
+            for (WireFormat format : values()) {
+                if (format.token.equalsIgnoreCase(token)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+}
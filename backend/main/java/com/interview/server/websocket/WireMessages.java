@@ -0,0 +1,109 @@
+package com.interview.websocket;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.interview.dto.WrongAnswerSyncDelta;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server-to-client messages on /user/queue/wrong-answers, schema version 1.
+ *
+ * Keys are kept short because mobile clients pay for every byte: v = schema version,
+ * t = message type, ts = server time in epoch millis. Null members are omitted. Clients must
+ * ignore keys they do not know and reject messages with a higher major version.
+ */
+public final class WireMessages {
+
+    public static final int VERSION = 1;
+
+    public static final String TYPE_CHANGES = "CHANGES";
+    public static final String TYPE_SYNC = "SYNC_RESPONSE";
+    public static final String TYPE_COMMANDS_APPLIED = "COMMANDS_APPLIED";
+    public static final String TYPE_ERROR = "ERROR";
+
+    private WireMessages() {}
+
+    /**
+     * Coalesced record changes for one user; c holds at most one entry per record and s is
+     * the user's sequence after the last of them, to be sent back as sinceSeq on reconnect
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Changes(
+        @JsonProperty("v") int version,
+        @JsonProperty("t") String type,
+        @JsonProperty("ts") long timestamp,
+        @JsonProperty("s") Long seq,
+        @JsonProperty("c") List<Change> changes
+    ) {
+        public Changes(List<Change> changes, Long seq, long timestamp) {
+            this(VERSION, TYPE_CHANGES, timestamp, seq, changes);
+        }
+    }
+
+    /**
+     * Change of one record, or of the whole list when id is absent. f carries only the
+     * fields that changed, keyed by their WrongAnswerDto property name, and only for upserts.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Change(
+        @JsonProperty("id") Long recordId,
+        @JsonProperty("op") String op,
+        @JsonProperty("f") Map<String, Object> fields
+    ) {}
+
+    /**
+     * Answer to a sync request: the current sequence s and either full = true (reload the list)
+     * or the ids changed (chg) and deleted (del) since the requested sequence. st carries the
+     * statistics.
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public record Sync(
+        @JsonProperty("v") int version,
+        @JsonProperty("t") String type,
+        @JsonProperty("ts") long timestamp,
+        @JsonProperty("s") Long seq,
+        @JsonProperty("full") Boolean fullResync,
+        @JsonProperty("chg") List<Long> changedIds,
+        @JsonProperty("del") List<Long> deletedIds,
+        @JsonProperty("st") Object statistics
+    ) {
+        public Sync(WrongAnswerSyncDelta delta, Object statistics, long timestamp) {
+            this(VERSION, TYPE_SYNC, timestamp, delta.getSeq(), delta.isFullResync() ? Boolean.TRUE : null,
+                delta.getChangedIds(), delta.getDeletedIds(), statistics);
+        }
+    }
+
+    /**
+     * Reply to a command batch; ref echoes the client's batchId
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record CommandsApplied(
+        @JsonProperty("v") int version,
+        @JsonProperty("t") String type,
+        @JsonProperty("ts") long timestamp,
+        @JsonProperty("ref") String ref,
+        @JsonProperty("n") int applied
+    ) {
+        public CommandsApplied(String ref, int applied, long timestamp) {
+            this(VERSION, TYPE_COMMANDS_APPLIED, timestamp, ref, applied);
+        }
+    }
+
+    /**
+     * Failure of a request from this session; ref echoes the batchId when there is one
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Error(
+        @JsonProperty("v") int version,
+        @JsonProperty("t") String type,
+        @JsonProperty("ts") long timestamp,
+        @JsonProperty("ref") String ref,
+        @JsonProperty("msg") String message
+    ) {
+        public Error(String message, String ref, long timestamp) {
+            this(VERSION, TYPE_ERROR, timestamp, ref, message);
+        }
+    }
+}
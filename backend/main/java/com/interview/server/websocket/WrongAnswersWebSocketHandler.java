@@ -1,23 +1,35 @@
 package com.interview.websocket;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.interview.dto.RecordWrongAnswerRequest;
-import com.interview.dto.WrongAnswerDto;
+import com.interview.dto.WrongAnswerCommand;
+import com.interview.dto.WrongAnswerSyncDelta;
 import com.interview.service.WrongAnswerService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MessageConversionException;
 import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.handler.annotation.support.MethodArgumentNotValidException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.stereotype.Controller;
-import java.util.HashMap;
-import java.util.Map;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * WebSocket message handler for real-time wrong answers synchronization
- * Handles incoming WebSocket messages and broadcasts updates to connected clients
+ * Handles incoming WebSocket messages. Changes are not broadcast from here: every mutation
+ * writes to the wrong-answer outbox and WrongAnswerOutboxRelay fans it out, so edits made
+ * over REST or by the event listener reach open devices the same way.
+ * Connection liveness uses native STOMP heart-beats (see WebSocketConfig), not app messages.
+ *
+ * Payloads are WrongAnswerCommand records bound and validated by the message converter;
+ * invalid payloads are answered with an ERROR before any handler runs.
  */
 @Controller
 public class WrongAnswersWebSocketHandler {
@@ -26,47 +38,22 @@ public class WrongAnswersWebSocketHandler {
     private WrongAnswerService wrongAnswerService;
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
-
-    @Autowired
-    private ObjectMapper objectMapper;
+    private UserSessionDelivery sessionDelivery;
 
     /**
      * Handle RECORD_WRONG_ANSWER message
      */
     @MessageMapping("/wrong-answers/record")
     public void handleRecordWrongAnswer(
-            @Payload String payload,
-            @Header("simpUser") String userId
+            @Payload @Valid WrongAnswerCommand.RecordAnswer command,
+            Principal user,
+            @Header("simpSessionId") String sessionId
     ) {
         try {
-            JsonNode json = objectMapper.readTree(payload);
-
-            RecordWrongAnswerRequest request = new RecordWrongAnswerRequest();
-            request.setQuestionId(json.get("questionId").asLong());
-            request.setSource(json.get("source").asText());
-            request.setIsCorrect(json.get("isCorrect").asBoolean());
-            request.setSourceInstanceId(json.get("sourceInstanceId").asLong());
-            request.setQuestionTitle(json.get("questionTitle").asText());
-            request.setQuestionContent(json.get("questionContent").asText());
-            request.setDifficulty(json.get("difficulty").asText());
-
-            // Record the wrong answer
-            WrongAnswerDto result = wrongAnswerService.recordWrongAnswer(Long.parseLong(userId), request);
-
-            // Broadcast to user's devices
-            Map<String, Object> response = new HashMap<>();
-            response.put("type", "RECORD_WRONG_ANSWER");
-            response.put("data", result);
-            response.put("timestamp", System.currentTimeMillis());
-
-            messagingTemplate.convertAndSendToUser(
-                    userId,
-                    "/queue/wrong-answers",
-                    response
-            );
+            // Record the wrong answer; WrongAnswerOutboxRelay pushes the change to all of the user's devices
+            wrongAnswerService.recordWrongAnswer(userId(user), command.toRequest());
         } catch (Exception e) {
-            sendError(userId, "Failed to record wrong answer: " + e.getMessage());
+            sendError(user, sessionId, null, "Failed to record wrong answer: " + e.getMessage());
         }
     }
 
@@ -75,36 +62,18 @@ public class WrongAnswersWebSocketHandler {
      */
     @MessageMapping("/wrong-answers/update-status")
     public void handleUpdateStatus(
-            @Payload String payload,
-            @Header("simpUser") String userId
+            @Payload @Valid WrongAnswerCommand.UpdateStatus command,
+            Principal user,
+            @Header("simpSessionId") String sessionId
     ) {
         try {
-            JsonNode json = objectMapper.readTree(payload);
-            Long recordId = json.get("recordId").asLong();
-            String status = json.get("status").asText();
-
-            WrongAnswerDto result;
-            if ("mastered".equals(status)) {
-                result = wrongAnswerService.markAsMastered(Long.parseLong(userId), recordId);
-            } else if ("reviewing".equals(status)) {
-                result = wrongAnswerService.markAsReviewing(Long.parseLong(userId), recordId);
+            if ("mastered".equals(command.status())) {
+                wrongAnswerService.markAsMastered(userId(user), command.recordId());
             } else {
-                throw new IllegalArgumentException("Invalid status: " + status);
+                wrongAnswerService.markAsReviewing(userId(user), command.recordId());
             }
-
-            // Broadcast update
-            Map<String, Object> response = new HashMap<>();
-            response.put("type", "UPDATE_STATUS");
-            response.put("data", result);
-            response.put("timestamp", System.currentTimeMillis());
-
-            messagingTemplate.convertAndSendToUser(
-                    userId,
-                    "/queue/wrong-answers",
-                    response
-            );
         } catch (Exception e) {
-            sendError(userId, "Failed to update status: " + e.getMessage());
+            sendError(user, sessionId, null, "Failed to update status: " + e.getMessage());
         }
     }
 
@@ -113,29 +82,14 @@ public class WrongAnswersWebSocketHandler {
      */
     @MessageMapping("/wrong-answers/update-notes")
     public void handleUpdateNotes(
-            @Payload String payload,
-            @Header("simpUser") String userId
+            @Payload @Valid WrongAnswerCommand.UpdateNotes command,
+            Principal user,
+            @Header("simpSessionId") String sessionId
     ) {
         try {
-            JsonNode json = objectMapper.readTree(payload);
-            Long recordId = json.get("recordId").asLong();
-            String notes = json.get("notes").asText();
-
-            WrongAnswerDto result = wrongAnswerService.updateUserNotes(Long.parseLong(userId), recordId, notes);
-
-            // Broadcast update
-            Map<String, Object> response = new HashMap<>();
-            response.put("type", "UPDATE_NOTES");
-            response.put("data", result);
-            response.put("timestamp", System.currentTimeMillis());
-
-            messagingTemplate.convertAndSendToUser(
-                    userId,
-                    "/queue/wrong-answers",
-                    response
-            );
+            wrongAnswerService.updateUserNotes(userId(user), command.recordId(), command.notes());
         } catch (Exception e) {
-            sendError(userId, "Failed to update notes: " + e.getMessage());
+            sendError(user, sessionId, null, "Failed to update notes: " + e.getMessage());
         }
     }
 
@@ -144,36 +98,14 @@ public class WrongAnswersWebSocketHandler {
      */
     @MessageMapping("/wrong-answers/update-tags")
     public void handleUpdateTags(
-            @Payload String payload,
-            @Header("simpUser") String userId
+            @Payload @Valid WrongAnswerCommand.UpdateTags command,
+            Principal user,
+            @Header("simpSessionId") String sessionId
     ) {
         try {
-            JsonNode json = objectMapper.readTree(payload);
-            Long recordId = json.get("recordId").asLong();
-            JsonNode tagsNode = json.get("tags");
-
-            java.util.List<String> tags = new java.util.ArrayList<>();
-            if (tagsNode.isArray()) {
-                for (JsonNode tag : tagsNode) {
-                    tags.add(tag.asText());
-                }
-            }
-
-            WrongAnswerDto result = wrongAnswerService.updateUserTags(Long.parseLong(userId), recordId, tags);
-
-            // Broadcast update
-            Map<String, Object> response = new HashMap<>();
-            response.put("type", "UPDATE_TAGS");
-            response.put("data", result);
-            response.put("timestamp", System.currentTimeMillis());
-
-            messagingTemplate.convertAndSendToUser(
-                    userId,
-                    "/queue/wrong-answers",
-                    response
-            );
+            wrongAnswerService.updateUserTags(userId(user), command.recordId(), command.tags());
         } catch (Exception e) {
-            sendError(userId, "Failed to update tags: " + e.getMessage());
+            sendError(user, sessionId, null, "Failed to update tags: " + e.getMessage());
         }
     }
 
@@ -182,97 +114,98 @@ public class WrongAnswersWebSocketHandler {
      */
     @MessageMapping("/wrong-answers/delete")
     public void handleDeleteRecord(
-            @Payload String payload,
-            @Header("simpUser") String userId
+            @Payload @Valid WrongAnswerCommand.DeleteRecord command,
+            Principal user,
+            @Header("simpSessionId") String sessionId
     ) {
         try {
-            JsonNode json = objectMapper.readTree(payload);
-            Long recordId = json.get("recordId").asLong();
-
-            wrongAnswerService.deleteWrongAnswer(Long.parseLong(userId), recordId);
-
-            // Broadcast deletion
-            Map<String, Object> response = new HashMap<>();
-            response.put("type", "DELETE_RECORD");
-            response.put("data", new HashMap<String, Object>() {{
-                put("recordId", recordId);
-            }});
-            response.put("timestamp", System.currentTimeMillis());
+            wrongAnswerService.deleteWrongAnswer(userId(user), command.recordId());
+        } catch (Exception e) {
+            sendError(user, sessionId, null, "Failed to delete record: " + e.getMessage());
+        }
+    }
 
-            messagingTemplate.convertAndSendToUser(
-                    userId,
-                    "/queue/wrong-answers",
-                    response
-            );
+    /**
+     * Handle a batch of commands, e.g. edits queued while a client was offline. They are applied
+     * in order in one transaction: either all of them take effect or none, and the reply is
+     * COMMANDS_APPLIED or an ERROR naming the failing command, both carrying the batchId.
+     */
+    @MessageMapping("/wrong-answers/commands")
+    public void handleCommands(
+            @Payload @Valid WrongAnswerCommand.Batch batch,
+            Principal user,
+            @Header("simpSessionId") String sessionId
+    ) {
+        try {
+            int applied = wrongAnswerService.applyCommands(userId(user), batch.commands());
+            sessionDelivery.toSession(user.getName(), sessionId,
+                    new WireMessages.CommandsApplied(batch.batchId(), applied, System.currentTimeMillis()));
         } catch (Exception e) {
-            sendError(userId, "Failed to delete record: " + e.getMessage());
+            sendError(user, sessionId, batch.batchId(), "Failed to apply commands: " + e.getMessage());
         }
     }
 
     /**
-     * Handle SYNC_REQUEST message
+     * Handle SYNC_REQUEST message: {"sinceSeq": n} returns the ids changed since n,
+     * without it (or when n is too far behind) the client is told to reload its list
      */
     @MessageMapping("/wrong-answers/sync-request")
     public void handleSyncRequest(
-            @Payload String payload,
-            @Header("simpUser") String userId
+            @Payload(required = false) WrongAnswerCommand.SyncRequest request,
+            Principal user,
+            @Header("simpSessionId") String sessionId
     ) {
         try {
-            // Fetch latest statistics
+            Long sinceSeq = request == null ? null : request.sinceSeq();
+            WrongAnswerSyncDelta delta = wrongAnswerService.getChangesSince(userId(user), sinceSeq);
             com.interview.dto.WrongAnswerStatisticsDto stats =
-                    wrongAnswerService.getStatistics(Long.parseLong(userId));
+                    wrongAnswerService.getStatistics(userId(user));
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("type", "SYNC_RESPONSE");
-            response.put("data", stats);
-            response.put("timestamp", System.currentTimeMillis());
-
-            messagingTemplate.convertAndSendToUser(
-                    userId,
-                    "/queue/wrong-answers",
-                    response
-            );
+            sessionDelivery.toSession(user.getName(), sessionId,
+                    new WireMessages.Sync(delta, stats, System.currentTimeMillis()));
         } catch (Exception e) {
-            sendError(userId, "Failed to sync: " + e.getMessage());
+            sendError(user, sessionId, null, "Failed to sync: " + e.getMessage());
         }
     }
 
     /**
-     * Handle HEARTBEAT message
+     * Payloads that could not be read or failed validation
      */
-    @MessageMapping("/wrong-answers/heartbeat")
-    public void handleHeartbeat(@Header("simpUser") String userId) {
-        try {
-            Map<String, Object> response = new HashMap<>();
-            response.put("type", "HEARTBEAT_ACK");
-            response.put("timestamp", System.currentTimeMillis());
+    @MessageExceptionHandler({MethodArgumentNotValidException.class, MessageConversionException.class})
+    public void handleInvalidPayload(Exception e, Message<?> message) {
+        Principal user = SimpMessageHeaderAccessor.getUser(message.getHeaders());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        String detail = e.getMessage();
+        if (e instanceof MethodArgumentNotValidException invalid && invalid.getBindingResult() != null) {
+            detail = describe(invalid.getBindingResult());
+        }
+        sendError(user, sessionId, null, "Invalid payload: " + detail);
+    }
 
-            messagingTemplate.convertAndSendToUser(
-                    userId,
-                    "/queue/wrong-answers",
-                    response
-            );
-        } catch (Exception e) {
-            // Silently fail for heartbeat
-            System.err.println("Heartbeat failed: " + e.getMessage());
+    private static String describe(BindingResult result) {
+        List<FieldError> errors = result.getFieldErrors();
+        if (errors.isEmpty()) {
+            return result.toString();
         }
+        return errors.stream()
+                .map(error -> error.getField() + " " + error.getDefaultMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    private static Long userId(Principal user) {
+        return Long.parseLong(user.getName());
     }
 
     /**
-     * Send error message to user
+     * Send error message to the session that made the failed request
      */
-    private void sendError(String userId, String errorMessage) {
+    private void sendError(Principal user, String sessionId, String ref, String errorMessage) {
+        if (user == null || sessionId == null) {
+            return;
+        }
         try {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("type", "ERROR");
-            errorResponse.put("message", errorMessage);
-            errorResponse.put("timestamp", System.currentTimeMillis());
-
-            messagingTemplate.convertAndSendToUser(
-                    userId,
-                    "/queue/wrong-answers",
-                    errorResponse
-            );
+            sessionDelivery.toSession(user.getName(), sessionId,
+                    new WireMessages.Error(errorMessage, ref, System.currentTimeMillis()));
         } catch (Exception e) {
             System.err.println("Failed to send error message: " + e.getMessage());
         }
@@ -0,0 +1,17 @@
+-- Migration: per-user materialized statistics counters for wrong answers
+-- Purpose: serve getStatistics in O(1) regardless of how many records a user owns.
+-- wrong_answer_analytics only carries fixed status columns per day, so counters are
+-- stored as (dimension, bucket_key) rows to cover dynamic sources/difficulties too.
+
+-- Up
+CREATE TABLE IF NOT EXISTS wrong_answer_stat_counters (
+    user_id BIGINT NOT NULL,
+    dimension VARCHAR(20) NOT NULL COMMENT 'total | status | source | difficulty | wrong_attempts | created_day',
+    bucket_key VARCHAR(50) NOT NULL,
+    count_value INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, dimension, bucket_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Down (manual rollback example)
+-- DROP TABLE wrong_answer_stat_counters;
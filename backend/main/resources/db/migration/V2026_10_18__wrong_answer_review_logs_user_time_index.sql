@@ -0,0 +1,8 @@
+-- Migration: index review logs by (user_id, review_at)
+-- Purpose: analytics aggregates a user's recent review activity without touching other users' logs
+
+-- Up
+CREATE INDEX idx_review_logs_user_time ON wrong_answer_review_logs(user_id, review_at);
+
+-- Down (manual rollback example)
+-- DROP INDEX idx_review_logs_user_time ON wrong_answer_review_logs;
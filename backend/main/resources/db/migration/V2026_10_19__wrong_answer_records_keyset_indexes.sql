@@ -0,0 +1,13 @@
+-- Migration: keyset pagination indexes for wrong_answer_records
+-- Purpose: list endpoints seek on (last_wrong_time, id) within a user instead of reading the whole set
+-- InnoDB secondary indexes carry the primary key, so id is already the last key part
+
+-- Up
+CREATE INDEX idx_wrong_answers_user_last_wrong ON wrong_answer_records(user_id, last_wrong_time);
+CREATE INDEX idx_wrong_answers_user_status_last_wrong ON wrong_answer_records(user_id, review_status, last_wrong_time);
+CREATE INDEX idx_wrong_answers_user_source_last_wrong ON wrong_answer_records(user_id, source, last_wrong_time);
+
+-- Down (manual rollback example)
+-- DROP INDEX idx_wrong_answers_user_last_wrong ON wrong_answer_records;
+-- DROP INDEX idx_wrong_answers_user_status_last_wrong ON wrong_answer_records;
+-- DROP INDEX idx_wrong_answers_user_source_last_wrong ON wrong_answer_records;
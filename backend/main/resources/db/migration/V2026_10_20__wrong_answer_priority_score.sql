@@ -0,0 +1,19 @@
+-- Migration: numeric review priority for wrong_answer_records
+-- Purpose: review_priority is a 'high'/'medium'/'low' label and sorts alphabetically;
+-- priority_score holds the time-independent part of SpacedRepetitionServiceImpl.calculatePriority
+
+-- Up
+ALTER TABLE wrong_answer_records
+  ADD COLUMN priority_score INT NOT NULL DEFAULT 0 AFTER review_priority;
+
+UPDATE wrong_answer_records
+  SET priority_score = GREATEST(0,
+        COALESCE(wrong_count, 0) * 50
+      + (CASE difficulty WHEN 'easy' THEN 2 WHEN 'hard' THEN 10 ELSE 5 END) * 30
+      - COALESCE(correct_count, 0) * 10);
+
+CREATE INDEX idx_wrong_answers_user_due ON wrong_answer_records(user_id, review_status, next_review_time);
+
+-- Down (manual rollback example)
+-- DROP INDEX idx_wrong_answers_user_due ON wrong_answer_records;
+-- ALTER TABLE wrong_answer_records DROP COLUMN priority_score;
@@ -0,0 +1,15 @@
+-- Migration: checkpoints for the bulk wrong-answer rescheduling job
+-- Purpose: an interrupted all-users run resumes after the last id it wrote instead of starting over
+
+-- Up
+CREATE TABLE IF NOT EXISTS wrong_answer_reschedule_checkpoints (
+    job_name VARCHAR(50) NOT NULL PRIMARY KEY,
+    last_id BIGINT NOT NULL DEFAULT 0,
+    processed BIGINT NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL COMMENT 'running | done',
+    started_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Down (manual rollback example)
+-- DROP TABLE wrong_answer_reschedule_checkpoints;
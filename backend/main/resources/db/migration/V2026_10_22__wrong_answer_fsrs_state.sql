@@ -0,0 +1,11 @@
+-- Migration: FSRS memory state for wrong_answer_records
+-- Purpose: the fsrs strategy keeps stability and difficulty per record; NULL until a record
+-- is first reviewed under FSRS
+
+-- Up
+ALTER TABLE wrong_answer_records
+  ADD COLUMN fsrs_stability DOUBLE NULL AFTER last_quality,
+  ADD COLUMN fsrs_difficulty DOUBLE NULL AFTER fsrs_stability;
+
+-- Down (manual rollback example)
+-- ALTER TABLE wrong_answer_records DROP COLUMN fsrs_difficulty, DROP COLUMN fsrs_stability;
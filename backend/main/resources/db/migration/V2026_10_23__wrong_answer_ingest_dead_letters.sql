@@ -0,0 +1,17 @@
+-- Migration: dead letters of the asynchronous wrong-answer ingestion pipeline
+-- Purpose: answers from completed sessions that could not be written are kept for replay
+
+-- Up
+CREATE TABLE IF NOT EXISTS wrong_answer_ingest_dead_letters (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NULL,
+    source VARCHAR(50) NULL,
+    answer_count INT NOT NULL DEFAULT 0,
+    payload MEDIUMTEXT NOT NULL COMMENT 'RecordWrongAnswerRequest list as JSON',
+    error_message VARCHAR(1000) NULL,
+    created_at TIMESTAMP NOT NULL,
+    INDEX idx_ingest_dead_letters_user (user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Down (manual rollback example)
+-- DROP TABLE wrong_answer_ingest_dead_letters;
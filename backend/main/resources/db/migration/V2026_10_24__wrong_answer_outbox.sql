@@ -0,0 +1,16 @@
+-- Migration: transactional outbox for wrong-answer changes
+-- Purpose: every mutation appends its change in the same transaction; a relay publishes
+-- coalesced deltas to the user's WebSocket sessions and deletes the published rows
+
+-- Up
+CREATE TABLE IF NOT EXISTS wrong_answer_outbox (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    record_id BIGINT NULL COMMENT 'NULL for user-level changes',
+    op VARCHAR(20) NOT NULL COMMENT 'upsert | delete | refresh | resync',
+    payload TEXT NULL COMMENT 'changed fields as JSON',
+    created_at TIMESTAMP NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Down (manual rollback example)
+-- DROP TABLE wrong_answer_outbox;
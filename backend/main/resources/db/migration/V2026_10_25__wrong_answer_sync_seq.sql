@@ -0,0 +1,29 @@
+-- Migration: per-user change sequence for resumable wrong-answer sync
+-- Purpose: every change gets the next sequence number of its user; clients resume from the
+-- last number they saw and receive only the record ids changed or deleted since then
+
+-- Up
+CREATE TABLE IF NOT EXISTS wrong_answer_sync_seq (
+    user_id BIGINT NOT NULL PRIMARY KEY,
+    seq BIGINT NOT NULL DEFAULT 0 COMMENT 'last sequence number handed out',
+    floor_seq BIGINT NOT NULL DEFAULT 0 COMMENT 'clients behind this must do a full resync'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Latest change per record; deleted rows are tombstones until pruned
+CREATE TABLE IF NOT EXISTS wrong_answer_sync_log (
+    user_id BIGINT NOT NULL,
+    record_id BIGINT NOT NULL,
+    seq BIGINT NOT NULL,
+    deleted TINYINT(1) NOT NULL DEFAULT 0,
+    changed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (user_id, record_id),
+    INDEX idx_user_seq (user_id, seq),
+    INDEX idx_tombstones (deleted, changed_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+ALTER TABLE wrong_answer_outbox ADD COLUMN seq BIGINT NULL COMMENT 'per-user change sequence' AFTER op;
+
+-- Down (manual rollback example)
+-- ALTER TABLE wrong_answer_outbox DROP COLUMN seq;
+-- DROP TABLE wrong_answer_sync_log;
+-- DROP TABLE wrong_answer_sync_seq;
@@ -0,0 +1,168 @@
+package com.interview.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AiResponseCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AiResponseCache cache = new AiResponseCache(
+        new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class),
+        meterRegistry, true, 100, false, "ai:cache:", 1,
+        Duration.ofHours(1), Duration.ofHours(1), Duration.ZERO);
+
+    @Test
+    void repeatedRequest_isServedFromCacheWithoutCallingUpstream() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String first = cache.getOrLoad(AiResponseCache.QUESTION, "prompt", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("What is a B-tree?");
+        }).join();
+        String second = cache.getOrLoad(AiResponseCache.QUESTION, "prompt", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("something else");
+        }).join();
+
+        assertThat(first).isEqualTo("What is a B-tree?");
+        assertThat(second).isEqualTo(first);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(count("hit")).isEqualTo(1);
+        assertThat(count("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentIdenticalMisses_shareOneUpstreamCall() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> leader = cache.getOrLoad(AiResponseCache.ANALYSIS, "same", () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> follower = cache.getOrLoad(AiResponseCache.ANALYSIS, "same", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        follower.cancel(true);
+        upstream.complete("{\"score\":80}");
+
+        assertThat(leader).isCompletedWithValue("{\"score\":80}");
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(1);
+    }
+
+    @Test
+    void failuresAndBlankResponses_areNotCached() {
+        cache.getOrLoad(AiResponseCache.QUESTION, "flaky", () -> CompletableFuture.failedFuture(new IllegalStateException("503")));
+        cache.getOrLoad(AiResponseCache.QUESTION, "empty", () -> CompletableFuture.completedFuture(""));
+
+        assertThat(cache.getOrLoad(AiResponseCache.QUESTION, "flaky", () -> CompletableFuture.completedFuture("ok")))
+            .isCompletedWithValue("ok");
+        assertThat(cache.getOrLoad(AiResponseCache.QUESTION, "empty", () -> CompletableFuture.completedFuture("filled")))
+            .isCompletedWithValue("filled");
+        assertThat(count("hit")).isZero();
+    }
+
+    @Test
+    void typeWithZeroTtl_bypassesTheCache() {
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            cache.getOrLoad(AiResponseCache.STANDARD_ANSWER, "q", () -> CompletableFuture.completedFuture("a" + calls.incrementAndGet())).join();
+        }
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void redisHit_isReadOffTheCallersThreadWithoutCallingUpstream() throws Exception {
+        ValueOperations<String, String> ops = redisOps();
+        AtomicReference<String> readOn = new AtomicReference<>();
+        String key = "ai:cache:" + AiResponseCache.key(AiResponseCache.ANALYSIS, "shared");
+        when(ops.get(key)).thenAnswer(invocation -> {
+            readOn.set(Thread.currentThread().getName());
+            return "{\"score\":75}";
+        });
+        AiResponseCache redisCache = redisCache(ops);
+        AtomicInteger calls = new AtomicInteger();
+
+        String value = redisCache.getOrLoad(AiResponseCache.ANALYSIS, "shared", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("fresh");
+        }).get(5, TimeUnit.SECONDS);
+
+        assertThat(value).isEqualTo("{\"score\":75}");
+        assertThat(calls.get()).isZero();
+        assertThat(readOn.get()).startsWith("ai-cache-redis-");
+        assertThat(count("remote_hit")).isEqualTo(1);
+        redisCache.shutdown();
+    }
+
+    @Test
+    void redisMiss_loadsUpstreamAndWritesTheResponseBack() throws Exception {
+        ValueOperations<String, String> ops = redisOps();
+        AiResponseCache redisCache = redisCache(ops);
+
+        String value = redisCache.getOrLoad(AiResponseCache.QUESTION, "prompt",
+            () -> CompletableFuture.completedFuture("What is MVCC?")).get(5, TimeUnit.SECONDS);
+
+        assertThat(value).isEqualTo("What is MVCC?");
+        verify(ops, timeout(5000)).set("ai:cache:" + AiResponseCache.key(AiResponseCache.QUESTION, "prompt"),
+            "What is MVCC?", Duration.ofHours(1));
+        redisCache.shutdown();
+    }
+
+    @Test
+    void failingRedis_isTreatedAsAMiss() throws Exception {
+        ValueOperations<String, String> ops = redisOps();
+        when(ops.get(anyString())).thenThrow(new IllegalStateException("connection refused"));
+        AiResponseCache redisCache = redisCache(ops);
+
+        assertThat(redisCache.getOrLoad(AiResponseCache.QUESTION, "prompt",
+            () -> CompletableFuture.completedFuture("loaded")).get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+        redisCache.shutdown();
+    }
+
+    @Test
+    void key_dependsOnTypeAndFingerprint() {
+        assertThat(AiResponseCache.key("question", "p")).isEqualTo(AiResponseCache.key("question", "p"));
+        assertThat(AiResponseCache.key("question", "p")).isNotEqualTo(AiResponseCache.key("analysis", "p"));
+        assertThat(AiResponseCache.key("question", "p")).isNotEqualTo(AiResponseCache.key("question", "p2"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ValueOperations<String, String> redisOps() {
+        return mock(ValueOperations.class);
+    }
+
+    private AiResponseCache redisCache(ValueOperations<String, String> ops) {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(ops);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("stringRedisTemplate", redisTemplate);
+        return new AiResponseCache(beans.getBeanProvider(StringRedisTemplate.class),
+            meterRegistry, true, 100, true, "ai:cache:", 1,
+            Duration.ofHours(1), Duration.ofHours(1), Duration.ZERO);
+    }
+
+    private double count(String result) {
+        return meterRegistry.find("ai.cache.requests").tag("result", result).counters().stream()
+            .mapToDouble(c -> c.count()).sum();
+    }
+}
@@ -0,0 +1,55 @@
+package com.interview.service;
+
+import com.interview.entity.WrongAnswerRecord;
+import com.interview.mapper.WrongAnswerMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReviewQueueStoreTest {
+
+    private final WrongAnswerMapper mapper = mock(WrongAnswerMapper.class);
+    private final ReviewQueueStore store = new ReviewQueueStore(mapper, 100, 300);
+
+    @Test
+    void recordWithoutReviewTime_isDueButDoesNotOutrankOverdueRecords() {
+        LocalDateTime now = LocalDateTime.now();
+        when(mapper.selectQueueEntries(1L)).thenReturn(List.of(
+            entry(1L, 10L, null, 50),
+            entry(1L, 11L, now.minusDays(3), 50),
+            entry(1L, 12L, now.plusDays(1), 500)));
+
+        assertThat(store.nextDue(1L, 10, now)).containsExactly(11L, 10L);
+    }
+
+    @Test
+    void commitDuringLoad_isNotLostToAQueueLoadedBeforeIt() {
+        LocalDateTime now = LocalDateTime.now();
+        WrongAnswerRecord updated = entry(2L, 20L, now.minusDays(1), 10);
+        // The load reads the pre-commit row, then the commit hook runs before the queue is stored
+        when(mapper.selectQueueEntries(2L)).thenAnswer(invocation -> {
+            store.upsertAfterCommit(updated);
+            return List.of(entry(2L, 20L, now.plusDays(5), 10));
+        });
+
+        assertThat(store.nextDue(2L, 10, now)).isEmpty();
+
+        when(mapper.selectQueueEntries(2L)).thenReturn(List.of(updated));
+        assertThat(store.nextDue(2L, 10, now)).containsExactly(20L);
+    }
+
+    private static WrongAnswerRecord entry(Long userId, Long id, LocalDateTime nextReviewTime, int score) {
+        WrongAnswerRecord record = new WrongAnswerRecord();
+        record.setUserId(userId);
+        record.setId(id);
+        record.setNextReviewTime(nextReviewTime);
+        record.setPriorityScore(score);
+        record.setReviewStatus("reviewing");
+        return record;
+    }
+}
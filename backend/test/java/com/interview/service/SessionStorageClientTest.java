@@ -0,0 +1,143 @@
+package com.interview.service;
+
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionStorageClientTest {
+
+    private static final String SESSION = "{\"sessionId\":\"s1\",\"questions\":["
+        + "{\"id\":\"q1\",\"question\":\"What is a B-tree?\",\"answer\":\"A balanced tree\",\"hasAnswer\":true}]}";
+
+    private HttpServer server;
+    private SessionStorageClient client;
+    private final AtomicInteger sessionGets = new AtomicInteger();
+    private final AtomicInteger questionGets = new AtomicInteger();
+    private final AtomicInteger puts = new AtomicInteger();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/sessions/", this::handle);
+        server.start();
+        client = new SessionStorageClient("http://127.0.0.1:" + server.getAddress().getPort(), "", true,
+            Duration.ofSeconds(5), Duration.ofMinutes(1), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void concurrentSessionFetches_shareOneRequestAndLaterOnesHitTheSnapshot() throws Exception {
+        release = new CountDownLatch(1);
+        CompletableFuture<JSONObject> first = client.getSession("s1");
+        CompletableFuture<JSONObject> second = client.getSession("s1");
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getStr("sessionId")).isEqualTo("s1");
+        assertThat(second.get(5, TimeUnit.SECONDS).getStr("sessionId")).isEqualTo("s1");
+        client.getSession("s1").get(5, TimeUnit.SECONDS);
+
+        assertThat(sessionGets.get()).isEqualTo(1);
+    }
+
+    @Test
+    void questionLookup_isServedFromTheSessionSnapshot() throws Exception {
+        client.getSession("s1").get(5, TimeUnit.SECONDS);
+
+        JSONObject question = client.getQuestion("s1", "q1").get(5, TimeUnit.SECONDS);
+
+        assertThat(question.getStr("answer")).isEqualTo("A balanced tree");
+        assertThat(sessionGets.get()).isEqualTo(1);
+        assertThat(questionGets.get()).isZero();
+    }
+
+    @Test
+    void questionMissingFromSnapshot_fallsBackToTheQuestionEndpoint() throws Exception {
+        JSONObject question = client.getQuestion("s1", "q9").get(5, TimeUnit.SECONDS);
+
+        assertThat(question.getStr("id")).isEqualTo("q9");
+        assertThat(questionGets.get()).isEqualTo(1);
+    }
+
+    @Test
+    void putAnswer_invalidatesTheSnapshot() throws Exception {
+        client.getSession("s1").get(5, TimeUnit.SECONDS);
+
+        client.putAnswer("s1", "q1", "new answer").get(5, TimeUnit.SECONDS);
+        client.getSession("s1").get(5, TimeUnit.SECONDS);
+
+        assertThat(puts.get()).isEqualTo(1);
+        assertThat(sessionGets.get()).isEqualTo(2);
+    }
+
+    @Test
+    void fetchThatRacedAnInvalidation_isReturnedButNotCached() throws Exception {
+        release = new CountDownLatch(1);
+        CompletableFuture<JSONObject> stale = client.getSession("s1");
+        client.invalidate("s1");
+        release.countDown();
+
+        assertThat((Object) stale.get(5, TimeUnit.SECONDS)).isNotNull();
+        client.getSession("s1").get(5, TimeUnit.SECONDS);
+
+        assertThat(sessionGets.get()).isEqualTo(2);
+    }
+
+    @Test
+    void findQuestion_matchesById() {
+        JSONObject session = JSONUtil.parseObj(SESSION);
+
+        assertThat(SessionStorageClient.findQuestion(session, "q1").getStr("question")).isEqualTo("What is a B-tree?");
+        assertThat((Object) SessionStorageClient.findQuestion(session, "q2")).isNull();
+        assertThat((Object) SessionStorageClient.findQuestion(null, "q1")).isNull();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        List<String> segments = List.of(exchange.getRequestURI().getPath().split("/"));
+        String body;
+        if ("PUT".equals(exchange.getRequestMethod())) {
+            puts.incrementAndGet();
+            body = "{\"success\":true}";
+        } else if (segments.contains("questions")) {
+            questionGets.incrementAndGet();
+            body = "{\"id\":\"" + segments.get(segments.size() - 1) + "\",\"question\":\"?\"}";
+        } else {
+            sessionGets.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            body = SESSION;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.interview.service;
+
+import com.interview.dto.RecordWrongAnswerRequest;
+import com.interview.dto.WrongAnswerCommand;
+import com.interview.dto.WrongAnswerDto;
+import com.interview.entity.WrongAnswerRecord;
+import com.interview.mapper.WrongAnswerMapper;
+import com.interview.support.TestSecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Command batches against committed data; not @Transactional, so each applyCommands call
+ * commits or rolls back on its own and the rollback is observable
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = TestSecurityConfig.class)
+class WrongAnswerCommandsIntegrationTest {
+
+    @Autowired
+    private WrongAnswerService wrongAnswerService;
+
+    @Autowired
+    private WrongAnswerMapper wrongAnswerMapper;
+
+    @Test
+    void applyCommands_rollsBackTheWholeBatchWhenOneCommandIsRejected() {
+        Long userId = 1001L;
+        Long recordId = recordFor(userId, 1001001L).getId();
+
+        assertThatThrownBy(() -> wrongAnswerService.applyCommands(userId, List.of(
+            new WrongAnswerCommand.UpdateNotes(recordId, "lost"),
+            new WrongAnswerCommand.UpdateStatus(recordId, "mastered"),
+            new WrongAnswerCommand.DeleteRecord(-1L)
+        ))).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Command 2");
+
+        WrongAnswerRecord stored = wrongAnswerMapper.selectById(recordId);
+        assertThat(stored.getUserNotes()).isNull();
+        assertThat(stored.getReviewStatus()).isEqualTo("reviewing");
+        assertThat(wrongAnswerService.getStatistics(userId).getMasteredCount()).isEqualTo(0);
+    }
+
+    @Test
+    void applyCommands_passesInfrastructureFailuresThroughUnwrapped() {
+        Long userId = 1002L;
+        Long recordId = recordFor(userId, 1002001L).getId();
+
+        // Passes the 500-character DTO limit but not the 255-character column
+        String longTitle = "t".repeat(300);
+        assertThatThrownBy(() -> wrongAnswerService.applyCommands(userId, List.of(
+            new WrongAnswerCommand.UpdateNotes(recordId, "lost"),
+            new WrongAnswerCommand.RecordAnswer(1002002L, "question_bank", false, null, longTitle, null, "easy")
+        ))).isInstanceOf(DataAccessException.class);
+
+        assertThat(wrongAnswerMapper.selectById(recordId).getUserNotes()).isNull();
+        assertThat(wrongAnswerMapper.selectByUserAndQuestion(userId, 1002002L)).isNull();
+    }
+
+    private WrongAnswerDto recordFor(Long userId, Long questionId) {
+        RecordWrongAnswerRequest request = new RecordWrongAnswerRequest();
+        request.setQuestionId(questionId);
+        request.setSource("question_bank");
+        request.setIsCorrect(false);
+        request.setDifficulty("easy");
+        return wrongAnswerService.recordWrongAnswer(userId, request);
+    }
+}
@@ -0,0 +1,84 @@
+package com.interview.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.dto.RecordWrongAnswerRequest;
+import com.interview.mapper.IngestDeadLetterMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+class WrongAnswerIngestionTest {
+
+    private final WrongAnswerService wrongAnswerService = mock(WrongAnswerService.class);
+
+    private WrongAnswerIngestion ingestion(int workers) {
+        return new WrongAnswerIngestion(wrongAnswerService, mock(IngestDeadLetterMapper.class),
+            mock(PlatformTransactionManager.class), new ObjectMapper(), new SimpleMeterRegistry(),
+            100, workers, 10, 0, 200);
+    }
+
+    @Test
+    void process_writesTheUsersOfABatchInIdOrder() {
+        ingestion(1).process(List.of(
+            new WrongAnswerIngestion.Submission(9L, answer(1L)),
+            new WrongAnswerIngestion.Submission(3L, answer(2L)),
+            new WrongAnswerIngestion.Submission(9L, answer(3L)),
+            new WrongAnswerIngestion.Submission(5L, answer(4L))));
+
+        InOrder order = inOrder(wrongAnswerService);
+        order.verify(wrongAnswerService).recordWrongAnswers(eq(3L), anyList());
+        order.verify(wrongAnswerService).recordWrongAnswers(eq(5L), anyList());
+        order.verify(wrongAnswerService).recordWrongAnswers(eq(9L), argThat(requests -> requests.size() == 2));
+    }
+
+    @Test
+    void submit_routesEveryAnswerOfAUserToTheSameWorker() throws InterruptedException {
+        Map<Long, Set<String>> threadsByUser = new ConcurrentHashMap<>();
+        CountDownLatch written = new CountDownLatch(40);
+        doAnswer(invocation -> {
+            Long userId = invocation.getArgument(0);
+            List<?> requests = invocation.getArgument(1);
+            threadsByUser.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread().getName());
+            requests.forEach(r -> written.countDown());
+            return requests.size();
+        }).when(wrongAnswerService).recordWrongAnswers(anyLong(), anyList());
+
+        WrongAnswerIngestion ingestion = ingestion(4);
+        ingestion.start();
+        for (int round = 0; round < 5; round++) {
+            for (long userId = 1; userId <= 8; userId++) {
+                ingestion.submit(userId, List.of(answer(round)));
+            }
+        }
+        assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+        ingestion.stop();
+
+        assertThat(threadsByUser).hasSize(8);
+        assertThat(threadsByUser.values()).allSatisfy(threads -> assertThat(threads).hasSize(1));
+    }
+
+    private static RecordWrongAnswerRequest answer(long questionId) {
+        RecordWrongAnswerRequest request = new RecordWrongAnswerRequest();
+        request.setQuestionId(questionId);
+        request.setSource("mock_exam");
+        request.setIsCorrect(false);
+        return request;
+    }
+}
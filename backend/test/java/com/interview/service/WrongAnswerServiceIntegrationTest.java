@@ -1,10 +1,21 @@
 ﻿package com.interview.service;
 
+import com.interview.controller.WrongAnswerController.AnalyticsData;
+import com.interview.dto.CursorPageResponse;
 import com.interview.dto.RecordWrongAnswerRequest;
+import com.interview.dto.WrongAnswerCommand;
 import com.interview.dto.WrongAnswerDto;
 import com.interview.dto.WrongAnswerStatisticsDto;
+import com.interview.dto.WrongAnswerSummaryDto;
+import com.interview.dto.WrongAnswerSyncDelta;
+import com.interview.entity.WrongAnswerChange;
 import com.interview.entity.WrongAnswerRecord;
+import com.interview.entity.WrongAnswerReviewLog;
+import com.interview.entity.WrongAnswerStatCounter;
 import com.interview.mapper.WrongAnswerMapper;
+import com.interview.mapper.WrongAnswerOutboxMapper;
+import com.interview.mapper.WrongAnswerReviewLogMapper;
+import com.interview.mapper.WrongAnswerStatCounterMapper;
 import com.interview.service.impl.WrongAnswerServiceImpl;
 import com.interview.support.TestSecurityConfig;
 import org.junit.jupiter.api.Test;
@@ -15,9 +26,11 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.within;
 
 @SpringBootTest
@@ -32,6 +45,27 @@ class WrongAnswerServiceIntegrationTest {
     @Autowired
     private WrongAnswerMapper wrongAnswerMapper;
 
+    @Autowired
+    private WrongAnswerIngestion ingestion;
+
+    @Autowired
+    private WrongAnswerOutboxMapper outboxMapper;
+
+    @Autowired
+    private WrongAnswerOutboxRelay outboxRelay;
+
+    @Autowired
+    private WrongAnswerStatsStore statsStore;
+
+    @Autowired
+    private WrongAnswerStatCounterMapper counterMapper;
+
+    @Autowired
+    private ReviewRescheduler reviewRescheduler;
+
+    @Autowired
+    private WrongAnswerReviewLogMapper reviewLogMapper;
+
     @Test
     void recordWrongAnswer_createsNewRecordWithDefaults() {
         RecordWrongAnswerRequest request = new RecordWrongAnswerRequest();
@@ -131,4 +165,618 @@ class WrongAnswerServiceIntegrationTest {
 
         assertThat(stats.getTodayWrongCount()).isEqualTo(3);
     }
+
+    @Test
+    void getStatistics_includesSourcesOutsideTheDefaultSet() {
+        Long userId = 4L;
+
+        RecordWrongAnswerRequest customQuestion = new RecordWrongAnswerRequest();
+        customQuestion.setQuestionId(4001L);
+        customQuestion.setSource("custom");
+        customQuestion.setIsCorrect(false);
+        customQuestion.setDifficulty("medium");
+        wrongAnswerService.recordWrongAnswer(userId, customQuestion);
+        wrongAnswerService.recordWrongAnswer(userId, customQuestion);
+
+        WrongAnswerStatisticsDto stats = wrongAnswerService.getStatistics(userId);
+
+        assertThat(stats.getTotalWrongCount()).isEqualTo(1);
+        assertThat(stats.getTotalWrongAttempts()).isEqualTo(2);
+        assertThat(stats.getCountBySource().get("custom")).isEqualTo(1);
+        assertThat(stats.getCountBySource().get("ai_interview")).isEqualTo(0);
+    }
+
+    @Test
+    void getStatistics_followsMutationsAfterCountersAreMaterialized() {
+        Long userId = 5L;
+
+        RecordWrongAnswerRequest first = new RecordWrongAnswerRequest();
+        first.setQuestionId(5001L);
+        first.setSource("mock_exam");
+        first.setIsCorrect(false);
+        first.setDifficulty("hard");
+        WrongAnswerDto firstRecord = wrongAnswerService.recordWrongAnswer(userId, first);
+
+        // First read materializes the counters from the base table
+        assertThat(wrongAnswerService.getStatistics(userId).getTotalWrongCount()).isEqualTo(1);
+
+        RecordWrongAnswerRequest second = new RecordWrongAnswerRequest();
+        second.setQuestionId(5002L);
+        second.setSource("mock_exam");
+        second.setIsCorrect(false);
+        second.setDifficulty("easy");
+        wrongAnswerService.recordWrongAnswer(userId, second);
+        wrongAnswerService.markAsMastered(userId, firstRecord.getId());
+
+        WrongAnswerStatisticsDto stats = wrongAnswerService.getStatistics(userId);
+        assertThat(stats.getTotalWrongCount()).isEqualTo(2);
+        assertThat(stats.getMasteredCount()).isEqualTo(1);
+        assertThat(stats.getReviewingCount()).isEqualTo(1);
+        assertThat(stats.getCountBySource().get("mock_exam")).isEqualTo(2);
+
+        wrongAnswerService.deleteWrongAnswer(userId, firstRecord.getId());
+
+        stats = wrongAnswerService.getStatistics(userId);
+        assertThat(stats.getTotalWrongCount()).isEqualTo(1);
+        assertThat(stats.getMasteredCount()).isEqualTo(0);
+        assertThat(stats.getCountByDifficulty().get("hard")).isEqualTo(0);
+    }
+
+    @Test
+    void reconcile_ignoresEarlierDaysAndPrunesThem() {
+        Long userId = 20L;
+
+        RecordWrongAnswerRequest request = new RecordWrongAnswerRequest();
+        request.setQuestionId(20001L);
+        request.setSource("question_bank");
+        request.setIsCorrect(false);
+        request.setDifficulty("easy");
+        wrongAnswerService.recordWrongAnswer(userId, request);
+        statsStore.rebuild(userId);
+        // Rebuilding again replaces the rows instead of colliding with them
+        statsStore.rebuild(userId);
+
+        // A creation counter left behind by an earlier day
+        counterMapper.upsertDeltas(userId, List.of(
+            new WrongAnswerStatCounter(userId, WrongAnswerStatsStore.DIM_CREATED_DAY, "2020-01-01", 4)));
+
+        assertThat(statsStore.reconcile(userId)).isFalse();
+
+        statsStore.reconcileAll();
+        assertThat(counterMapper.selectByUserId(userId))
+            .noneMatch(row -> WrongAnswerStatsStore.DIM_CREATED_DAY.equals(row.getDimension())
+                && "2020-01-01".equals(row.getBucketKey()));
+        assertThat(wrongAnswerService.getStatistics(userId).getTodayWrongCount()).isEqualTo(1);
+    }
+
+    @Test
+    void batchUpdateStatus_reportsForeignAndMissingIdsAsFailures() {
+        Long userId = 6L;
+
+        RecordWrongAnswerRequest own = new RecordWrongAnswerRequest();
+        own.setQuestionId(6001L);
+        own.setSource("question_bank");
+        own.setIsCorrect(false);
+        own.setDifficulty("easy");
+        WrongAnswerDto ownRecord = wrongAnswerService.recordWrongAnswer(userId, own);
+        WrongAnswerDto foreignRecord = wrongAnswerService.recordWrongAnswer(7L, own);
+
+        var result = wrongAnswerService.batchUpdateStatus(
+            userId, List.of(ownRecord.getId(), foreignRecord.getId(), -1L), "mastered");
+
+        assertThat(result.getSuccessCount()).isEqualTo(1);
+        assertThat(result.getTotalCount()).isEqualTo(3);
+        assertThat(result.getSucceededIds()).containsExactly(ownRecord.getId());
+        assertThat(result.getFailures()).containsOnlyKeys(foreignRecord.getId(), -1L);
+        assertThat(wrongAnswerMapper.selectById(ownRecord.getId()).getReviewStatus()).isEqualTo("mastered");
+        assertThat(wrongAnswerMapper.selectById(foreignRecord.getId()).getReviewStatus()).isEqualTo("reviewing");
+        assertThat(wrongAnswerService.getStatistics(userId).getMasteredCount()).isEqualTo(1);
+
+        var deleted = wrongAnswerService.batchDelete(userId, List.of(ownRecord.getId(), foreignRecord.getId()));
+
+        assertThat(deleted.getSucceededIds()).containsExactly(ownRecord.getId());
+        assertThat(wrongAnswerMapper.selectById(ownRecord.getId())).isNull();
+        assertThat(wrongAnswerMapper.selectById(foreignRecord.getId())).isNotNull();
+        assertThat(wrongAnswerService.getStatistics(userId).getTotalWrongCount()).isEqualTo(0);
+    }
+
+    @Test
+    void exportWrongAnswers_streamsOnlyRequestedRecordsOfTheUser() {
+        Long userId = 8L;
+
+        RecordWrongAnswerRequest request = new RecordWrongAnswerRequest();
+        request.setSource("ai_interview");
+        request.setIsCorrect(false);
+        request.setDifficulty("medium");
+        request.setQuestionId(8001L);
+        WrongAnswerDto first = wrongAnswerService.recordWrongAnswer(userId, request);
+        request.setQuestionId(8002L);
+        WrongAnswerDto second = wrongAnswerService.recordWrongAnswer(userId, request);
+        WrongAnswerDto foreign = wrongAnswerService.recordWrongAnswer(9L, request);
+
+        List<Long> all = new ArrayList<>();
+        wrongAnswerService.exportWrongAnswers(userId, null, r -> all.add(r.getId()));
+        assertThat(all).containsExactlyInAnyOrder(first.getId(), second.getId());
+
+        List<Long> selected = new ArrayList<>();
+        wrongAnswerService.exportWrongAnswers(userId, List.of(second.getId(), foreign.getId()), r -> selected.add(r.getId()));
+        assertThat(selected).containsExactly(second.getId());
+    }
+
+    @Test
+    void getWrongAnswersPage_walksAllRecordsWithCursor() {
+        Long userId = 10L;
+
+        RecordWrongAnswerRequest request = new RecordWrongAnswerRequest();
+        request.setSource("question_bank");
+        request.setIsCorrect(false);
+        request.setDifficulty("easy");
+        List<Long> expected = new ArrayList<>();
+        for (long q = 10001L; q <= 10005L; q++) {
+            request.setQuestionId(q);
+            expected.add(wrongAnswerService.recordWrongAnswer(userId, request).getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageResponse<WrongAnswerDto> page = wrongAnswerService.getWrongAnswersPage(userId, null, null, cursor, 2);
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(expected);
+
+        CursorPageResponse<WrongAnswerDto> filtered =
+            wrongAnswerService.getWrongAnswersPage(userId, "mastered", null, null, 10);
+        assertThat(filtered.getItems()).isEmpty();
+        assertThat(filtered.isHasMore()).isFalse();
+    }
+
+    @Test
+    void summaries_carryListFieldsOnly() {
+        Long userId = 11L;
+
+        RecordWrongAnswerRequest request = new RecordWrongAnswerRequest();
+        request.setQuestionId(11001L);
+        request.setSource("mock_exam");
+        request.setIsCorrect(false);
+        request.setDifficulty("hard");
+        request.setQuestionTitle("Explain MVCC");
+        request.setQuestionContent("Long question body");
+        WrongAnswerDto record = wrongAnswerService.recordWrongAnswer(userId, request);
+
+        List<WrongAnswerSummaryDto> list = wrongAnswerService.getWrongAnswerSummaries(userId, "reviewing", null);
+        assertThat(list).hasSize(1);
+        WrongAnswerSummaryDto summary = list.get(0);
+        assertThat(summary.getId()).isEqualTo(record.getId());
+        assertThat(summary.getQuestionTitle()).isEqualTo("Explain MVCC");
+        assertThat(summary.getReviewStatus()).isEqualTo("reviewing");
+        assertThat(summary.getNextReviewTime()).isNotNull();
+
+        CursorPageResponse<WrongAnswerSummaryDto> page =
+            wrongAnswerService.getWrongAnswerSummaryPage(userId, null, "mock_exam", null, 20);
+        assertThat(page.getItems()).extracting(WrongAnswerSummaryDto::getId).containsExactly(record.getId());
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getDueForReview_withLimitReturnsOnlyDueRecordsByPriority() {
+        Long userId = 12L;
+
+        RecordWrongAnswerRequest request = new RecordWrongAnswerRequest();
+        request.setSource("question_bank");
+        request.setIsCorrect(false);
+        request.setDifficulty("easy");
+        request.setQuestionId(12001L);
+        WrongAnswerDto low = wrongAnswerService.recordWrongAnswer(userId, request);
+        request.setDifficulty("hard");
+        request.setQuestionId(12002L);
+        WrongAnswerDto high = wrongAnswerService.recordWrongAnswer(userId, request);
+        request.setQuestionId(12003L);
+        WrongAnswerDto notDue = wrongAnswerService.recordWrongAnswer(userId, request);
+
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+        for (Long id : List.of(low.getId(), high.getId())) {
+            WrongAnswerRecord record = wrongAnswerMapper.selectById(id);
+            record.setNextReviewTime(yesterday);
+            wrongAnswerMapper.updateById(record);
+        }
+        WrongAnswerRecord future = wrongAnswerMapper.selectById(notDue.getId());
+        future.setNextReviewTime(LocalDateTime.now().plusDays(3));
+        wrongAnswerMapper.updateById(future);
+
+        List<WrongAnswerDto> due = wrongAnswerService.getDueForReview(userId, 10);
+        assertThat(due).extracting(WrongAnswerDto::getId).containsExactly(high.getId(), low.getId());
+
+        assertThat(wrongAnswerService.getDueForReview(userId, 1))
+            .extracting(WrongAnswerDto::getId).containsExactly(high.getId());
+    }
+
+    @Test
+    void generateReviewPlan_reschedulesOpenRecordsOnly() {
+        Long userId = 13L;
+
+        RecordWrongAnswerRequest request = new RecordWrongAnswerRequest();
+        request.setSource("question_bank");
+        request.setIsCorrect(false);
+        request.setDifficulty("medium");
+        request.setQuestionId(13001L);
+        WrongAnswerDto open = wrongAnswerService.recordWrongAnswer(userId, request);
+        request.setQuestionId(13002L);
+        WrongAnswerDto mastered = wrongAnswerService.recordWrongAnswer(userId, request);
+        wrongAnswerService.markAsMastered(userId, mastered.getId());
+
+        WrongAnswerRecord stale = wrongAnswerMapper.selectById(open.getId());
+        stale.setNextReviewTime(LocalDateTime.now().minusDays(30));
+        wrongAnswerMapper.updateById(stale);
+
+        wrongAnswerService.generateReviewPlan(userId);
+
+        WrongAnswerRecord rescheduled = wrongAnswerMapper.selectById(open.getId());
+        assertThat(rescheduled.getNextReviewTime()).isAfter(LocalDateTime.now());
+        assertThat(rescheduled.getQuestionTitle()).isEqualTo(stale.getQuestionTitle());
+        assertThat(wrongAnswerMapper.selectById(mastered.getId()).getReviewStatus()).isEqualTo("mastered");
+    }
+
+    @Test
+    void recordWrongAnswer_repeatedAnswersIncrementOneRowAndKeepStatisticsInStep() {
+        Long userId = 14L;
+
+        RecordWrongAnswerRequest request = new RecordWrongAnswerRequest();
+        request.setQuestionId(14001L);
+        request.setSource("question_bank");
+        request.setIsCorrect(false);
+        request.setDifficulty("medium");
+        request.setQuestionTitle("Original title");
+        WrongAnswerDto first = wrongAnswerService.recordWrongAnswer(userId, request);
+        assertThat(wrongAnswerService.getStatistics(userId).getTotalWrongCount()).isEqualTo(1);
+
+        request.setQuestionTitle("Changed title");
+        wrongAnswerService.recordWrongAnswer(userId, request);
+        request.setIsCorrect(true);
+        for (int i = 0; i < 3; i++) {
+            wrongAnswerService.recordWrongAnswer(userId, request);
+        }
+
+        WrongAnswerRecord stored = wrongAnswerMapper.selectByUserAndQuestion(userId, 14001L);
+        assertThat(stored.getId()).isEqualTo(first.getId());
+        assertThat(stored.getWrongCount()).isEqualTo(2);
+        assertThat(stored.getCorrectCount()).isEqualTo(3);
+        assertThat(stored.getLastCorrectTime()).isNotNull();
+        assertThat(stored.getReviewStatus()).isEqualTo("mastered");
+        assertThat(stored.getQuestionTitle()).isEqualTo("Original title");
+
+        WrongAnswerStatisticsDto stats = wrongAnswerService.getStatistics(userId);
+        assertThat(stats.getTotalWrongCount()).isEqualTo(1);
+        assertThat(stats.getMasteredCount()).isEqualTo(1);
+        assertThat(stats.getReviewingCount()).isEqualTo(0);
+    }
+
+    @Test
+    void upsertAnswer_reportsInsertOrUpdateAndOnlyAddsTheAnswerToAnExistingRow() {
+        WrongAnswerRecord answer = new WrongAnswerRecord(21L, 21001L, "question_bank");
+        answer.setWrongCount(1);
+        answer.setLastWrongTime(LocalDateTime.now());
+        answer.setReviewStatus("reviewing");
+        answer.setNextReviewTime(LocalDateTime.now().plusDays(1));
+        answer.setPriorityScore(200);
+        assertThat(wrongAnswerMapper.upsertAnswer(answer)).isEqualTo(1);
+        assertThat(answer.getId()).isNotNull();
+
+        WrongAnswerRecord again = new WrongAnswerRecord(21L, 21001L, "mock_exam");
+        again.setCorrectCount(1);
+        again.setLastCorrectTime(LocalDateTime.now());
+        again.setReviewStatus("mastered");
+        again.setReviewPriority("low");
+        again.setPriorityScore(0);
+        assertThat(wrongAnswerMapper.upsertAnswer(again)).isEqualTo(2);
+
+        WrongAnswerRecord stored = wrongAnswerMapper.selectById(answer.getId());
+        assertThat(stored.getWrongCount()).isEqualTo(1);
+        assertThat(stored.getCorrectCount()).isEqualTo(1);
+        assertThat(stored.getSource()).isEqualTo("question_bank");
+        assertThat(stored.getReviewStatus()).isEqualTo("reviewing");
+        assertThat(stored.getNextReviewTime()).isNotNull();
+        assertThat(stored.getPriorityScore()).isEqualTo(200);
+    }
+
+    @Test
+    void narrowUpdates_changeOnlyTheirColumnsAndRejectOtherUsers() {
+        Long userId = 15L;
+
+        RecordWrongAnswerRequest request = new RecordWrongAnswerRequest();
+        request.setQuestionId(15001L);
+        request.setSource("question_bank");
+        request.setIsCorrect(false);
+        request.setDifficulty("medium");
+        request.setQuestionTitle("Narrow update");
+        request.setKnowledgePoints(List.of("sql"));
+        WrongAnswerDto created = wrongAnswerService.recordWrongAnswer(userId, request);
+
+        WrongAnswerDto withNotes = wrongAnswerService.updateUserNotes(userId, created.getId(), "mixed up joins");
+        assertThat(withNotes.getUserNotes()).isEqualTo("mixed up joins");
+        WrongAnswerDto withTags = wrongAnswerService.updateUserTags(userId, created.getId(), List.of("joins", "review"));
+        assertThat(withTags.getUserTags()).containsExactly("joins", "review");
+        wrongAnswerService.markAsMastered(userId, created.getId());
+
+        WrongAnswerRecord stored = wrongAnswerMapper.selectById(created.getId());
+        assertThat(stored.getUserNotes()).isEqualTo("mixed up joins");
+        assertThat(stored.getUserTags()).containsExactly("joins", "review");
+        assertThat(stored.getReviewStatus()).isEqualTo("mastered");
+        assertThat(stored.getQuestionTitle()).isEqualTo("Narrow update");
+        assertThat(stored.getKnowledgePoints()).containsExactly("sql");
+        assertThat(stored.getWrongCount()).isEqualTo(1);
+
+        assertThatThrownBy(() -> wrongAnswerService.updateUserNotes(99L, created.getId(), "not mine"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> wrongAnswerService.updateUserTags(99L, created.getId(), List.of("x")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(wrongAnswerMapper.selectById(created.getId()).getUserNotes()).isEqualTo("mixed up joins");
+    }
+
+    @Test
+    void reviewOnce_writesCountsAndScheduleDerivedFromTheStoredRow() {
+        Long userId = 22L;
+        WrongAnswerDto created = recordFor(userId, 22001L);
+
+        WrongAnswerDto failed = wrongAnswerService.reviewOnce(userId, created.getId(), "fail", 30, null);
+        WrongAnswerDto passed = wrongAnswerService.reviewOnce(userId, created.getId(), "pass", 20, "got it");
+
+        assertThat(failed.getWrongCount()).isEqualTo(2);
+        assertThat(passed.getCorrectCount()).isEqualTo(1);
+        WrongAnswerRecord stored = wrongAnswerMapper.selectById(created.getId());
+        assertThat(stored.getWrongCount()).isEqualTo(2);
+        assertThat(stored.getCorrectCount()).isEqualTo(1);
+        assertThat(stored.getReviewStatus()).isEqualTo("reviewing");
+        assertThat(stored.getNextReviewTime()).isAfter(LocalDateTime.now());
+        assertThat(wrongAnswerService.getReviewLogs(userId, created.getId())).hasSize(2);
+        assertThat(wrongAnswerService.getStatistics(userId).getReviewingCount()).isEqualTo(1);
+
+        assertThatThrownBy(() -> wrongAnswerService.reviewOnce(99L, created.getId(), "pass", 5, null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void ingestion_coalescesAnswersPerUserAndQuestion() {
+        Long userId = 16L;
+
+        RecordWrongAnswerRequest existing = new RecordWrongAnswerRequest();
+        existing.setQuestionId(16001L);
+        existing.setSource("question_bank");
+        existing.setIsCorrect(false);
+        existing.setDifficulty("medium");
+        wrongAnswerService.recordWrongAnswer(userId, existing);
+        assertThat(wrongAnswerService.getStatistics(userId).getTotalWrongCount()).isEqualTo(1);
+
+        List<WrongAnswerIngestion.Submission> batch = new ArrayList<>();
+        for (long questionId : new long[]{16001L, 16002L, 16002L, 16003L}) {
+            RecordWrongAnswerRequest request = new RecordWrongAnswerRequest();
+            request.setQuestionId(questionId);
+            request.setSource("mock_exam");
+            request.setSourceInstanceId(77L);
+            request.setIsCorrect(false);
+            request.setDifficulty("hard");
+            batch.add(new WrongAnswerIngestion.Submission(userId, request));
+        }
+        ingestion.process(batch);
+
+        assertThat(wrongAnswerMapper.selectByUserAndQuestion(userId, 16001L).getWrongCount()).isEqualTo(2);
+        assertThat(wrongAnswerMapper.selectByUserAndQuestion(userId, 16001L).getSource()).isEqualTo("question_bank");
+        WrongAnswerRecord coalesced = wrongAnswerMapper.selectByUserAndQuestion(userId, 16002L);
+        assertThat(coalesced.getWrongCount()).isEqualTo(2);
+        assertThat(coalesced.getReviewStatus()).isEqualTo("reviewing");
+        assertThat(coalesced.getSourceInstanceId()).isEqualTo(77L);
+        assertThat(coalesced.getNextReviewTime()).isAfter(LocalDateTime.now());
+
+        WrongAnswerStatisticsDto stats = wrongAnswerService.getStatistics(userId);
+        assertThat(stats.getTotalWrongCount()).isEqualTo(3);
+        assertThat(stats.getReviewingCount()).isEqualTo(3);
+        assertThat(stats.getCountBySource().get("mock_exam")).isEqualTo(2);
+    }
+
+    @Test
+    void mutations_appendToOutboxAndRelayDrainsIt() {
+        Long userId = 17L;
+
+        RecordWrongAnswerRequest request = new RecordWrongAnswerRequest();
+        request.setQuestionId(17001L);
+        request.setSource("question_bank");
+        request.setIsCorrect(false);
+        request.setDifficulty("easy");
+        WrongAnswerDto created = wrongAnswerService.recordWrongAnswer(userId, request);
+        wrongAnswerService.markAsMastered(userId, created.getId());
+        wrongAnswerService.updateUserNotes(userId, created.getId(), "outbox");
+        wrongAnswerService.deleteWrongAnswer(userId, created.getId());
+
+        List<WrongAnswerChange> pending = outboxMapper.selectPendingForUpdate(100).stream()
+            .filter(c -> userId.equals(c.getUserId()))
+            .toList();
+        assertThat(pending).extracting(WrongAnswerChange::getOp)
+            .containsExactly("upsert", "upsert", "upsert", "delete");
+        assertThat(pending).extracting(WrongAnswerChange::getRecordId).containsOnly(created.getId());
+        assertThat(pending.get(1).getPayload()).contains("\"reviewStatus\":\"mastered\"");
+
+        assertThat(outboxRelay.relayBatch()).isGreaterThanOrEqualTo(pending.size());
+        assertThat(outboxMapper.selectPendingForUpdate(100)).noneMatch(c -> userId.equals(c.getUserId()));
+    }
+
+    @Test
+    void changesSince_returnsChangedAndDeletedIdsOrFullResync() {
+        Long userId = 18L;
+        Long first = recordFor(userId, 18001L).getId();
+        Long second = recordFor(userId, 18002L).getId();
+
+        WrongAnswerSyncDelta initial = wrongAnswerService.getChangesSince(userId, null);
+        assertThat(initial.isFullResync()).isTrue();
+        long seen = initial.getSeq();
+        assertThat(seen).isEqualTo(2L);
+
+        wrongAnswerService.markAsMastered(userId, first);
+        wrongAnswerService.deleteWrongAnswer(userId, second);
+
+        WrongAnswerSyncDelta delta = wrongAnswerService.getChangesSince(userId, seen);
+        assertThat(delta.isFullResync()).isFalse();
+        assertThat(delta.getSeq()).isEqualTo(4L);
+        assertThat(delta.getChangedIds()).containsExactly(first);
+        assertThat(delta.getDeletedIds()).containsExactly(second);
+
+        WrongAnswerSyncDelta upToDate = wrongAnswerService.getChangesSince(userId, delta.getSeq());
+        assertThat(upToDate.isFullResync()).isFalse();
+        assertThat(upToDate.getChangedIds()).isEmpty();
+        assertThat(upToDate.getDeletedIds()).isEmpty();
+
+        wrongAnswerService.generateReviewPlan(userId);
+        assertThat(wrongAnswerService.getChangesSince(userId, delta.getSeq()).isFullResync()).isTrue();
+        assertThat(wrongAnswerService.getChangesSince(userId, 99L).isFullResync()).isTrue();
+    }
+
+    @Test
+    void applyCommands_appliesBatchInOrderAndNamesTheFailingCommand() {
+        Long userId = 19L;
+        Long recordId = recordFor(userId, 19001L).getId();
+
+        int applied = wrongAnswerService.applyCommands(userId, List.of(
+            new WrongAnswerCommand.UpdateStatus(recordId, "mastered"),
+            new WrongAnswerCommand.UpdateNotes(recordId, "batched"),
+            new WrongAnswerCommand.UpdateTags(recordId, List.of("offline"))
+        ));
+
+        assertThat(applied).isEqualTo(3);
+        WrongAnswerDto updated = wrongAnswerService.getWrongAnswer(userId, recordId);
+        assertThat(updated.getReviewStatus()).isEqualTo("mastered");
+        assertThat(updated.getUserNotes()).isEqualTo("batched");
+        assertThat(updated.getUserTags()).containsExactly("offline");
+
+        assertThatThrownBy(() -> wrongAnswerService.applyCommands(userId, List.of(
+            new WrongAnswerCommand.UpdateNotes(recordId, "lost"),
+            new WrongAnswerCommand.DeleteRecord(-1L)
+        ))).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Command 1");
+    }
+
+    @Test
+    void nightlyReschedule_forcesAFullResyncOfTouchedUsers() {
+        Long userId = 23L;
+        recordFor(userId, 23001L);
+        long seen = wrongAnswerService.getChangesSince(userId, null).getSeq();
+        assertThat(wrongAnswerService.getChangesSince(userId, seen).isFullResync()).isFalse();
+
+        reviewRescheduler.rescheduleAll();
+
+        WrongAnswerSyncDelta delta = wrongAnswerService.getChangesSince(userId, seen);
+        assertThat(delta.isFullResync()).isTrue();
+        assertThat(delta.getSeq()).isGreaterThan(seen);
+    }
+
+    @Test
+    void getAnalytics_combinesCountersWithReviewActivityInsideTheWindow() {
+        Long userId = 24L;
+        WrongAnswerDto easy = recordFor(userId, 24001L);
+        RecordWrongAnswerRequest hardQuestion = new RecordWrongAnswerRequest();
+        hardQuestion.setQuestionId(24002L);
+        hardQuestion.setSource("ai_interview");
+        hardQuestion.setIsCorrect(false);
+        hardQuestion.setDifficulty("hard");
+        WrongAnswerDto hard = wrongAnswerService.recordWrongAnswer(userId, hardQuestion);
+        wrongAnswerService.markAsMastered(userId, hard.getId());
+
+        wrongAnswerService.reviewOnce(userId, easy.getId(), "fail", 30, null);
+        wrongAnswerService.reviewOnce(userId, easy.getId(), "pass", 10, null);
+        insertReviewLog(userId, easy.getId(), 50, LocalDateTime.now().minusDays(10)); // in the window, not this week
+        insertReviewLog(userId, easy.getId(), 500, LocalDateTime.now().minusDays(20)); // outside the window
+
+        AnalyticsData analytics = wrongAnswerService.getAnalytics(userId, 14);
+
+        assertThat(analytics.getTotalWrongAnswers()).isEqualTo(2);
+        assertThat(analytics.getMasteredCount()).isEqualTo(1);
+        assertThat(analytics.getReviewingCount()).isEqualTo(1);
+        assertThat(analytics.getUnreviewedCount()).isZero();
+        assertThat(analytics.getMasteryRate()).isCloseTo(50.0, within(0.01));
+        assertThat(analytics.getWeeklyReviewCount()).isEqualTo(2);
+        assertThat(analytics.getAvgTimePerQuestion()).isCloseTo(30.0, within(0.01));
+        assertThat(analytics.getSourceDistribution())
+            .containsEntry("question_bank", 1).containsEntry("ai_interview", 1).containsEntry("mock_exam", 0);
+        assertThat(analytics.getDifficultyDistribution())
+            .containsEntry("easy", 1).containsEntry("hard", 1).containsEntry("medium", 0);
+    }
+
+    @Test
+    void getAnalytics_reportsZerosForAUserWithoutData() {
+        AnalyticsData analytics = wrongAnswerService.getAnalytics(25L, 30);
+
+        assertThat(analytics.getTotalWrongAnswers()).isZero();
+        assertThat(analytics.getMasteryRate()).isZero();
+        assertThat(analytics.getWeeklyReviewCount()).isZero();
+        assertThat(analytics.getAvgTimePerQuestion()).isZero();
+        assertThat(analytics.getSourceDistribution())
+            .containsEntry("ai_interview", 0).containsEntry("question_bank", 0).containsEntry("mock_exam", 0);
+        assertThat(analytics.getDifficultyDistribution())
+            .containsEntry("easy", 0).containsEntry("medium", 0).containsEntry("hard", 0);
+    }
+
+    @Test
+    void batchAddTags_appendsMissingTagsToOwnedRecordsOnly() {
+        Long userId = 26L;
+        WrongAnswerDto untagged = recordFor(userId, 26001L);
+        WrongAnswerDto tagged = recordFor(userId, 26002L);
+        wrongAnswerService.updateUserTags(userId, tagged.getId(), List.of("trap"));
+        WrongAnswerDto foreign = recordFor(27L, 26001L);
+
+        var result = wrongAnswerService.batchAddTags(userId,
+            List.of(untagged.getId(), tagged.getId(), foreign.getId()), List.of("trap", "jvm", "trap"));
+
+        assertThat(result.getSucceededIds()).containsExactly(untagged.getId(), tagged.getId());
+        assertThat(result.getFailures()).containsOnlyKeys(foreign.getId());
+        assertThat(wrongAnswerMapper.selectById(untagged.getId()).getUserTags()).containsExactly("trap", "jvm");
+        assertThat(wrongAnswerMapper.selectById(tagged.getId()).getUserTags()).containsExactly("trap", "jvm");
+        assertThat(wrongAnswerMapper.selectById(foreign.getId()).getUserTags()).isNullOrEmpty();
+    }
+
+    @Test
+    void batchRemoveTags_removesDuplicatesAndMatchesTagsLiterally() {
+        Long userId = 26L;
+        WrongAnswerDto record = recordFor(userId, 26003L);
+        wrongAnswerService.updateUserTags(userId, record.getId(), List.of("a_b", "keep", "a_b", "axb", "50%", "a_b"));
+        WrongAnswerDto crowded = recordFor(userId, 26004L);
+        List<String> copies = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            copies.add("dup");
+        }
+        wrongAnswerService.updateUserTags(userId, crowded.getId(), copies);
+        WrongAnswerDto foreign = recordFor(27L, 26003L);
+        wrongAnswerService.updateUserTags(27L, foreign.getId(), List.of("a_b"));
+
+        wrongAnswerService.batchRemoveTags(userId, List.of(record.getId(), crowded.getId(), foreign.getId()),
+            List.of("a_b", "50%", "dup"));
+
+        // '_' and '%' are literal characters in tags, not LIKE wildcards
+        assertThat(wrongAnswerMapper.selectById(record.getId()).getUserTags()).containsExactly("keep", "axb");
+        // each pass removes one copy, and the passes are capped
+        assertThat(wrongAnswerMapper.selectById(crowded.getId()).getUserTags()).containsExactly("dup", "dup");
+        assertThat(wrongAnswerMapper.selectById(foreign.getId()).getUserTags()).containsExactly("a_b");
+    }
+
+    private void insertReviewLog(Long userId, Long recordId, int timeSpentSec, LocalDateTime reviewAt) {
+        WrongAnswerReviewLog log = new WrongAnswerReviewLog();
+        log.setUserId(userId);
+        log.setWrongAnswerId(recordId);
+        log.setResult("pass");
+        log.setTimeSpentSec(timeSpentSec);
+        log.setPreviousStatus("reviewing");
+        log.setNewStatus("reviewing");
+        log.setReviewAt(reviewAt);
+        reviewLogMapper.insert(log);
+    }
+
+    private WrongAnswerDto recordFor(Long userId, Long questionId) {
+        RecordWrongAnswerRequest request = new RecordWrongAnswerRequest();
+        request.setQuestionId(questionId);
+        request.setSource("question_bank");
+        request.setIsCorrect(false);
+        request.setDifficulty("easy");
+        return wrongAnswerService.recordWrongAnswer(userId, request);
+    }
 }
@@ -0,0 +1,153 @@
+package com.interview.service.impl;
+
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.interview.service.AiResponseCache;
+import com.interview.service.SessionStorageClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AiServiceImplTest {
+
+    private HttpServer server;
+    private AiServiceImpl service;
+    private volatile int status = 200;
+    private volatile String body = "";
+    private volatile String lastRequest;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        service = new AiServiceImpl();
+        ReflectionTestUtils.setField(service, "openAiApiKey", "test-key");
+        ReflectionTestUtils.setField(service, "openAiBaseUrl", baseUrl);
+        ReflectionTestUtils.setField(service, "openAiModel", "test-model");
+        ReflectionTestUtils.setField(service, "openAiTimeoutMs", 5000);
+        ReflectionTestUtils.setField(service, "difyWorkflowUrl", baseUrl + "/v1/workflows/run");
+        ReflectionTestUtils.setField(service, "difyApiKey", "dify-key");
+        ReflectionTestUtils.setField(service, "difyGenerateWorkflowId", "generate");
+        ReflectionTestUtils.setField(service, "difyAnswerWorkflowId", "");
+        ReflectionTestUtils.setField(service, "difyTimeoutSeconds", 5);
+        ReflectionTestUtils.setField(service, "responseCache", new AiResponseCache(
+            new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class),
+            new SimpleMeterRegistry(), false, 100, false, "ai:cache:", 1,
+            Duration.ofHours(1), Duration.ofHours(1), Duration.ofHours(1)));
+        ReflectionTestUtils.setField(service, "sessionStorage", new SessionStorageClient(
+            "", "", false, Duration.ofSeconds(1), Duration.ofSeconds(1), 10));
+        service.initFanOut();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void analyzeAnswer_returnsTheModelsJsonReplyAsAMap() throws Exception {
+        reply(200, completion("{\\\"score\\\":88,\\\"strengths\\\":[\\\"depth\\\"]}"));
+
+        Map<String, Object> analysis = service.analyzeAnswerAsync("Q", "A", null).get(5, TimeUnit.SECONDS);
+
+        assertThat(analysis.get("score")).isEqualTo(88);
+        assertThat(analysis.get("strengths")).asList().containsExactly("depth");
+    }
+
+    @Test
+    void analyzeAnswer_fallsBackToRawFeedbackWhenTheReplyIsNotJson() throws Exception {
+        reply(200, completion("Looks solid overall."));
+
+        Map<String, Object> analysis = service.analyzeAnswerAsync("Q", "A", "ref").get(5, TimeUnit.SECONDS);
+
+        assertThat(analysis).containsEntry("score", 70).containsEntry("feedback", "Looks solid overall.");
+    }
+
+    @Test
+    void chat_completesWithAFallbackMessageWhenUpstreamFails() throws Exception {
+        reply(503, "{\"error\":\"overloaded\"}");
+        assertThat(service.chatWithAIAsync("hi", null).get(5, TimeUnit.SECONDS))
+            .contains("temporarily unavailable");
+
+        reply(200, "not json");
+        assertThat(service.chatWithAIAsync("hi", null).get(5, TimeUnit.SECONDS))
+            .contains("unexpected error");
+
+        ReflectionTestUtils.setField(service, "openAiBaseUrl", "http://127.0.0.1:1"); // nothing listens there
+        assertThat(service.chatWithAIAsync("hi", null).get(10, TimeUnit.SECONDS))
+            .contains("unexpected error");
+    }
+
+    @Test
+    void cachedCallsAreSentAtTemperatureZeroAndChatIsNot() throws Exception {
+        reply(200, completion("What is a B-tree?"));
+
+        service.generateInterviewQuestionAsync("Backend", "medium", null).get(5, TimeUnit.SECONDS);
+        JSONObject question = JSONUtil.parseObj(lastRequest);
+        service.chatWithAIAsync("hi", null).get(5, TimeUnit.SECONDS);
+        JSONObject chat = JSONUtil.parseObj(lastRequest);
+
+        assertThat(question.getDouble("temperature")).isZero();
+        assertThat(chat.getDouble("temperature")).isEqualTo(0.7);
+        assertThat(chat.containsKey("stream")).isFalse();
+    }
+
+    @Test
+    void difyWorkflow_mapsUpstreamFailuresToAnErrorResult() throws Exception {
+        reply(502, "bad gateway");
+
+        Map<String, Object> result = service.callDifyWorkflowAsync(
+            Map.of("requestType", "generate_questions", "jobTitle", "Backend engineer")).get(5, TimeUnit.SECONDS);
+
+        assertThat(result).containsEntry("success", false);
+        assertThat((String) result.get("error")).contains("502");
+    }
+
+    @Test
+    void difyWorkflow_rejectsMissingInputsWithoutCallingUpstream() throws Exception {
+        assertThat(service.callDifyWorkflowAsync(Map.of()).get(5, TimeUnit.SECONDS))
+            .containsEntry("error", "requestType must be provided");
+        assertThat(service.callDifyWorkflowAsync(Map.of("requestType", "generate_questions")).get(5, TimeUnit.SECONDS))
+            .containsEntry("error", "jobTitle must be provided");
+        assertThat(service.callDifyWorkflowAsync(Map.of("requestType", "unknown")).get(5, TimeUnit.SECONDS))
+            .containsEntry("error", "Unsupported requestType: unknown");
+    }
+
+    private void reply(int status, String body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    private static String completion(String escapedContent) {
+        return "{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\"" + escapedContent + "\"}}]}";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        lastRequest = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.interview.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedFanOutTest {
+
+    @Test
+    void neverRunsMoreThanParallelismTasksAtOnce() {
+        BoundedFanOut fanOut = new BoundedFanOut(2, 0, 1, 10);
+        List<CompletableFuture<String>> upstream = new ArrayList<>();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(fanOut.submit(() -> {
+                CompletableFuture<String> call = new CompletableFuture<>();
+                upstream.add(call);
+                return call;
+            }));
+        }
+
+        assertThat(fanOut.inFlightCount()).isEqualTo(2);
+        assertThat(fanOut.pendingCount()).isEqualTo(3);
+
+        upstream.get(0).complete("a");
+        assertThat(results.get(0)).isCompletedWithValue("a");
+        assertThat(upstream).hasSize(3);
+        assertThat(fanOut.inFlightCount()).isEqualTo(2);
+
+        upstream.get(1).completeExceptionally(new IllegalStateException("boom"));
+        assertThat(results.get(1)).isCompletedExceptionally();
+        upstream.get(2).complete("c");
+        upstream.get(3).complete("d");
+        upstream.get(4).complete("e");
+
+        assertThat(results.get(4)).isCompletedWithValue("e");
+        assertThat(fanOut.inFlightCount()).isZero();
+        assertThat(fanOut.pendingCount()).isZero();
+    }
+
+    @Test
+    void startsBeyondTheBurstWaitForTheBucketToRefill() {
+        BoundedFanOut fanOut = new BoundedFanOut(10, 20, 2, 10);
+        AtomicInteger started = new AtomicInteger();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        long begin = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            results.add(fanOut.submit(() -> CompletableFuture.completedFuture(started.incrementAndGet())));
+        }
+
+        assertThat(started.get()).isEqualTo(2);
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).orTimeout(5, TimeUnit.SECONDS).join();
+        assertThat(started.get()).isEqualTo(4);
+        // two tokens at 20/s take at least ~100 ms to refill
+        assertThat(System.nanoTime() - begin).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(90));
+    }
+
+    @Test
+    void aTaskThatThrowsFailsOnlyItsOwnFuture() {
+        BoundedFanOut fanOut = new BoundedFanOut(1, 0, 1, 10);
+        CompletableFuture<String> failed = fanOut.submit(() -> {
+            throw new IllegalArgumentException("bad input");
+        });
+        CompletableFuture<String> next = fanOut.submit(() -> CompletableFuture.completedFuture("ok"));
+
+        assertThat(failed).isCompletedExceptionally();
+        assertThat(next).isCompletedWithValue("ok");
+    }
+
+    @Test
+    void rejectsSubmissionsBeyondMaxPending() {
+        BoundedFanOut fanOut = new BoundedFanOut(1, 0, 1, 2);
+        CompletableFuture<String> blocker = new CompletableFuture<>();
+        fanOut.submit(() -> blocker);
+        CompletableFuture<String> first = fanOut.submit(() -> CompletableFuture.completedFuture("first"));
+        CompletableFuture<String> second = fanOut.submit(() -> CompletableFuture.completedFuture("second"));
+
+        CompletableFuture<String> rejected = fanOut.submit(() -> CompletableFuture.completedFuture("third"));
+
+        assertThat(rejected).isCompletedExceptionally();
+        assertThat(rejected.handle((value, e) -> e).join()).isInstanceOf(RejectedExecutionException.class);
+        assertThat(fanOut.pendingCount()).isEqualTo(2);
+
+        blocker.complete("done");
+        assertThat(first).isCompletedWithValue("first");
+        assertThat(second).isCompletedWithValue("second");
+    }
+
+    @Test
+    void drainsALongQueueOfSynchronousTasksWithoutRecursing() {
+        int tasks = 50_000;
+        BoundedFanOut fanOut = new BoundedFanOut(1, 0, 1, tasks);
+        CompletableFuture<Integer> blocker = new CompletableFuture<>();
+        fanOut.submit(() -> blocker);
+        AtomicInteger started = new AtomicInteger();
+        CompletableFuture<Integer> last = null;
+        for (int i = 0; i < tasks; i++) {
+            last = fanOut.submit(() -> CompletableFuture.completedFuture(started.incrementAndGet()));
+        }
+
+        blocker.complete(0); // every queued task completes inline; a recursive drain overflows the stack here
+
+        assertThat(last).isCompletedWithValue(tasks);
+        assertThat(fanOut.pendingCount()).isZero();
+        assertThat(fanOut.inFlightCount()).isZero();
+    }
+}
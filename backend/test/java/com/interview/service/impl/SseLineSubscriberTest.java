@@ -0,0 +1,120 @@
+package com.interview.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseLineSubscriberTest {
+
+    private final List<String> events = new ArrayList<>();
+    private final AtomicInteger ends = new AtomicInteger();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final AtomicBoolean upstreamCancelled = new AtomicBoolean();
+
+    @Test
+    void dataLinesOfOneEventAreJoinedAndOtherFieldsIgnored() {
+        SseLineSubscriber subscriber = subscribe(event -> false);
+
+        lines(subscriber, ": keep-alive", "event: message", "id: 1", "data: first", "data:second", "", "data: next", "");
+
+        assertThat(events).containsExactly("first\nsecond", "next");
+        assertThat(upstreamCancelled).isFalse();
+    }
+
+    @Test
+    void doneEventFinishesTheStreamAndCancelsUpstream() {
+        SseLineSubscriber subscriber = subscribe("[DONE]"::equals);
+
+        lines(subscriber, "data: token", "", "data: [DONE]", "", "data: after", "");
+        subscriber.onComplete();
+
+        assertThat(events).containsExactly("token", "[DONE]");
+        assertThat(upstreamCancelled).isTrue();
+        assertThat(ends.get()).isZero();
+        assertThat(failure.get()).isNull();
+    }
+
+    @Test
+    void completionFlushesAnEventWithoutTrailingBlankLineThenEnds() {
+        SseLineSubscriber subscriber = subscribe(event -> false);
+
+        lines(subscriber, "data: {\"answer\":\"partial\"}");
+        subscriber.onComplete();
+
+        assertThat(events).containsExactly("{\"answer\":\"partial\"}");
+        assertThat(ends.get()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelStopsAllFurtherCallbacks() {
+        SseLineSubscriber subscriber = subscribe(event -> false);
+
+        lines(subscriber, "data: one", "");
+        subscriber.cancel();
+        lines(subscriber, "data: two", "");
+        subscriber.onError(new IllegalStateException("reset"));
+        subscriber.onComplete();
+
+        assertThat(events).containsExactly("one");
+        assertThat(upstreamCancelled).isTrue();
+        assertThat(ends.get()).isZero();
+        assertThat(failure.get()).isNull();
+    }
+
+    @Test
+    void failingCallbackCancelsUpstreamAndReportsTheFailure() {
+        IllegalStateException boom = new IllegalStateException("client gone");
+        SseLineSubscriber subscriber = subscribe(event -> {
+            throw boom;
+        });
+
+        lines(subscriber, "data: token", "");
+        subscriber.onComplete();
+
+        assertThat(failure.get()).isSameAs(boom);
+        assertThat(upstreamCancelled).isTrue();
+        assertThat(ends.get()).isZero();
+    }
+
+    @Test
+    void transportErrorIsReported() {
+        SseLineSubscriber subscriber = subscribe(event -> false);
+        IllegalStateException reset = new IllegalStateException("reset");
+
+        subscriber.onError(reset);
+
+        assertThat(failure.get()).isSameAs(reset);
+    }
+
+    private SseLineSubscriber subscribe(Predicate<String> handler) {
+        SseLineSubscriber subscriber = new SseLineSubscriber(event -> {
+            events.add(event);
+            return handler.test(event);
+        }, ends::incrementAndGet, failure::set);
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+                upstreamCancelled.set(true);
+            }
+        });
+        return subscriber;
+    }
+
+    private static void lines(SseLineSubscriber subscriber, String... lines) {
+        for (String line : lines) {
+            subscriber.onNext(line);
+        }
+    }
+}
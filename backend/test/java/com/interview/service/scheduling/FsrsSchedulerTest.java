@@ -0,0 +1,59 @@
+package com.interview.service.scheduling;
+
+import com.interview.config.WrongAnswersSchedulerConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FsrsSchedulerTest {
+
+    private final WrongAnswersSchedulerConfig config = new WrongAnswersSchedulerConfig();
+    private final FsrsScheduler scheduler = new FsrsScheduler(config);
+
+    @Test
+    void firstReview_initialisesMemoryStateFromGrade() {
+        ReviewState good = new ReviewState();
+        scheduler.review(good, 5);
+        ReviewState again = new ReviewState();
+        scheduler.review(again, 1);
+
+        assertThat(good.stability).isGreaterThan(again.stability);
+        assertThat(good.difficulty).isLessThan(again.difficulty);
+        assertThat(good.intervalDays).isGreaterThan(again.intervalDays);
+        assertThat(again.intervalDays).isEqualTo(1);
+    }
+
+    @Test
+    void successfulReviews_growStabilityAndLapseShrinksIt() {
+        ReviewState state = new ReviewState();
+        scheduler.review(state, 5);
+        double previous = state.stability;
+        for (int i = 0; i < 3; i++) {
+            state.elapsedDays = state.intervalDays;
+            scheduler.review(state, 5);
+            assertThat(state.stability).isGreaterThan(previous);
+            previous = state.stability;
+        }
+        int longInterval = state.intervalDays;
+
+        state.elapsedDays = state.intervalDays;
+        scheduler.review(state, 1);
+
+        assertThat(state.stability).isLessThan(previous);
+        assertThat(state.intervalDays).isLessThan(longInterval);
+        assertThat(state.repetitions).isZero();
+        assertThat(state.difficulty).isBetween(1.0, 10.0);
+    }
+
+    @Test
+    void alphaScalesInterval() {
+        ReviewState state = new ReviewState();
+        state.stability = 20;
+        state.difficulty = 5;
+        int base = scheduler.intervalDays(state);
+
+        config.setFsrsAlpha(2.0);
+
+        assertThat(scheduler.intervalDays(state)).isEqualTo(base * 2);
+    }
+}
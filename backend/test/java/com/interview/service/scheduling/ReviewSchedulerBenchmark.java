@@ -0,0 +1,89 @@
+package com.interview.service.scheduling;
+
+import com.interview.config.WrongAnswersSchedulerConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-item cost of each ReviewScheduler, for the review endpoint (review) and the bulk
+ * rescheduling path (intervalDays).
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.interview.service.scheduling.ReviewSchedulerBenchmark
+ * and add -prof gc to the JMH options to confirm zero allocation per item.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReviewSchedulerBenchmark {
+
+    private static final int ITEMS = 4096; // power of two, indexed with a mask
+
+    @Param({"sm2", "ebbinghaus", "fsrs"})
+    public String strategy;
+
+    private ReviewScheduler scheduler;
+    private final ReviewState[] states = new ReviewState[ITEMS];
+    private final int[] qualities = new int[ITEMS];
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        WrongAnswersSchedulerConfig config = new WrongAnswersSchedulerConfig();
+        switch (strategy) {
+            case "ebbinghaus" -> scheduler = new EbbinghausScheduler();
+            case "fsrs" -> scheduler = new FsrsScheduler(config);
+            default -> scheduler = new Sm2Scheduler();
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < ITEMS; i++) {
+            ReviewState state = new ReviewState();
+            state.wrongCount = random.nextInt(6);
+            state.elapsedDays = random.nextInt(30);
+            // Give every state some history so the steady-state paths are measured
+            for (int r = 0; r < 3; r++) {
+                scheduler.review(state, random.nextInt(6));
+            }
+            states[i] = state;
+            qualities[i] = random.nextInt(6);
+        }
+    }
+
+    @Benchmark
+    public int review() {
+        int i = cursor++ & (ITEMS - 1);
+        ReviewState state = states[i];
+        scheduler.review(state, qualities[i]);
+        return state.intervalDays;
+    }
+
+    @Benchmark
+    public int intervalDays() {
+        return scheduler.intervalDays(states[cursor++ & (ITEMS - 1)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ReviewSchedulerBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,107 @@
+package com.interview.support;
+
+import cn.hutool.json.JSONArray;
+import cn.hutool.json.JSONUtil;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The MySQL JSON functions used by the mappers, registered as H2 aliases in schema.sql.
+ *
+ * Only the shapes the mappers use are supported: JSON arrays of scalars, the '$' path for
+ * appends, '$[n]' paths for removals and 'one' searches with LIKE patterns escaped by '\'.
+ * Anything else fails loudly so a new query shape is not silently tested against wrong semantics.
+ */
+public final class H2JsonFunctions {
+
+    private static final Pattern INDEX_PATH = Pattern.compile("\\$\\[(\\d+)]");
+
+    private H2JsonFunctions() {
+    }
+
+    public static String jsonQuote(String value) {
+        return value == null ? null : JSONUtil.quote(value, false);
+    }
+
+    public static String jsonUnquote(String value) {
+        if (value == null || !value.startsWith("\"")) {
+            return value;
+        }
+        return JSONUtil.parseArray("[" + value + "]").getStr(0);
+    }
+
+    public static Boolean jsonContains(String document, String candidate) {
+        if (document == null || candidate == null) {
+            return null;
+        }
+        Object wanted = JSONUtil.parseArray("[" + candidate + "]").get(0);
+        return JSONUtil.parseArray(document).contains(wanted);
+    }
+
+    public static String jsonArrayAppend(String document, String path, String value) {
+        if (document == null) {
+            return null;
+        }
+        if (!"$".equals(path)) {
+            throw new IllegalArgumentException("Unsupported path: " + path);
+        }
+        // COALESCE with H2's built-in JSON_ARRAY() hands a text column over as a JSON string
+        JSONArray array = JSONUtil.parseArray(jsonUnquote(document));
+        array.add(value);
+        return array.toString();
+    }
+
+    public static String jsonRemove(String document, String path) {
+        if (document == null || path == null) {
+            return null;
+        }
+        Matcher matcher = INDEX_PATH.matcher(path);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Unsupported path: " + path);
+        }
+        JSONArray array = JSONUtil.parseArray(document);
+        int index = Integer.parseInt(matcher.group(1));
+        if (index < array.size()) {
+            array.remove(index);
+        }
+        return array.toString();
+    }
+
+    /**
+     * Path of the first string element matching the LIKE pattern, as a quoted JSON string
+     */
+    public static String jsonSearch(String document, String oneOrAll, String pattern) {
+        if (document == null || pattern == null) {
+            return null;
+        }
+        if (!"one".equals(oneOrAll)) {
+            throw new IllegalArgumentException("Unsupported search mode: " + oneOrAll);
+        }
+        Pattern like = likeToRegex(pattern);
+        JSONArray array = JSONUtil.parseArray(document);
+        for (int i = 0; i < array.size(); i++) {
+            if (array.get(i) instanceof String text && like.matcher(text).matches()) {
+                return "\"$[" + i + "]\"";
+            }
+        }
+        return null;
+    }
+
+    private static Pattern likeToRegex(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\\' && i + 1 < pattern.length()) {
+                regex.append(Pattern.quote(String.valueOf(pattern.charAt(++i))));
+            } else if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+}
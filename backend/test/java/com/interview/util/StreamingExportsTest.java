@@ -0,0 +1,30 @@
+package com.interview.util;
+
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.MyBatisSystemException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingExportsTest {
+
+    @Test
+    void ioCause_findsTheWriterFailureBehindMyBatisWrapping() {
+        IOException disconnect = new IOException("Broken pipe");
+        RuntimeException wrapped = new MyBatisSystemException(
+            new PersistenceException("Error querying database", new UncheckedIOException(disconnect)));
+
+        assertThat(StreamingExports.ioCause(wrapped)).isSameAs(disconnect);
+    }
+
+    @Test
+    void ioCause_rethrowsFailuresWithoutAnIOException() {
+        RuntimeException dataError = new MyBatisSystemException(new PersistenceException("Table missing"));
+
+        assertThatThrownBy(() -> StreamingExports.ioCause(dataError)).isSameAs(dataError);
+    }
+}
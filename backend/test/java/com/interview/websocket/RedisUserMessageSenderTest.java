@@ -0,0 +1,68 @@
+package com.interview.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisUserMessageSenderTest {
+
+    private static final String CHANNEL = "wrong-answers:user-messages";
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final UserSessionDelivery sessionDelivery = mock(UserSessionDelivery.class);
+    private final SimpUserRegistry userRegistry = mock(SimpUserRegistry.class);
+    private final RedisUserMessageSender sender = new RedisUserMessageSender(
+        redisTemplate, sessionDelivery, userRegistry, new ObjectMapper(), CHANNEL);
+
+    @Test
+    void publishedMessageIsDeliveredByTheInstanceHoldingTheUser() {
+        when(userRegistry.getUser("42")).thenReturn(mock(SimpUser.class));
+
+        sender.sendToUser("42", Map.of("type", "upsert", "recordId", 7));
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), published.capture());
+        sender.onMessage(message(published.getValue()), null);
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(sessionDelivery).toUser(eq("42"), payload.capture());
+        JsonNode delivered = (JsonNode) payload.getValue();
+        assertThat(delivered.path("type").asText()).isEqualTo("upsert");
+        assertThat(delivered.path("recordId").asLong()).isEqualTo(7L);
+    }
+
+    @Test
+    void messagesForUsersWithoutLocalSessionsAreIgnored() {
+        sender.onMessage(message("{\"user\":\"43\",\"payload\":{\"type\":\"upsert\"}}"), null);
+        sender.onMessage(message("{\"payload\":{\"type\":\"upsert\"}}"), null);
+
+        verify(sessionDelivery, never()).toUser(anyString(), any());
+    }
+
+    @Test
+    void unreadableMessagesAreDropped() {
+        sender.onMessage(message("not json"), null);
+
+        verify(sessionDelivery, never()).toUser(anyString(), any());
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,39 @@
+package com.interview.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.web.socket.messaging.DefaultSimpUserRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class UserMessageSenderTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+        .withUserConfiguration(LocalUserMessageSender.class, RedisUserMessageSender.class)
+        .withBean(UserSessionDelivery.class, () -> mock(UserSessionDelivery.class))
+        .withBean(StringRedisTemplate.class, () -> mock(StringRedisTemplate.class))
+        .withBean(SimpUserRegistry.class, DefaultSimpUserRegistry::new)
+        .withBean(ObjectMapper.class, ObjectMapper::new);
+
+    @Test
+    void simpleAndRelayBrokersSendLocally() {
+        runner.run(context -> assertThat(context).getBean(UserMessageSender.class)
+            .isInstanceOf(LocalUserMessageSender.class));
+        runner.withPropertyValues("wrong-answers.websocket.broker=relay")
+            .run(context -> assertThat(context).getBean(UserMessageSender.class)
+                .isInstanceOf(LocalUserMessageSender.class));
+    }
+
+    @Test
+    void redisBrokerSendsThroughRedis() {
+        runner.withPropertyValues("wrong-answers.websocket.broker=redis")
+            .run(context -> {
+                assertThat(context).hasSingleBean(UserMessageSender.class);
+                assertThat(context).getBean(UserMessageSender.class).isInstanceOf(RedisUserMessageSender.class);
+            });
+    }
+}
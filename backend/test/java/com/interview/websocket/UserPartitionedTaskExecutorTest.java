@@ -0,0 +1,113 @@
+package com.interview.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserPartitionedTaskExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserPartitionedTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new UserPartitionedTaskExecutor(4, 10, false, meterRegistry);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void messagesOfOneUser_runInArrivalOrderEvenWhenTheLaneIsFull() throws Exception {
+        List<Integer> seen = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) {
+            int n = i;
+            executor.execute(task("alice", () -> {
+                seen.add(n);
+                done.countDown();
+            }));
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(seen).containsExactlyElementsOf(IntStream.range(0, 100).boxed().toList());
+        assertThat(meterRegistry.get("wrong_answers.ws.inbound.handler").timer().count()).isEqualTo(100);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void submittedTasks_runOnTheLanesToo() throws Exception {
+        String submitted = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+        String listenable = executor.submitListenable(() -> Thread.currentThread().getName())
+            .completable().get(5, TimeUnit.SECONDS);
+        executor.submit(() -> {}).get(5, TimeUnit.SECONDS);
+
+        assertThat(submitted).startsWith("ws-inbound-lane-");
+        assertThat(listenable).startsWith("ws-inbound-lane-");
+        assertThat(meterRegistry.get("wrong_answers.ws.inbound.handler").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void slowUser_doesNotBlockUserOnAnotherLane() throws Exception {
+        String slow = "slow";
+        String other = IntStream.range(0, 100).mapToObj(i -> "user-" + i)
+            .filter(name -> executor.laneOf(task(name, () -> {})) != executor.laneOf(task(slow, () -> {})))
+            .findFirst().orElseThrow();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherRan = new CountDownLatch(1);
+
+        executor.execute(task(slow, () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        executor.execute(task(other, otherRan::countDown));
+
+        assertThat(otherRan.await(2, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+    }
+
+    private static MessageHandlingRunnable task(String user, Runnable body) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        Principal principal = () -> user;
+        accessor.setUser(principal);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        return new MessageHandlingRunnable() {
+            @Override
+            public Message<?> getMessage() {
+                return message;
+            }
+
+            @Override
+            public MessageHandler getMessageHandler() {
+                return m -> {};
+            }
+
+            @Override
+            public void run() {
+                body.run();
+            }
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.interview.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.DefaultSimpUserRegistry;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserPresenceRegistryTest {
+
+    private final UserPresenceRegistry presence = new UserPresenceRegistry(
+        new DefaultSimpUserRegistry(),
+        new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class),
+        new SimpleMeterRegistry(),
+        "simple",
+        "wrong-answers:presence"
+    );
+
+    @Test
+    void userIsOnlineUntilTheirLastSessionDisconnects() {
+        Principal alice = () -> "42";
+        presence.onConnected(connected("s1", alice));
+        presence.onConnected(connected("s2", alice));
+        assertThat(presence.isOnline("42")).isTrue();
+
+        presence.onDisconnect(disconnected("s1", alice));
+        presence.onDisconnect(disconnected("s1", alice)); // repeated event is ignored
+        assertThat(presence.isOnline("42")).isTrue();
+
+        presence.onDisconnect(disconnected("s2", alice));
+        assertThat(presence.isOnline("42")).isFalse();
+        assertThat(presence.isOnline("43")).isFalse();
+    }
+
+    private static SessionConnectedEvent connected(String sessionId, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECTED);
+        accessor.setSessionId(sessionId);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        return new SessionConnectedEvent(UserPresenceRegistryTest.class, message, user);
+    }
+
+    private static SessionDisconnectEvent disconnected(String sessionId, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        accessor.setSessionId(sessionId);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        return new SessionDisconnectEvent(UserPresenceRegistryTest.class, message, sessionId, CloseStatus.NORMAL, user);
+    }
+}
@@ -0,0 +1,57 @@
+package com.interview.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WireMessagesTest {
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Test
+    void changes_useShortKeysAndOmitAbsentMembers() throws Exception {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("reviewStatus", "mastered");
+        WireMessages.Changes message = new WireMessages.Changes(List.of(
+            new WireMessages.Change(7L, "upsert", fields),
+            new WireMessages.Change(8L, "delete", null)
+        ), 12L, 1000L);
+
+        JsonNode tree = json.readTree(json.writeValueAsString(message));
+
+        assertThat(tree.get("v").asInt()).isEqualTo(WireMessages.VERSION);
+        assertThat(tree.get("t").asText()).isEqualTo("CHANGES");
+        assertThat(tree.get("ts").asLong()).isEqualTo(1000L);
+        assertThat(tree.get("s").asLong()).isEqualTo(12L);
+        assertThat(tree.get("c").get(0).get("f").get("reviewStatus").asText()).isEqualTo("mastered");
+        assertThat(tree.get("c").get(1).has("f")).isFalse();
+    }
+
+    @Test
+    void binaryFormats_roundTripAndAreSmallerThanJson() throws Exception {
+        WireMessages.Error message = new WireMessages.Error("Record not found or unauthorized", null, 1000L);
+        byte[] text = json.writeValueAsBytes(message);
+
+        for (ObjectMapper binary : List.of(new ObjectMapper(new CBORFactory()), new ObjectMapper(new SmileFactory()))) {
+            byte[] encoded = binary.writeValueAsBytes(message);
+            assertThat(binary.readTree(encoded)).isEqualTo(json.readTree(text));
+            assertThat(encoded.length).isLessThan(text.length);
+        }
+    }
+
+    @Test
+    void negotiate_picksFirstSupportedFormat() {
+        assertThat(WireFormat.negotiate(null)).isEqualTo(WireFormat.JSON);
+        assertThat(WireFormat.negotiate("msgpack, smile, cbor")).isEqualTo(WireFormat.SMILE);
+        assertThat(WireFormat.negotiate("CBOR")).isEqualTo(WireFormat.CBOR);
+        assertThat(WireFormat.negotiate("xml")).isEqualTo(WireFormat.JSON);
+    }
+}
@@ -11,10 +11,13 @@
     review_status VARCHAR(20),
     next_review_time TIMESTAMP,
     review_priority VARCHAR(10),
+    priority_score INT NOT NULL DEFAULT 0,
     repetitions INT DEFAULT 0,
     ease_factor DOUBLE DEFAULT 2.5,
     interval_days INT DEFAULT 0,
     last_quality INT,
+    fsrs_stability DOUBLE,
+    fsrs_difficulty DOUBLE,
     user_notes TEXT,
     user_tags TEXT,
     question_title VARCHAR(255),
@@ -28,6 +31,10 @@
 CREATE UNIQUE INDEX uk_wrong_answers_user_question ON wrong_answer_records(user_id, question_id);
 CREATE INDEX idx_wrong_answers_user_status ON wrong_answer_records(user_id, review_status);
 CREATE INDEX idx_wrong_answers_user_source ON wrong_answer_records(user_id, source);
+CREATE INDEX idx_wrong_answers_user_last_wrong ON wrong_answer_records(user_id, last_wrong_time);
+CREATE INDEX idx_wrong_answers_user_status_last_wrong ON wrong_answer_records(user_id, review_status, last_wrong_time);
+CREATE INDEX idx_wrong_answers_user_source_last_wrong ON wrong_answer_records(user_id, source, last_wrong_time);
+CREATE INDEX idx_wrong_answers_user_due ON wrong_answer_records(user_id, review_status, next_review_time);
 
 -- Review logs table for wrong answers
 CREATE TABLE IF NOT EXISTS wrong_answer_review_logs (
@@ -44,3 +51,70 @@ CREATE TABLE IF NOT EXISTS wrong_answer_review_logs (
 
 CREATE INDEX idx_review_logs_user_record ON wrong_answer_review_logs(user_id, wrong_answer_id);
 CREATE INDEX idx_review_logs_time ON wrong_answer_review_logs(review_at);
+CREATE INDEX idx_review_logs_user_time ON wrong_answer_review_logs(user_id, review_at);
+
+-- Materialized per-user statistics counters
+CREATE TABLE IF NOT EXISTS wrong_answer_stat_counters (
+    user_id BIGINT NOT NULL,
+    dimension VARCHAR(20) NOT NULL,
+    bucket_key VARCHAR(50) NOT NULL,
+    count_value INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, dimension, bucket_key)
+);
+
+-- Bulk rescheduling job checkpoints
+CREATE TABLE IF NOT EXISTS wrong_answer_reschedule_checkpoints (
+    job_name VARCHAR(50) NOT NULL PRIMARY KEY,
+    last_id BIGINT NOT NULL DEFAULT 0,
+    processed BIGINT NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL,
+    started_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL
+);
+
+-- Wrong-answer ingestion dead letters
+CREATE TABLE IF NOT EXISTS wrong_answer_ingest_dead_letters (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NULL,
+    source VARCHAR(50) NULL,
+    answer_count INT NOT NULL DEFAULT 0,
+    payload TEXT NOT NULL,
+    error_message VARCHAR(1000) NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Wrong-answer change outbox
+CREATE TABLE IF NOT EXISTS wrong_answer_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    record_id BIGINT NULL,
+    op VARCHAR(20) NOT NULL,
+    seq BIGINT NULL,
+    payload TEXT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Per-user change sequence for resumable sync
+CREATE TABLE IF NOT EXISTS wrong_answer_sync_seq (
+    user_id BIGINT NOT NULL PRIMARY KEY,
+    seq BIGINT NOT NULL DEFAULT 0,
+    floor_seq BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS wrong_answer_sync_log (
+    user_id BIGINT NOT NULL,
+    record_id BIGINT NOT NULL,
+    seq BIGINT NOT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    changed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (user_id, record_id)
+);
+
+-- MySQL JSON functions used by the mappers, see com.interview.support.H2JsonFunctions
+CREATE ALIAS IF NOT EXISTS JSON_QUOTE FOR 'com.interview.support.H2JsonFunctions.jsonQuote';
+CREATE ALIAS IF NOT EXISTS JSON_UNQUOTE FOR 'com.interview.support.H2JsonFunctions.jsonUnquote';
+CREATE ALIAS IF NOT EXISTS JSON_CONTAINS FOR 'com.interview.support.H2JsonFunctions.jsonContains';
+CREATE ALIAS IF NOT EXISTS JSON_ARRAY_APPEND FOR 'com.interview.support.H2JsonFunctions.jsonArrayAppend';
+CREATE ALIAS IF NOT EXISTS JSON_REMOVE FOR 'com.interview.support.H2JsonFunctions.jsonRemove';
+CREATE ALIAS IF NOT EXISTS JSON_SEARCH FOR 'com.interview.support.H2JsonFunctions.jsonSearch';
@@ -490,13 +490,18 @@ export const useWrongAnswersStore = defineStore('wrongAnswers', () => {
       const response = await api.put(`/wrong-answers/${recordId}/notes`, { notes })
 
       if (response.data) {
+        // The response carries only the written fields
         const index = wrongAnswers.value.findIndex(item => item.id === recordId)
         if (index >= 0) {
-          wrongAnswers.value[index] = response.data
+          wrongAnswers.value[index] = normalizeRecord({
+            ...wrongAnswers.value[index],
+            userNotes: response.data.userNotes,
+            updatedAt: response.data.updatedAt
+          })
         }
 
         ElMessage.success('Notes updated successfully')
-        return response.data
+        return index >= 0 ? wrongAnswers.value[index] : response.data
       }
     } catch (err) {
       error.value = err.message || 'Failed to update notes'
@@ -533,13 +538,18 @@ export const useWrongAnswersStore = defineStore('wrongAnswers', () => {
       const response = await api.put(`/wrong-answers/${recordId}/tags`, { tags })
 
       if (response.data) {
+        // The response carries only the written fields
         const index = wrongAnswers.value.findIndex(item => item.id === recordId)
         if (index >= 0) {
-          wrongAnswers.value[index] = response.data
+          wrongAnswers.value[index] = normalizeRecord({
+            ...wrongAnswers.value[index],
+            userTags: response.data.userTags,
+            updatedAt: response.data.updatedAt
+          })
         }
 
         ElMessage.success('Tags updated successfully')
-        return response.data
+        return index >= 0 ? wrongAnswers.value[index] : response.data
       }
     } catch (err) {
       error.value = err.message || 'Failed to update tags'